@@ -0,0 +1,41 @@
+import http from 'k6/http';
+import { check } from 'k6';
+
+// Сравнение режимов выполнения запросов: запускать один и тот же сценарий
+// против приложения с VIRTUAL_THREADS_ENABLED=false и VIRTUAL_THREADS_ENABLED=true
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERNAME = __ENV.USERNAME;
+const PASSWORD = __ENV.PASSWORD;
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: 200 },
+                { duration: '2m', target: 400 },
+                { duration: '30s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const response = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ username: USERNAME, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+
+    return { token: response.json('accessToken') };
+}
+
+export default function (data) {
+    const params = { headers: { Authorization: `Bearer ${data.token}` } };
+
+    const page = http.get(`${BASE_URL}/tasks?page=0&size=10`, params);
+    check(page, { 'page 200': (r) => r.status === 200 });
+
+    const task = http.get(`${BASE_URL}/tasks/1`, params);
+    check(task, { 'task 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,18 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.api-rate-limit")
+public record ApiRateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1m") Duration period,
+        @DefaultValue("300") int userQuota,
+        @DefaultValue("50") int userBurst,
+        @DefaultValue("1200") int adminQuota,
+        @DefaultValue("200") int adminBurst,
+        @DefaultValue("1s") Duration syncInterval
+) {
+}
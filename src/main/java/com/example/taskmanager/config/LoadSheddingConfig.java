@@ -0,0 +1,46 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.resilience.ConcurrencyLimitFilter;
+import com.example.taskmanager.resilience.RequestConcurrencyLimiter;
+import com.netflix.concurrency.limits.limit.Gradient2Limit;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "load-shedding", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingConfig {
+
+    @Bean
+    public RequestConcurrencyLimiter requestConcurrencyLimiter(LoadSheddingProperties properties,
+                                                               MeterRegistry meterRegistry) {
+        var metrics = RequestConcurrencyLimiter.metricsFor(meterRegistry);
+        return RequestConcurrencyLimiter.builder()
+                .named("http")
+                .metricRegistry(metrics)
+                .limit(Gradient2Limit.newBuilder()
+                        .initialLimit(properties.initialLimit())
+                        .minLimit(properties.minLimit())
+                        .maxConcurrency(properties.maxLimit())
+                        .metricRegistry(metrics)
+                        .build())
+                .partitionResolver(ConcurrencyLimitFilter::partitionOf)
+                .partition(ConcurrencyLimitFilter.CRITICAL, properties.criticalShare())
+                .partition(ConcurrencyLimitFilter.STANDARD, properties.standardShare())
+                .partition(ConcurrencyLimitFilter.BULK, properties.bulkShare())
+                .build();
+    }
+
+    // после цепочки Spring Security: для разделения запросов по приоритету нужна роль пользователя
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(RequestConcurrencyLimiter limiter,
+                                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limiter, meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
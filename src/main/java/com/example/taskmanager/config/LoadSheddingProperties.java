@@ -0,0 +1,16 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "load-shedding")
+public record LoadSheddingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("50") int initialLimit,
+        @DefaultValue("10") int minLimit,
+        @DefaultValue("1000") int maxLimit,
+        @DefaultValue("0.6") double criticalShare,
+        @DefaultValue("0.3") double standardShare,
+        @DefaultValue("0.1") double bulkShare
+) {
+}
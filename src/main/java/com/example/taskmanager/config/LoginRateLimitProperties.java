@@ -0,0 +1,17 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.login-rate-limit")
+public record LoginRateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5") int usernameCapacity,
+        @DefaultValue("1m") Duration usernameRefillInterval,
+        @DefaultValue("20") int ipCapacity,
+        @DefaultValue("6s") Duration ipRefillInterval,
+        @DefaultValue("10000") int localMaxEntries
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "task.overdue")
+public record OverdueTaskProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1m") Duration interval,
+        @DefaultValue("5m") Duration bucket,
+        @DefaultValue("48") int maxBucketsPerRun,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("1m") Duration commitGrace
+) {
+}
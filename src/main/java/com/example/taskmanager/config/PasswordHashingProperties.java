@@ -0,0 +1,21 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.password")
+public record PasswordHashingProperties(
+        Integer threads,
+        @DefaultValue("64") int queueCapacity,
+        @DefaultValue("5s") Duration waitTimeout,
+        Integer strength,
+        @DefaultValue("250ms") Duration targetHashTime,
+        @DefaultValue("10") int minStrength,
+        @DefaultValue("14") int maxStrength
+) {
+    public int resolvedThreads() {
+        return threads != null ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "datasource.replication")
+public record ReplicationProperties(
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("2s") Duration checkInterval,
+        @DefaultValue("5s") Duration readYourWritesWindow,
+        @DefaultValue("1s") Duration checkTimeout,
+        @DefaultValue("30s") Duration socketTimeout,
+        @DefaultValue("15s") Duration statementTimeout
+) {
+    public record Replica(String name, String url, String username, String password) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "resilience")
+public record ResilienceProperties(
+        @DefaultValue("FAIL_CLOSED") BlacklistFailurePolicy blacklistFailurePolicy,
+        @DefaultValue Dependency redis,
+        @DefaultValue Dependency postgres
+) {
+    public enum BlacklistFailurePolicy {
+        FAIL_OPEN, FAIL_CLOSED
+    }
+
+    public record Dependency(
+            @DefaultValue("32") int maxConcurrentCalls,
+            @DefaultValue("0ms") Duration maxWait,
+            @DefaultValue("50ms") Duration minTimeout,
+            @DefaultValue("1s") Duration maxTimeout,
+            @DefaultValue("50") float failureRateThreshold,
+            @DefaultValue("20") int slidingWindowSize,
+            @DefaultValue("10s") Duration openStateDuration
+    ) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "scheduler")
+public record SchedulerProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("4") int poolSize,
+        @DefaultValue("5s") Duration leaderCheckInterval,
+        @DefaultValue("4242") long leaderLockKey
+) {
+}
@@ -1,8 +1,20 @@
 package com.example.taskmanager.config;
 
+import com.example.taskmanager.security.ApiRateLimitFilter;
+import com.example.taskmanager.security.ApiRateLimiter;
+import com.example.taskmanager.security.BCryptCostCalibrator;
+import com.example.taskmanager.security.BCryptStrength;
+import com.example.taskmanager.security.BoundedPasswordEncoder;
 import com.example.taskmanager.security.JwtAuthenticationFilter;
+import com.example.taskmanager.security.JwtService;
+import com.example.taskmanager.security.PasswordHashingExecutor;
+import com.example.taskmanager.security.PasswordUpgradeService;
+import com.example.taskmanager.security.TargetCostBCryptPasswordEncoder;
+import com.example.taskmanager.security.UpgradingAuthenticationProvider;
 import com.example.taskmanager.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,11 +26,13 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableMethodSecurity
 @RequiredArgsConstructor
@@ -26,6 +40,11 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final UserDetailsServiceImpl userDetailsServiceImpl;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final PasswordHashingProperties passwordHashingProperties;
+    private final ApiRateLimiter apiRateLimiter;
+    private final ApiRateLimitProperties apiRateLimitProperties;
+    private final JwtService jwtService;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -33,33 +52,57 @@ public class SecurityConfig {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        // метрики и состояние пулов раскрывают внутреннее устройство, обычному пользователю нужен только health
+                        .requestMatchers(EndpointRequest.toAnyEndpoint().excluding("health")).hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
+        if (apiRateLimitProperties.enabled()) {
+            http.addFilterBefore(new ApiRateLimitFilter(apiRateLimiter, jwtService), JwtAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 
+    @Bean
+    public BCryptStrength bcryptStrength() {
+        int strength = passwordHashingProperties.strength() != null
+                ? passwordHashingProperties.strength()
+                : BCryptCostCalibrator.calibrate(passwordHashingProperties.targetHashTime(),
+                        passwordHashingProperties.minStrength(),
+                        passwordHashingProperties.maxStrength());
+        return new BCryptStrength(strength);
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        PasswordEncoder bcrypt = new TargetCostBCryptPasswordEncoder(bcryptStrength().value());
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        // хеши без {id} созданы до перехода на DelegatingPasswordEncoder
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(encoder, passwordHashingExecutor);
     }
 
     @Bean
-    public DaoAuthenticationProvider daoAuthenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+    public DaoAuthenticationProvider daoAuthenticationProvider(PasswordUpgradeService passwordUpgradeService) {
+        // устаревшие хеши (без {bcrypt} или с другим cost) перехешируются в фоне после успешного логина
+        DaoAuthenticationProvider authProvider = new UpgradingAuthenticationProvider(passwordUpgradeService);
         authProvider.setUserDetailsService(userDetailsServiceImpl);
         authProvider.setPasswordEncoder(passwordEncoder());
         return authProvider;
     }
 
     @Bean
-    public AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
+    public AuthenticationManager authenticationManager(HttpSecurity http,
+                                                       DaoAuthenticationProvider daoAuthenticationProvider) throws Exception {
         return http.getSharedObject(AuthenticationManagerBuilder.class)
-                .authenticationProvider(daoAuthenticationProvider())
+                .authenticationProvider(daoAuthenticationProvider)
                 .build();
     }
 }
@@ -0,0 +1,16 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "task.stale-pending")
+public record StalePendingTaskProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("90d") Duration after,
+        @DefaultValue("1h") Duration interval,
+        @DefaultValue("200") int batchSize,
+        @DefaultValue("10") int maxBatchesPerRun
+) {
+}
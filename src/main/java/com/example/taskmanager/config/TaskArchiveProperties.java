@@ -0,0 +1,16 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "task.archive")
+public record TaskArchiveProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("30d") Duration after,
+        @DefaultValue("10m") Duration interval,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("20") int maxBatchesPerRun
+) {
+}
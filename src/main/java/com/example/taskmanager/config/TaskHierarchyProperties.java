@@ -0,0 +1,12 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "task.hierarchy")
+public record TaskHierarchyProperties(
+        @DefaultValue("1000") int maxDepth,
+        @DefaultValue("1000") int maxNodes,
+        @DefaultValue("4243") long lockKey
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "task.outbox")
+public record TaskOutboxProperties(
+        @DefaultValue("tasks:outbox") String streamKey,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("100000") long streamMaxLength,
+        @DefaultValue("1d") Duration retention
+) {
+}
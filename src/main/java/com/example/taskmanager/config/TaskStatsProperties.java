@@ -0,0 +1,13 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "task.stats")
+public record TaskStatsProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5m") Duration interval
+) {
+}
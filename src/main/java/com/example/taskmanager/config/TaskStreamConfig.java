@@ -0,0 +1,24 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.event.RedisTaskEventPublisher;
+import com.example.taskmanager.service.TaskStreamService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class TaskStreamConfig {
+
+    @Bean
+    public RedisMessageListenerContainer taskEventsListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                     TaskStreamService taskStreamService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(taskStreamService, new ChannelTopic(RedisTaskEventPublisher.TASK_EVENTS_CHANNEL));
+        return container;
+    }
+}
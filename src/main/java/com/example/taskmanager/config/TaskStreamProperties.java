@@ -0,0 +1,15 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "task.stream")
+public record TaskStreamProperties(
+        @DefaultValue("30m") Duration timeout,
+        @DefaultValue("15s") Duration heartbeatInterval,
+        @DefaultValue("64") int bufferSize,
+        @DefaultValue("4") int dispatchThreads
+) {
+}
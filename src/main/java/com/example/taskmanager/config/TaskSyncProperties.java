@@ -0,0 +1,12 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "task.sync")
+public record TaskSyncProperties(
+        @DefaultValue("30s") Duration commitGrace
+) {
+}
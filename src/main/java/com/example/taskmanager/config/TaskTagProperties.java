@@ -0,0 +1,11 @@
+package com.example.taskmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "task.tags")
+public record TaskTagProperties(
+        @DefaultValue("5000") long rareThreshold,
+        @DefaultValue("10000") int scanLimit
+) {
+}
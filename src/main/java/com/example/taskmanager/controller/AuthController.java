@@ -5,6 +5,7 @@ import com.example.taskmanager.security.JwtService;
 import com.example.taskmanager.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -32,15 +33,20 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UserDetailsServiceImpl userDetailsServiceImpl;
     private final CookieService cookieService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @Operation(
             summary = "Логин"
     )
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody AuthenticationRequest authenticationRequest,
+                                   HttpServletRequest request,
                                    HttpServletResponse response) {
         logger.info("Попытка входа пользователя: {}", authenticationRequest.getUsername());
 
+        // лимит проверяется до BCrypt, иначе перебор паролей упирается в CPU
+        loginRateLimiter.checkAllowed(authenticationRequest.getUsername(), request.getRemoteAddr());
+
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(authenticationRequest.getUsername(),
                         authenticationRequest.getPassword())
@@ -1,17 +1,35 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.ClaimedTaskDto;
 import com.example.taskmanager.dto.PageResponse;
+import com.example.taskmanager.dto.TaskActivityDto;
+import com.example.taskmanager.dto.TaskActivityResponse;
+import com.example.taskmanager.dto.TaskAssigneesDto;
+import com.example.taskmanager.dto.TaskChangesResponse;
+import com.example.taskmanager.dto.TaskCommentRequest;
+import com.example.taskmanager.dto.TaskParentRequest;
 import com.example.taskmanager.dto.TaskRequestDto;
 import com.example.taskmanager.dto.TaskResponseDto;
+import com.example.taskmanager.dto.TaskRollupResponse;
+import com.example.taskmanager.dto.TaskStatsResponse;
 import com.example.taskmanager.dto.TaskStatusUpdateRequest;
+import com.example.taskmanager.dto.TaskSubtreeResponse;
+import com.example.taskmanager.dto.TaskTaggedResponse;
 import com.example.taskmanager.entity.Task;
 import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.service.TaskActivityService;
+import com.example.taskmanager.service.TaskHierarchyService;
 import com.example.taskmanager.service.TaskService;
+import com.example.taskmanager.service.TaskStatsService;
+import com.example.taskmanager.service.TaskStreamService;
+import com.example.taskmanager.service.TaskSyncService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,12 +38,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.security.Principal;
 import java.util.List;
@@ -39,15 +61,22 @@ public class TaskController {
     private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
 
     private final TaskService taskService;
+    private final TaskSyncService taskSyncService;
+    private final TaskStreamService taskStreamService;
+    private final TaskStatsService taskStatsService;
+    private final TaskActivityService taskActivityService;
+    private final TaskHierarchyService taskHierarchyService;
 
     @Operation(
             summary = "Получить задачи по статусу",
-            description = "Позволяет получить страницу с отфильтрованными задачами по их статусу выполнения"
+            description = "Позволяет получить страницу с отфильтрованными задачами по их статусу выполнения. " +
+                    "С includeArchived=true в выборку входят и архивные задачи (медленнее)"
     )
     @GetMapping("/filter")
     @SecurityRequirement(name = "bearerAuth")
     public ResponseEntity<PageResponse<TaskResponseDto>> getTasksByStatus(
             @RequestParam TaskStatus status,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             @PageableDefault(size = 10) Pageable pageable,
             Principal principal) {
 
@@ -56,17 +85,22 @@ public class TaskController {
         Sort forcedSort = Sort.by(Sort.Direction.ASC, "createdAt");
         Pageable forcedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), forcedSort);
 
-        return ResponseEntity.ok(PageResponse.of(taskService.findByStatus(status, principal.getName(), forcedPageable)));
+        var tasks = taskService.findByStatusWithETag(status, principal.getName(), forcedPageable, includeArchived);
+
+        return ResponseEntity.ok()
+                .eTag(tasks.eTag())
+                .body(PageResponse.of(tasks.body()));
     }
 
     @Operation(
             summary = "Получить все задачи",
             description = "Позволяет получить: пользователю страницу со всеми своими задачами " +
-                    "/ админу страницу со всеми задачами"
+                    "/ админу страницу со всеми задачами. С includeArchived=true в выборку входят и архивные задачи (медленнее)"
     )
     @GetMapping
     @SecurityRequirement(name = "bearerAuth")
     public ResponseEntity<PageResponse<TaskResponseDto>> getAllTasks(
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             @PageableDefault(size = 10) Pageable pageable) {
 
         logger.info("Пользователь '{}' запрашивает все доступные ему задачи",
@@ -75,7 +109,88 @@ public class TaskController {
         Sort forcedSort = Sort.by(Sort.Direction.ASC, "createdAt");
         Pageable forcedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), forcedSort);
 
-        return ResponseEntity.ok(PageResponse.of(taskService.findTasksForCurrentUser(forcedPageable)));
+        var tasks = taskService.findTasksForCurrentUserWithETag(forcedPageable, includeArchived);
+
+        return ResponseEntity.ok()
+                .eTag(tasks.eTag())
+                .body(PageResponse.of(tasks.body()));
+    }
+
+    @Operation(
+            summary = "Получить задачи по тегам",
+            description = "Позволяет получить доступные задачи, у которых есть все теги из tags, по времени создания. " +
+                    "Следующая страница запрашивается с курсором next из предыдущего ответа"
+    )
+    @GetMapping("/tagged")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TaskTaggedResponse> getTasksByTags(
+            @RequestParam @Size(min = 1, max = 20) List<String> tags,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit,
+            Principal principal) {
+
+        logger.info("Пользователь '{}' запрашивает задачи с тегами {}", principal.getName(), tags);
+
+        return ResponseEntity.ok(taskService.findByTags(tags, after, limit, principal.getName()));
+    }
+
+    @Operation(
+            summary = "Получить изменения задач",
+            description = "Позволяет получить задачи, созданные, измененные или удаленные после переданного токена синхронизации. " +
+                    "Без токена возвращаются все доступные задачи"
+    )
+    @GetMapping("/changes")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TaskChangesResponse> getTaskChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(500) int limit,
+            Principal principal) {
+
+        logger.info("Пользователь '{}' запрашивает изменения задач", principal.getName());
+
+        return ResponseEntity.ok(taskSyncService.findChangesSince(since, limit, principal.getName()));
+    }
+
+    @Operation(
+            summary = "Получить статистику задач",
+            description = "Позволяет получить количество задач по статусам, включая архивные: пользователю по своим задачам " +
+                    "/ админу по всем задачам. Статистика пересчитывается периодически"
+    )
+    @GetMapping("/stats")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TaskStatsResponse> getTaskStats(Principal principal) {
+        logger.info("Пользователь '{}' запрашивает статистику задач", principal.getName());
+
+        return ResponseEntity.ok(taskStatsService.findStats(principal.getName()));
+    }
+
+    @Operation(
+            summary = "Получить ближайшие по сроку задачи",
+            description = "Позволяет получить незавершенные задачи со сроком, упорядоченные по сроку и приоритету: " +
+                    "пользователю свои задачи / админу все задачи"
+    )
+    @GetMapping("/due")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<List<TaskResponseDto>> getDueTasks(
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit,
+            Principal principal) {
+
+        logger.info("Пользователь '{}' запрашивает ближайшие по сроку задачи", principal.getName());
+
+        return ResponseEntity.ok(taskService.findDueTasks(principal.getName(), limit));
+    }
+
+    @Operation(
+            summary = "Подписаться на изменения задач",
+            description = "Открывает поток Server-Sent Events с изменениями задач: пользователю по своим задачам " +
+                    "/ админу по всем задачам"
+    )
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @SecurityRequirement(name = "bearerAuth")
+    public SseEmitter streamTaskChanges(Principal principal) {
+        logger.info("Пользователь '{}' подписывается на изменения задач", principal.getName());
+
+        return taskStreamService.subscribe(principal.getName());
     }
 
     @Operation(
@@ -84,10 +199,22 @@ public class TaskController {
     )
     @GetMapping("/{id}")
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<TaskResponseDto> getTaskById(@PathVariable @Min(1) Long id, Principal principal) {
+    public ResponseEntity<TaskResponseDto> getTaskById(@PathVariable @Min(1) Long id,
+                                                       Principal principal,
+                                                       WebRequest webRequest) {
         logger.info("Пользователь '{}' запрашивает задачу с id={}", principal.getName(), id);
 
-        return ResponseEntity.ok(taskService.findByIdAndUsername(id, principal.getName()));
+        String currentETag = taskService.findTaskETag(id, principal.getName());
+        if (webRequest.checkNotModified(currentETag)) {
+            logger.debug("Задача с id={} не изменилась, ETag={}", id, currentETag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).build();
+        }
+
+        var task = taskService.findByIdAndUsernameWithETag(id, principal.getName());
+
+        return ResponseEntity.ok()
+                .eTag(task.eTag())
+                .body(task.body());
     }
 
     @Operation(
@@ -106,32 +233,169 @@ public class TaskController {
 
     @Operation(
             summary = "Обновить задачу",
-            description = "Позволяет админу обновить задачу пользователя по id"
+            description = "Позволяет админу обновить задачу пользователя по id. " +
+                    "С заголовком If-Match обновление выполняется только если версия задачи не изменилась, иначе 412. " +
+                    "Если задачу параллельно изменил другой запрос, возвращается 409"
     )
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @SecurityRequirement(name = "bearerAuth")
     public ResponseEntity<TaskResponseDto> updateTaskByAdmin(@PathVariable @Min(1) Long id,
                                                       @Valid @RequestBody TaskRequestDto taskRequestDto,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                       Principal principal) {
         logger.info("Обновление админом '{}' задачи с id={}", principal.getName(), id);
 
-        return ResponseEntity.ok(taskService.updateTaskByAdmin(id, taskRequestDto, principal.getName()));
+        var task = taskService.updateTaskByAdmin(id, taskRequestDto, principal.getName(), ifMatch);
+
+        return ResponseEntity.ok()
+                .eTag(task.eTag())
+                .body(task.body());
+    }
+
+    @Operation(
+            summary = "Получить исполнителей задачи",
+            description = "Позволяет получить пользователей и команды, которым назначена задача"
+    )
+    @GetMapping("/{id}/assignees")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TaskAssigneesDto> getAssignees(@PathVariable @Min(1) Long id, Principal principal) {
+        logger.info("Пользователь '{}' запрашивает исполнителей задачи с id={}", principal.getName(), id);
+
+        return ResponseEntity.ok(taskService.findAssignees(id, principal.getName()));
+    }
+
+    @Operation(
+            summary = "Назначить исполнителей задачи",
+            description = "Позволяет админу заменить набор пользователей и команд, которым назначена задача. " +
+                    "Назначенные исполнители видят задачу в своих списках и могут менять ее статус"
+    )
+    @PutMapping("/{id}/assignees")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TaskAssigneesDto> replaceAssignees(@PathVariable @Min(1) Long id,
+                                                             @Valid @RequestBody TaskAssigneesDto assignees,
+                                                             Principal principal) {
+        logger.info("Назначение админом '{}' исполнителей задачи с id={}", principal.getName(), id);
+
+        return ResponseEntity.ok(taskService.replaceAssignees(id, assignees, principal.getName()));
+    }
+
+    @Operation(
+            summary = "Получить историю задачи",
+            description = "Позволяет получить изменения задачи и комментарии к ней от новых к старым. " +
+                    "Следующая страница запрашивается с курсором next из предыдущего ответа"
+    )
+    @GetMapping("/{id}/activity")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TaskActivityResponse> getActivity(@PathVariable @Min(1) Long id,
+                                                            @RequestParam(required = false) String before,
+                                                            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit,
+                                                            Principal principal) {
+        logger.info("Пользователь '{}' запрашивает историю задачи с id={}", principal.getName(), id);
+
+        return ResponseEntity.ok(taskActivityService.findActivity(id, before, limit, principal.getName()));
+    }
+
+    @Operation(
+            summary = "Прокомментировать задачу",
+            description = "Позволяет владельцу, исполнителю или админу добавить комментарий в историю задачи"
+    )
+    @PostMapping("/{id}/comments")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TaskActivityDto> addComment(@PathVariable @Min(1) Long id,
+                                                      @Valid @RequestBody TaskCommentRequest request,
+                                                      Principal principal) {
+        logger.info("Пользователь '{}' комментирует задачу с id={}", principal.getName(), id);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(taskActivityService.addComment(id, request.body(), principal.getName()));
+    }
+
+    @Operation(
+            summary = "Получить подзадачи",
+            description = "Позволяет получить подзадачи всех уровней до глубины maxDepth по уровням, " +
+                    "родитель всегда раньше своих подзадач. Большие деревья обрезаются, признак - truncated"
+    )
+    @GetMapping("/{id}/subtree")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TaskSubtreeResponse> getSubtree(@PathVariable @Min(1) Long id,
+                                                          @RequestParam(required = false) @Min(1) Integer maxDepth,
+                                                          Principal principal) {
+        logger.info("Пользователь '{}' запрашивает подзадачи задачи с id={}", principal.getName(), id);
+
+        return ResponseEntity.ok(taskHierarchyService.findSubtree(id, maxDepth, principal.getName()));
+    }
+
+    @Operation(
+            summary = "Посчитать подзадачи по статусам",
+            description = "Позволяет получить количество подзадач всех уровней до глубины maxDepth по статусам"
+    )
+    @GetMapping("/{id}/rollup")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TaskRollupResponse> getRollup(@PathVariable @Min(1) Long id,
+                                                        @RequestParam(required = false) @Min(1) Integer maxDepth,
+                                                        Principal principal) {
+        logger.info("Пользователь '{}' запрашивает сводку подзадач задачи с id={}", principal.getName(), id);
+
+        return ResponseEntity.ok(taskHierarchyService.findRollup(id, maxDepth, principal.getName()));
+    }
+
+    @Operation(
+            summary = "Сменить родительскую задачу",
+            description = "Позволяет админу сделать задачу подзадачей другой задачи или, с parentId = null, " +
+                    "корневой. Перенос, замыкающий цикл, отклоняется с 409"
+    )
+    @PutMapping("/{id}/parent")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<Void> setParent(@PathVariable @Min(1) Long id,
+                                          @Valid @RequestBody TaskParentRequest request,
+                                          Principal principal) {
+        logger.info("Перенос админом '{}' задачи с id={} под задачу с id={}", principal.getName(), id, request.parentId());
+
+        taskHierarchyService.setParent(id, request.parentId(), principal.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+            summary = "Захватить задачи",
+            description = "Позволяет исполнителю атомарно забрать до limit задач из очереди: задачи с наибольшим " +
+                    "приоритетом и самые старые переводятся в IN_PROGRESS и закрепляются за ним. " +
+                    "Одновременные запросы не получают одну и ту же задачу. Пользователь без роли админа " +
+                    "захватывает только задачи, доступные ему или его командам"
+    )
+    @PostMapping("/claim")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<List<ClaimedTaskDto>> claimTasks(
+            @RequestParam(defaultValue = "PENDING") TaskStatus status,
+            @RequestParam(defaultValue = "1") @Min(1) @Max(100) int limit,
+            Principal principal) {
+        logger.info("Пользователь '{}' захватывает до {} задач", principal.getName(), limit);
+
+        return ResponseEntity.ok(taskService.claim(status, limit, principal.getName()));
     }
 
     @Operation(
             summary = "Обновить статус задачи",
-            description = "Позволяет пользователю обновить статус своей задачи по id"
+            description = "Позволяет пользователю обновить статус своей задачи по id. " +
+                    "С заголовком If-Match обновление выполняется только если версия задачи не изменилась, иначе 412. " +
+                    "Если задачу параллельно изменил другой запрос, возвращается 409"
     )
     @PatchMapping("{id}/status")
     @PreAuthorize("hasRole('USER')")
     @SecurityRequirement(name = "bearerAuth")
     public ResponseEntity<TaskResponseDto> updateTaskStatus(@PathVariable @Min(1) Long id,
                                                             @Valid @RequestBody TaskStatusUpdateRequest request,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                             Principal principal) {
         logger.info("Обновление пользователем '{}' статуса задачи с id={}", principal.getName(), id);
 
-        return ResponseEntity.ok(taskService.updateOwnTaskStatus(id, request, principal.getName()));
+        var task = taskService.updateOwnTaskStatus(id, request, principal.getName(), ifMatch);
+
+        return ResponseEntity.ok()
+                .eTag(task.eTag())
+                .body(task.body());
     }
 
     @Operation(
@@ -0,0 +1,88 @@
+package com.example.taskmanager.controller;
+
+import com.example.taskmanager.dto.TeamRequestDto;
+import com.example.taskmanager.dto.TeamResponseDto;
+import com.example.taskmanager.service.TeamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/teams")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Команды", description = "Управление командами исполнителей")
+public class TeamController {
+    private static final Logger logger = LoggerFactory.getLogger(TeamController.class);
+
+    private final TeamService teamService;
+
+    @Operation(
+            summary = "Получить команду по id",
+            description = "Позволяет админу получить команду и список ее участников"
+    )
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TeamResponseDto> getTeam(@PathVariable @Min(1) Long id, Principal principal) {
+        logger.info("Получение админом '{}' команды с id={}", principal.getName(), id);
+
+        return ResponseEntity.ok(teamService.findById(id));
+    }
+
+    @Operation(
+            summary = "Создать команду",
+            description = "Позволяет админу создать команду, которой затем можно назначать задачи"
+    )
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TeamResponseDto> createTeam(@Valid @RequestBody TeamRequestDto teamRequestDto,
+                                                      Principal principal) {
+        logger.info("Создание команды '{}' админом '{}'", teamRequestDto.name(), principal.getName());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(teamService.create(teamRequestDto));
+    }
+
+    @Operation(
+            summary = "Добавить участника команды",
+            description = "Позволяет админу добавить пользователя в команду, он получит доступ к задачам команды"
+    )
+    @PutMapping("/{id}/members/{userId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TeamResponseDto> addMember(@PathVariable @Min(1) Long id,
+                                                     @PathVariable @Min(1) Long userId,
+                                                     Principal principal) {
+        logger.info("Добавление админом '{}' пользователя с id={} в команду с id={}", principal.getName(), userId, id);
+
+        return ResponseEntity.ok(teamService.addMember(id, userId));
+    }
+
+    @Operation(
+            summary = "Удалить участника команды",
+            description = "Позволяет админу исключить пользователя из команды"
+    )
+    @DeleteMapping("/{id}/members/{userId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TeamResponseDto> removeMember(@PathVariable @Min(1) Long id,
+                                                        @PathVariable @Min(1) Long userId,
+                                                        Principal principal) {
+        logger.info("Исключение админом '{}' пользователя с id={} из команды с id={}", principal.getName(), userId, id);
+
+        return ResponseEntity.ok(teamService.removeMember(id, userId));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.taskmanager.datasource;
+
+import com.example.taskmanager.config.ReplicationProperties;
+import com.example.taskmanager.exception.DependencyUnavailableException;
+import com.example.taskmanager.resilience.RedisGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// окно чтения с primary хранится в Redis по пользователю: оно действует на любом экземпляре
+// и для любого клиента того же пользователя, включая клиентов без cookie
+@Component
+public class ReadYourWritesTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadYourWritesTracker.class);
+
+    static final String KEY_PREFIX = "rw:primary:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisGuard redisGuard;
+    private final Duration window;
+    private final boolean enabled;
+
+    public ReadYourWritesTracker(StringRedisTemplate redisTemplate, RedisGuard redisGuard,
+                                 ReplicationProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.redisGuard = redisGuard;
+        this.window = properties.readYourWritesWindow();
+        // без реплик все чтения и так идут в primary, обращаться к Redis незачем
+        this.enabled = !properties.replicas().isEmpty();
+    }
+
+    public void markWrite(String username) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redisGuard.call(() -> {
+                redisTemplate.opsForValue().set(KEY_PREFIX + username, "1", window);
+                return null;
+            });
+        } catch (DependencyUnavailableException | DataAccessException e) {
+            logger.warn("Не удалось сохранить окно чтения с primary для пользователя {}: {}", username, e.getMessage());
+        }
+    }
+
+    public boolean isSticky(String username) {
+        if (!enabled) {
+            return false;
+        }
+        try {
+            return redisGuard.call(() -> Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + username)));
+        } catch (DependencyUnavailableException | DataAccessException e) {
+            // без Redis неизвестно, писал ли пользователь недавно, поэтому чтение безопаснее отдать primary
+            logger.warn("Окно чтения с primary недоступно, запрос читает с primary: {}", e.getMessage());
+            return true;
+        }
+    }
+}
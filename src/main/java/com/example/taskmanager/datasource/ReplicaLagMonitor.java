@@ -0,0 +1,48 @@
+package com.example.taskmanager.datasource;
+
+import com.example.taskmanager.config.ReplicationProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+// проверка реплик идет на собственном потоке: зависшая реплика не задерживает задачи общего @Scheduled-пула
+// (outbox, синхронизацию лимитов запросов, heartbeat SSE)
+@Component
+@RequiredArgsConstructor
+public class ReplicaLagMonitor implements SmartLifecycle {
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+    private final ReplicationProperties properties;
+
+    private ThreadPoolTaskScheduler taskScheduler;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        running = true;
+        if (!replicaRoutingDataSource.hasReplicas()) {
+            return;
+        }
+
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(1);
+        taskScheduler.setThreadNamePrefix("replica-lag-");
+        taskScheduler.initialize();
+        taskScheduler.scheduleWithFixedDelay(replicaRoutingDataSource::refreshLag, properties.checkInterval());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (taskScheduler != null) {
+            taskScheduler.shutdown();
+            taskScheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
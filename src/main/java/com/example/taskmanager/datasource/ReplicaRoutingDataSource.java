@@ -0,0 +1,205 @@
+package com.example.taskmanager.datasource;
+
+import com.example.taskmanager.config.ReplicationProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// источник для readOnly-транзакций: реплики с допустимым отставанием по кругу, иначе primary
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    // на реплике без новых записей replay-timestamp стареет, поэтому при догнанном WAL отставание нулевое;
+    // но догнанный WAL ничего не значит без связи с primary, поэтому нужен работающий WAL receiver.
+    // status видят только роли с pg_read_all_stats (pg_monitor), иначе проверяется лишь наличие процесса
+    static final String LAG_QUERY = """
+            SELECT pg_is_in_recovery(),
+                   EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE coalesce(status, 'streaming') = 'streaming'),
+                   CASE
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000
+                   END""";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final Duration checkTimeout;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, ReplicationProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this(primary, properties, meterRegistry,
+                replica -> new HikariDataSource(replicaPoolConfig(primary, replica, properties, meterRegistry)));
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, ReplicationProperties properties, MeterRegistry meterRegistry,
+                             Function<ReplicationProperties.Replica, DataSource> poolFactory) {
+        this.primary = primary;
+        this.maxLag = properties.maxLag();
+        this.checkTimeout = properties.checkTimeout();
+        this.meterRegistry = meterRegistry;
+        this.replicas = properties.replicas().stream()
+                .map(replica -> new Replica(replica.name(), poolFactory.apply(replica)))
+                .toList();
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagMillis < 0 ? Double.NaN : r.lagMillis / 1000.0)
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .description("Отставание реплики от primary по последней проверке")
+                    .register(meterRegistry);
+        }
+    }
+
+    static HikariConfig replicaPoolConfig(HikariDataSource primary, ReplicationProperties.Replica replica,
+                                          ReplicationProperties properties, MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        primary.copyStateTo(config);
+        config.setPoolName("replica-" + replica.name() + "-pool");
+        config.setJdbcUrl(replica.url());
+        if (replica.username() != null) {
+            config.setUsername(replica.username());
+            config.setPassword(replica.password());
+        }
+        config.setReadOnly(true);
+        // недоступная при старте реплика не должна мешать запуску приложения
+        config.setInitializationFailTimeout(-1);
+        // реплика, пропавшая из сети без закрытия соединений, не должна держать поток чтения дольше socket-timeout
+        config.addDataSourceProperty("socketTimeout", String.valueOf(properties.socketTimeout().toSeconds()));
+        String options = config.getDataSourceProperties().getProperty("options");
+        String statementTimeout = "-c statement_timeout=" + properties.statementTimeout().toMillis();
+        config.addDataSourceProperty("options", options == null ? statementTimeout : options + " " + statementTimeout);
+        if (config.getMetricsTrackerFactory() == null && config.getMetricRegistry() == null) {
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+        return config;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return determineTarget().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTarget().getConnection(username, password);
+    }
+
+    DataSource determineTarget() {
+        if (replicas.isEmpty()) {
+            return primary;
+        }
+        if (ReadRoutingContext.isPrimaryRequired()) {
+            countRoute("primary", "read_your_writes");
+            return primary;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                countRoute(replica.name, "replica");
+                return replica.dataSource;
+            }
+        }
+        countRoute("primary", "no_healthy_replica");
+        return primary;
+    }
+
+    // вызывается ReplicaLagMonitor на отдельном потоке: реплика с превышенным отставанием или без связи
+    // исключается до следующей проверки
+    public void refreshLag() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                // проверка ждет ответа не дольше check-timeout, а не socket-timeout всего пула
+                connection.setNetworkTimeout(Runnable::run, (int) checkTimeout.toMillis());
+                checkLag(replica, connection);
+            } catch (SQLException e) {
+                log.warn("Не удалось проверить отставание реплики {}: {}", replica.name, e.getMessage());
+                replica.lagMillis = -1;
+                replica.healthy = false;
+            }
+            if (wasHealthy != replica.healthy) {
+                log.info("Реплика {} {} (отставание {} мс)", replica.name,
+                        replica.healthy ? "снова используется для чтения" : "исключена из чтения", replica.lagMillis);
+            }
+        }
+    }
+
+    private void checkLag(Replica replica, Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            if (!resultSet.getBoolean(1)) {
+                log.warn("Реплика {} не находится в режиме восстановления и исключена из чтения", replica.name);
+                replica.lagMillis = -1;
+                replica.healthy = false;
+            } else if (!resultSet.getBoolean(2)) {
+                log.warn("Реплика {} не получает WAL от primary и исключена из чтения", replica.name);
+                replica.lagMillis = -1;
+                replica.healthy = false;
+            } else {
+                replica.lagMillis = (long) resultSet.getDouble(3);
+                replica.healthy = replica.lagMillis <= maxLag.toMillis();
+            }
+        }
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    public List<ReplicaState> replicaStates() {
+        return replicas.stream()
+                .map(replica -> new ReplicaState(replica.name, replica.healthy, replica.lagMillis))
+                .toList();
+    }
+
+    public List<HikariDataSource> replicaPools() {
+        return replicas.stream()
+                .map(replica -> replica.dataSource)
+                .filter(HikariDataSource.class::isInstance)
+                .map(HikariDataSource.class::cast)
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        replicaPools().forEach(HikariDataSource::close);
+    }
+
+    private void countRoute(String target, String reason) {
+        meterRegistry.counter("datasource.read.routed", "target", target, "reason", reason).increment();
+    }
+
+    public record ReplicaState(String name, boolean healthy, long lagMillis) {
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // до первой проверки реплика не используется
+        private volatile boolean healthy;
+        private volatile long lagMillis = -1;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
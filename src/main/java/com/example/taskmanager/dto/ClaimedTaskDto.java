@@ -0,0 +1,19 @@
+package com.example.taskmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Задача, захваченная исполнителем")
+public record ClaimedTaskDto(
+
+        @Schema(description = "Id задачи")
+        Long id,
+
+        @Schema(description = "Время захвата задачи")
+        LocalDateTime claimedAt,
+
+        @Schema(description = "Состояние задачи после захвата")
+        TaskResponseDto task
+) {
+}
@@ -0,0 +1,4 @@
+package com.example.taskmanager.dto;
+
+public record ETagged<T>(T body, String eTag) {
+}
@@ -0,0 +1,33 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Подзадача в дереве задачи")
+public record SubtaskDto(
+
+        @Schema(description = "Id подзадачи")
+        Long id,
+
+        @Schema(description = "Id родительской задачи")
+        Long parentId,
+
+        @Schema(description = "Глубина относительно запрошенной задачи, у прямых подзадач 1")
+        int depth,
+
+        @Schema(description = "Заголовок")
+        String title,
+
+        @Schema(description = "Статус")
+        TaskStatus status,
+
+        @Schema(description = "Приоритет")
+        TaskPriority priority,
+
+        @Schema(description = "Срок выполнения")
+        LocalDateTime dueAt
+) {
+}
@@ -0,0 +1,27 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.TaskActivityKind;
+import com.example.taskmanager.entity.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Запись истории задачи")
+public record TaskActivityDto(
+
+        @Schema(description = "Тип записи: изменение задачи или комментарий")
+        TaskActivityKind kind,
+
+        @Schema(description = "Статус задачи после изменения")
+        TaskStatus status,
+
+        @Schema(description = "Пользователь, выполнивший действие; пусто для фоновых задач")
+        String actor,
+
+        @Schema(description = "Текст комментария")
+        String body,
+
+        @Schema(description = "Время действия")
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.taskmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Страница истории задачи, от новых записей к старым")
+public record TaskActivityResponse(
+
+        @Schema(description = "Записи истории")
+        List<TaskActivityDto> items,
+
+        @Schema(description = "Курсор следующей страницы, пусто если записей больше нет")
+        String next
+) {
+}
@@ -0,0 +1,20 @@
+package com.example.taskmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+
+@Schema(description = "Исполнители задачи: пользователи и команды")
+public record TaskAssigneesDto(
+
+        @Schema(description = "Id назначенных пользователей")
+        @NotNull @Size(max = 100)
+        Set<Long> userIds,
+
+        @Schema(description = "Id назначенных команд")
+        @NotNull @Size(max = 100)
+        Set<Long> teamIds
+) {
+}
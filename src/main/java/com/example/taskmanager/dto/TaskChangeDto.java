@@ -0,0 +1,19 @@
+package com.example.taskmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Созданная или измененная задача")
+public record TaskChangeDto(
+
+        @Schema(description = "Id задачи")
+        Long id,
+
+        @Schema(description = "Время последнего изменения задачи")
+        LocalDateTime updatedAt,
+
+        @Schema(description = "Актуальное состояние задачи")
+        TaskResponseDto task
+) {
+}
@@ -0,0 +1,24 @@
+package com.example.taskmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Изменения задач с момента последней синхронизации")
+public record TaskChangesResponse(
+
+        @Schema(description = "Созданные или измененные задачи в порядке изменения. Изменения последних секунд " +
+                "(task.sync.commit-grace) приходят повторно, пока водяной знак их не пройдет: повтор с тем же " +
+                "updatedAt нужно пропускать")
+        List<TaskChangeDto> changed,
+
+        @Schema(description = "Id удаленных задач, последние удаления тоже могут повторяться")
+        List<Long> deleted,
+
+        @Schema(description = "Токен для следующего запроса изменений")
+        String watermark,
+
+        @Schema(description = "Есть ли еще изменения, не поместившиеся в ответ")
+        boolean hasMore
+) {
+}
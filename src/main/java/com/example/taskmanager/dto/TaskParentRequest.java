@@ -0,0 +1,7 @@
+package com.example.taskmanager.dto;
+
+import jakarta.validation.constraints.Min;
+
+// parentId = null делает задачу корневой
+public record TaskParentRequest(@Min(1) Long parentId) {
+}
@@ -1,13 +1,17 @@
 package com.example.taskmanager.dto;
 
+import com.example.taskmanager.entity.TaskPriority;
 import com.example.taskmanager.entity.TaskStatus;
 import com.example.taskmanager.entity.User;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.Value;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Value
 public class TaskRequestDto {
@@ -23,4 +27,16 @@ public class TaskRequestDto {
 
     @NotNull
     Long userId;
+
+    LocalDateTime dueAt;
+
+    TaskPriority priority;
+
+    // null при обновлении оставляет теги без изменений, пустой набор удаляет все
+    @Size(max = 20, message = "Task cannot have more than 20 tags")
+    Set<@Pattern(regexp = "[\\p{L}\\p{N}_-]{1,50}", message = "Tag must be 1-50 letters, digits, '_' or '-'")
+            String> tags;
+
+    // при обновлении null в dueAt оставляет срок как есть, снять срок можно только явно
+    Boolean clearDueAt;
 }
@@ -1,11 +1,13 @@
 package com.example.taskmanager.dto;
 
+import com.example.taskmanager.entity.TaskPriority;
 import com.example.taskmanager.entity.TaskStatus;
 import com.example.taskmanager.entity.User;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Value;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Value
 public class TaskResponseDto {
@@ -16,4 +18,10 @@ public class TaskResponseDto {
     TaskStatus status;
 
     UserResponseDto user;
+
+    LocalDateTime dueAt;
+
+    TaskPriority priority;
+
+    List<String> tags;
 }
@@ -0,0 +1,20 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Количество подзадач всех уровней по статусам")
+public record TaskRollupResponse(
+
+        @Schema(description = "Id запрошенной задачи")
+        Long taskId,
+
+        @Schema(description = "Количество подзадач для каждого статуса")
+        Map<TaskStatus, Long> counts,
+
+        @Schema(description = "Всего подзадач")
+        long total
+) {
+}
@@ -0,0 +1,18 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Schema(description = "Количество задач по статусам, включая архивные")
+public record TaskStatsResponse(
+
+        @Schema(description = "Количество задач для каждого статуса")
+        Map<TaskStatus, Long> counts,
+
+        @Schema(description = "Время последнего пересчета, null если статистика еще не считалась")
+        LocalDateTime computedAt
+) {
+}
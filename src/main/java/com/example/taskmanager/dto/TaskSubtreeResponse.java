@@ -0,0 +1,19 @@
+package com.example.taskmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Подзадачи задачи по уровням: родитель всегда идет раньше своих подзадач")
+public record TaskSubtreeResponse(
+
+        @Schema(description = "Id запрошенной задачи")
+        Long taskId,
+
+        @Schema(description = "Подзадачи всех уровней")
+        List<SubtaskDto> subtasks,
+
+        @Schema(description = "Дерево больше лимита, возвращена только его верхняя часть")
+        boolean truncated
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.taskmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Страница задач со всеми запрошенными тегами, по времени создания")
+public record TaskTaggedResponse(
+
+        @Schema(description = "Задачи")
+        List<TaskResponseDto> items,
+
+        @Schema(description = "Курсор следующей страницы, пусто если задач больше нет")
+        String next
+) {
+}
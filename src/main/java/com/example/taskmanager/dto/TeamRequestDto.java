@@ -0,0 +1,14 @@
+package com.example.taskmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "Данные для создания команды")
+public record TeamRequestDto(
+
+        @Schema(description = "Название команды", example = "backend")
+        @NotBlank @Size(max = 100)
+        String name
+) {
+}
@@ -0,0 +1,19 @@
+package com.example.taskmanager.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Команда и ее участники")
+public record TeamResponseDto(
+
+        @Schema(description = "Id команды")
+        Long id,
+
+        @Schema(description = "Название команды")
+        String name,
+
+        @Schema(description = "Id участников команды")
+        List<Long> memberIds
+) {
+}
@@ -0,0 +1,74 @@
+package com.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// строки переносит TaskArchiver одним SQL-запросом, через JPA архив только читается
+@Entity
+@Immutable
+@Table(name = "tasks_archive", indexes = {
+        @Index(name = "idx_tasks_archive_user_created_at", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_tasks_archive_status_created_at", columnList = "status, created_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedTask {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private TaskStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    private LocalDateTime dueAt;
+
+    @Convert(converter = TaskPriorityConverter.class)
+    @Column(nullable = false)
+    private TaskPriority priority;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false, columnDefinition = "text[] default '{}'")
+    private List<String> tags;
+
+    // пользователи и команды из task_acl на момент архивирования: строки task_acl удаляются вместе с задачей
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false, columnDefinition = "bigint[] default '{}'")
+    private List<Long> viewerUserIds;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false, columnDefinition = "bigint[] default '{}'")
+    private List<Long> viewerTeamIds;
+}
@@ -0,0 +1,22 @@
+package com.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "job_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobWatermark {
+    @Id
+    @Column(length = 50)
+    private String job;
+
+    @Column(nullable = false)
+    private LocalDateTime position;
+}
@@ -4,14 +4,27 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_tasks_user_updated_at", columnList = "user_id, updated_at, id"),
+        @Index(name = "idx_tasks_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_tasks_parent", columnList = "parent_id"),
+        @Index(name = "idx_tasks_created_at", columnList = "created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,4 +55,37 @@ public class Task {
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    private LocalDateTime dueAt;
+
+    @Convert(converter = TaskPriorityConverter.class)
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    @Builder.Default
+    private TaskPriority priority = TaskPriority.NORMAL;
+
+    // исполнитель, захвативший задачу через POST /tasks/claim
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "claimed_by")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User claimedBy;
+
+    private LocalDateTime claimedAt;
+
+    // родительская задача; ссылка идет по первичному ключу tasks (user_id, id), поэтому хранятся оба поля
+    private Long parentId;
+
+    private Long parentUserId;
+
+    // теги в нижнем регистре, без повторов и по алфавиту; фильтр по ним идет через GIN-индекс idx_tasks_tags
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false, columnDefinition = "text[] default '{}'")
+    @Builder.Default
+    private List<String> tags = new ArrayList<>();
 }
@@ -0,0 +1,6 @@
+package com.example.taskmanager.entity;
+
+public enum TaskAccessKind {
+    OWNER,
+    ASSIGNEE
+}
@@ -0,0 +1,47 @@
+package com.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// право доступа к задаче: пользователю (userId) или команде (teamId), ровно одно из двух.
+// taskUserId дублирует владельца задачи, чтобы соединение с tasks шло по первичному ключу (user_id, id)
+// и попадало в одну секцию
+@Entity
+@Table(name = "task_acl", indexes = {
+        @Index(name = "idx_task_acl_task", columnList = "task_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskAclEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false)
+    private Long taskUserId;
+
+    private Long userId;
+
+    private Long teamId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private TaskAccessKind kind;
+
+    public static TaskAclEntry owner(Task task) {
+        return new TaskAclEntry(null, task.getId(), task.getUser().getId(), task.getUser().getId(), null,
+                TaskAccessKind.OWNER);
+    }
+
+    public static TaskAclEntry assignee(Task task, Long userId, Long teamId) {
+        return new TaskAclEntry(null, task.getId(), task.getUser().getId(), userId, teamId, TaskAccessKind.ASSIGNEE);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// запись истории задачи; вставляется пачками через TaskActivityLog, через JPA только читается
+@Entity
+@Immutable
+@Table(name = "task_activity", indexes = {
+        @Index(name = "idx_task_activity_task", columnList = "task_id, created_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskActivity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TaskActivityKind kind;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private TaskStatus status;
+
+    @Column(length = 50)
+    private String actor;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,10 @@
+package com.example.taskmanager.entity;
+
+public enum TaskActivityKind {
+    CREATED,
+    UPDATED,
+    DELETED,
+    OVERDUE,
+    ARCHIVED,
+    COMMENTED
+}
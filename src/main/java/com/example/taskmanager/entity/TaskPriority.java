@@ -0,0 +1,29 @@
+package com.example.taskmanager.entity;
+
+// хранится кодом через TaskPriorityConverter, а не порядковым номером: перестановка констант не меняет данные.
+// Код - это и ранг, по столбцу priority сортируют очередь захвата и сроки, поэтому код растет вместе с важностью
+public enum TaskPriority {
+    LOW(0),
+    NORMAL(1),
+    HIGH(2),
+    URGENT(3);
+
+    private final short code;
+
+    TaskPriority(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static TaskPriority fromCode(int code) {
+        for (TaskPriority priority : values()) {
+            if (priority.code == code) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task priority code " + code);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// количество задач пользователя по статусам, пересчитывается фоновой задачей на лидере
+@Entity
+@Immutable
+@Table(name = "task_status_stats")
+@IdClass(TaskStatusStat.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatusStat {
+    @Id
+    private Long userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private TaskStatus status;
+
+    @Column(nullable = false)
+    private long taskCount;
+
+    @Column(nullable = false)
+    private LocalDateTime computedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private TaskStatus status;
+    }
+}
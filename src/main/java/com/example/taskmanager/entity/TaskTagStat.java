@@ -0,0 +1,28 @@
+package com.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// количество задач с тегом, пересчитывается фоновой задачей на лидере
+@Entity
+@Immutable
+@Table(name = "task_tag_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTagStat {
+    @Id
+    @Column(columnDefinition = "text")
+    private String tag;
+
+    @Column(nullable = false)
+    private long taskCount;
+
+    @Column(nullable = false)
+    private LocalDateTime computedAt;
+}
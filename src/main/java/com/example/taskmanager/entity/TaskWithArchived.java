@@ -0,0 +1,60 @@
+package com.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// медленный путь для includeArchived: горячие и архивные задачи одним списком, условия запроса PostgreSQL
+// переносит внутрь обеих частей UNION ALL
+@Entity
+@Immutable
+@Subselect("""
+        SELECT id, title, description, status, created_at, updated_at, user_id, version, due_at, priority, tags,
+               false AS archived
+        FROM tasks
+        UNION ALL
+        SELECT id, title, description, status, created_at, updated_at, user_id, version, due_at, priority, tags,
+               true AS archived
+        FROM tasks_archive""")
+@Synchronize({"tasks", "tasks_archive"})
+@Data
+@NoArgsConstructor
+public class TaskWithArchived {
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private TaskStatus status;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    private Long version;
+
+    private LocalDateTime dueAt;
+
+    @Convert(converter = TaskPriorityConverter.class)
+    private TaskPriority priority;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private List<String> tags;
+
+    private boolean archived;
+}
@@ -0,0 +1,32 @@
+package com.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Entity
+@Table(name = "team_members", indexes = {
+        @Index(name = "idx_team_members_user", columnList = "user_id, team_id")
+})
+@IdClass(TeamMember.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamMember {
+    @Id
+    private Long teamId;
+
+    @Id
+    private Long userId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long teamId;
+        private Long userId;
+    }
+}
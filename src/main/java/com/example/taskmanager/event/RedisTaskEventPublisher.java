@@ -0,0 +1,35 @@
+package com.example.taskmanager.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class RedisTaskEventPublisher {
+
+    public static final String TASK_EVENTS_CHANNEL = "tasks:events";
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisTaskEventPublisher.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener
+    public void publish(TaskChangedEvent event) {
+        logger.debug("Публикация события {} задачи с id={} в канал {}", event.type(), event.taskId(), TASK_EVENTS_CHANNEL);
+
+        try {
+            stringRedisTemplate.convertAndSend(TASK_EVENTS_CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException | DataAccessException e) {
+            // изменение уже зафиксировано, клиенты догонят его через GET /tasks/changes
+            logger.warn("Не удалось опубликовать событие задачи с id={}: {}", event.taskId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.taskmanager.event;
+
+import com.example.taskmanager.entity.TaskActivity;
+import com.example.taskmanager.entity.TaskActivityKind;
+import com.example.taskmanager.service.TaskActivityLog;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// событие попадает в буфер транзакции в момент публикации, пока известен автор изменения;
+// в БД история уходит пачкой перед коммитом
+@Component
+@RequiredArgsConstructor
+public class TaskActivityWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskActivityWriter.class);
+
+    private final TaskActivityLog taskActivityLog;
+
+    @EventListener
+    public void write(TaskChangedEvent event) {
+        logger.debug("Запись события {} задачи с id={} в историю", event.type(), event.taskId());
+
+        taskActivityLog.append(TaskActivity.builder()
+                .taskId(event.taskId())
+                .kind(kindOf(event.type()))
+                .status(event.status())
+                .actor(currentActor())
+                .createdAt(LocalDateTime.ofInstant(event.occurredAt(), ZoneId.systemDefault()))
+                .build());
+    }
+
+    private static TaskActivityKind kindOf(TaskChangeType type) {
+        return switch (type) {
+            case CREATED -> TaskActivityKind.CREATED;
+            case UPDATED -> TaskActivityKind.UPDATED;
+            case DELETED -> TaskActivityKind.DELETED;
+            case OVERDUE -> TaskActivityKind.OVERDUE;
+            case ARCHIVED -> TaskActivityKind.ARCHIVED;
+        };
+    }
+
+    // фоновые задачи работают без аутентификации, их изменения пишутся без автора
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.taskmanager.event;
+
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    OVERDUE,
+    ARCHIVED
+}
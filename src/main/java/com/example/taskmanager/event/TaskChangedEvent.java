@@ -0,0 +1,36 @@
+package com.example.taskmanager.event;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.repository.TaskChangeView;
+
+import java.time.Instant;
+
+public record TaskChangedEvent(
+        Long taskId,
+        Long ownerId,
+        String ownerUsername,
+        TaskStatus status,
+        TaskChangeType type,
+        Instant occurredAt
+) {
+    public static TaskChangedEvent of(Task task, TaskChangeType type) {
+        return new TaskChangedEvent(
+                task.getId(),
+                task.getUser().getId(),
+                task.getUser().getUsername(),
+                task.getStatus(),
+                type,
+                Instant.now());
+    }
+
+    public static TaskChangedEvent of(TaskChangeView change, Instant occurredAt) {
+        return new TaskChangedEvent(
+                change.getTaskId(),
+                change.getOwnerId(),
+                change.getOwnerUsername(),
+                change.getStatus(),
+                change.getChangeType(),
+                occurredAt);
+    }
+}
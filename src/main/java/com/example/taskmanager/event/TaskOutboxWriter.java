@@ -0,0 +1,38 @@
+package com.example.taskmanager.event;
+
+import com.example.taskmanager.entity.TaskOutboxEvent;
+import com.example.taskmanager.exception.DataBaseOperationException;
+import com.example.taskmanager.repository.TaskOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class TaskOutboxWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskOutboxWriter.class);
+
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void write(TaskChangedEvent event) {
+        logger.debug("Запись события {} задачи с id={} в outbox", event.type(), event.taskId());
+
+        try {
+            taskOutboxRepository.save(TaskOutboxEvent.builder()
+                    .taskId(event.taskId())
+                    .eventType(event.type())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new DataBaseOperationException("Failed to write task event to outbox", e);
+        }
+    }
+}
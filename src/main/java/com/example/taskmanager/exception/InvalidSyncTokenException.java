@@ -0,0 +1,11 @@
+package com.example.taskmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSyncTokenException extends RuntimeException {
+    public InvalidSyncTokenException(String message) {
+        super(message);
+    }
+}
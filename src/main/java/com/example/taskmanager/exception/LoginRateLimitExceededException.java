@@ -0,0 +1,17 @@
+package com.example.taskmanager.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class LoginRateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginRateLimitExceededException(long retryAfterSeconds) {
+        super("Too many login attempts, retry after " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
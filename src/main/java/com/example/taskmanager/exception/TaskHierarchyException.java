@@ -0,0 +1,11 @@
+package com.example.taskmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class TaskHierarchyException extends RuntimeException {
+    public TaskHierarchyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.taskmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class TeamNotFoundException extends RuntimeException {
+    public TeamNotFoundException(String message) {
+        super(message);
+    }
+}
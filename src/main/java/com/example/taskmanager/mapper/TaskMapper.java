@@ -2,7 +2,9 @@ package com.example.taskmanager.mapper;
 
 import com.example.taskmanager.dto.TaskRequestDto;
 import com.example.taskmanager.dto.TaskResponseDto;
+import com.example.taskmanager.entity.ArchivedTask;
 import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskWithArchived;
 import com.example.taskmanager.entity.User;
 import org.mapstruct.*;
 
@@ -12,9 +14,22 @@ public interface TaskMapper {
     @Mapping(source = "user", target = "user", qualifiedByName = "mapUserToDto")
     TaskResponseDto mapToDto(Task task);
 
+    @Mapping(source = "user", target = "user", qualifiedByName = "mapUserToDto")
+    TaskResponseDto mapToDto(TaskWithArchived task);
+
+    @Mapping(source = "user", target = "user", qualifiedByName = "mapUserToDto")
+    TaskResponseDto mapToDto(ArchivedTask task);
+
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "priority", defaultValue = "NORMAL")
+    @Mapping(target = "claimedBy", ignore = true)
+    @Mapping(target = "claimedAt", ignore = true)
+    @Mapping(target = "parentId", ignore = true)
+    @Mapping(target = "parentUserId", ignore = true)
+    @Mapping(target = "tags", ignore = true)
     Task mapToEntity(TaskRequestDto taskRequestDto);
 }
@@ -0,0 +1,80 @@
+package com.example.taskmanager.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import ch.qos.logback.core.AppenderBase;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+// HikariCP сообщает об утечках только в лог, поэтому перехватываем эти записи для отчета
+@Component
+public class ConnectionLeakRecorder extends AppenderBase<ILoggingEvent> {
+
+    static final String LEAK_LOGGER = "com.zaxxer.hikari.pool.ProxyLeakTask";
+
+    private static final int MAX_REPORTS = 50;
+    private static final int MAX_FRAMES = 15;
+
+    private final Deque<LeakReport> reports = new ArrayDeque<>();
+
+    @PostConstruct
+    public void attach() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        setContext(context);
+        setName("connection-leak-recorder");
+        start();
+        context.getLogger(LEAK_LOGGER).addAppender(this);
+    }
+
+    @PreDestroy
+    public void detach() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger logger = context.getLogger(LEAK_LOGGER);
+        logger.detachAppender(this);
+        stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        IThrowableProxy throwable = event.getThrowableProxy();
+        // ProxyLeakTask пишет в INFO и возврат ранее зарегистрированного соединения ("unleaked"),
+        // утечкой считается только WARN с исключением, показывающим место получения соединения
+        if (!event.getLevel().isGreaterOrEqual(Level.WARN) || throwable == null) {
+            return;
+        }
+        List<String> stackTrace = Arrays.stream(throwable.getStackTraceElementProxyArray())
+                .limit(MAX_FRAMES)
+                .map(StackTraceElementProxy::getSTEAsString)
+                .toList();
+
+        LeakReport report = new LeakReport(Instant.ofEpochMilli(event.getTimeStamp()), event.getThreadName(),
+                event.getFormattedMessage(), stackTrace);
+        synchronized (reports) {
+            if (reports.size() == MAX_REPORTS) {
+                reports.removeFirst();
+            }
+            reports.addLast(report);
+        }
+    }
+
+    public List<LeakReport> recentLeaks() {
+        synchronized (reports) {
+            return List.copyOf(reports);
+        }
+    }
+
+    public record LeakReport(Instant detectedAt, String thread, String message, List<String> stackTrace) {
+    }
+}
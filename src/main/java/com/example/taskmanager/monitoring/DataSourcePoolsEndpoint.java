@@ -0,0 +1,53 @@
+package com.example.taskmanager.monitoring;
+
+import com.example.taskmanager.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+@Endpoint(id = "datasourcepools")
+@RequiredArgsConstructor
+public class DataSourcePoolsEndpoint {
+
+    private final List<HikariDataSource> dataSources;
+    private final ConnectionLeakRecorder connectionLeakRecorder;
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @ReadOperation
+    public PoolsReport pools() {
+        List<PoolState> pools = Stream.concat(dataSources.stream(), replicaRoutingDataSource.replicaPools().stream())
+                .map(DataSourcePoolsEndpoint::stateOf)
+                .toList();
+        return new PoolsReport(pools, replicaRoutingDataSource.replicaStates(), connectionLeakRecorder.recentLeaks());
+    }
+
+    private static PoolState stateOf(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new PoolState(
+                dataSource.getPoolName(),
+                dataSource.isReadOnly(),
+                dataSource.getMaximumPoolSize(),
+                dataSource.getMinimumIdle(),
+                pool == null ? 0 : pool.getActiveConnections(),
+                pool == null ? 0 : pool.getIdleConnections(),
+                pool == null ? 0 : pool.getThreadsAwaitingConnection(),
+                dataSource.getConnectionTimeout(),
+                dataSource.getLeakDetectionThreshold());
+    }
+
+    public record PoolsReport(List<PoolState> pools, List<ReplicaRoutingDataSource.ReplicaState> replicas,
+                              List<ConnectionLeakRecorder.LeakReport> leaks) {
+    }
+
+    public record PoolState(String name, boolean readOnly, int maximumPoolSize, int minimumIdle,
+                            int active, int idle, int awaiting, long connectionTimeoutMs,
+                            long leakDetectionThresholdMs) {
+    }
+}
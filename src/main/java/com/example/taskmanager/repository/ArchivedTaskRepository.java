@@ -0,0 +1,77 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.ArchivedTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    // перенос пачки одним запросом: удаление из tasks, вставка в архив, tombstone для синхронизации и отвязка
+    // подзадач атомарны. Все части запроса видят снимок до удаления, поэтому права берутся из task_acl
+    // до каскадного удаления. Подзадачи становятся корневыми с новой версией, а не молча через ON DELETE SET NULL,
+    // чтобы синхронизация и ETag увидели изменение. SKIP LOCKED пропускает задачи, которые сейчас изменяются,
+    // и позволяет архивировать с нескольких узлов. Возвращает изменения для событий outbox
+    @Transactional
+    @Query(value = """
+            WITH batch AS (
+                SELECT user_id, id FROM tasks
+                WHERE status IN ('COMPLETED', 'CANCELLED') AND updated_at < :before
+                ORDER BY updated_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            ), moved AS (
+                DELETE FROM tasks t
+                USING batch
+                WHERE t.user_id = batch.user_id AND t.id = batch.id
+                RETURNING t.id, t.title, t.description, t.status, t.created_at, t.updated_at, t.user_id, t.version,
+                          t.due_at, t.priority, t.tags
+            ), archived AS (
+                INSERT INTO tasks_archive (id, title, description, status, created_at, updated_at, user_id, version,
+                                           due_at, priority, tags, viewer_user_ids, viewer_team_ids, archived_at)
+                SELECT m.id, m.title, m.description, m.status, m.created_at, m.updated_at, m.user_id, m.version,
+                       m.due_at, m.priority, m.tags,
+                       ARRAY(SELECT a.user_id FROM task_acl a
+                             WHERE a.task_user_id = m.user_id AND a.task_id = m.id AND a.user_id IS NOT NULL),
+                       ARRAY(SELECT a.team_id FROM task_acl a
+                             WHERE a.task_user_id = m.user_id AND a.task_id = m.id AND a.team_id IS NOT NULL),
+                       :now
+                FROM moved m
+                RETURNING id, user_id, status
+            ), tombstones AS (
+                INSERT INTO task_tombstones (task_id, user_id, deleted_at)
+                SELECT id, user_id, :now FROM moved
+            ), detached AS (
+                UPDATE tasks c
+                SET parent_id = NULL, parent_user_id = NULL, version = c.version + 1, updated_at = :now
+                FROM batch p
+                WHERE c.parent_user_id = p.user_id AND c.parent_id = p.id
+                  AND NOT EXISTS (SELECT 1 FROM batch b WHERE b.user_id = c.user_id AND b.id = c.id)
+                RETURNING c.id, c.user_id, c.status
+            )
+            SELECT r.id AS taskId, r.user_id AS ownerId, u.username AS ownerUsername, r.status AS status,
+                   r.change_type AS changeType
+            FROM (SELECT id, user_id, status, 'ARCHIVED' AS change_type FROM archived
+                  UNION ALL
+                  SELECT id, user_id, status, 'UPDATED' FROM detached) r
+            JOIN users u ON u.id = r.user_id""",
+            nativeQuery = true)
+    List<TaskChangeView> archiveTerminalBatch(@Param("before") LocalDateTime before,
+                                                     @Param("now") LocalDateTime now,
+                                                     @Param("limit") int limit);
+
+    @Query("SELECT a.id AS id, a.version AS version, a.user.id AS ownerId, CAST(NULL AS Long) AS claimerId " +
+            "FROM ArchivedTask a WHERE a.id = :id")
+    Optional<TaskVersionView> findVersionById(@Param("id") Long id);
+
+    // команды передаются массивом, чтобы пустой список не превращался в недопустимое IN ()
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM tasks_archive a WHERE a.id = :taskId " +
+            "AND (:userId = ANY (a.viewer_user_ids) OR a.viewer_team_ids && CAST(:teamIds AS BIGINT[])))",
+            nativeQuery = true)
+    boolean hasViewer(@Param("taskId") Long taskId, @Param("userId") Long userId, @Param("teamIds") Long[] teamIds);
+}
@@ -0,0 +1,7 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.JobWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+}
@@ -0,0 +1,26 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskAccessKind;
+import com.example.taskmanager.entity.TaskAclEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskAclRepository extends JpaRepository<TaskAclEntry, Long> {
+
+    @Query("SELECT count(a) > 0 FROM TaskAclEntry a " +
+            "WHERE a.taskId = :taskId AND (a.userId = :userId OR a.teamId IN :teamIds)")
+    boolean hasAccess(@Param("taskId") Long taskId,
+                      @Param("userId") Long userId,
+                      @Param("teamIds") Collection<Long> teamIds);
+
+    List<TaskAclEntry> findByTaskIdAndKind(Long taskId, TaskAccessKind kind);
+
+    @Modifying
+    @Query("DELETE FROM TaskAclEntry a WHERE a.taskId = :taskId AND a.kind = :kind")
+    void deleteByTaskIdAndKind(@Param("taskId") Long taskId, @Param("kind") TaskAccessKind kind);
+}
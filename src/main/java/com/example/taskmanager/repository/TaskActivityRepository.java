@@ -0,0 +1,25 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TaskActivityRepository extends JpaRepository<TaskActivity, Long> {
+
+    @Query(value = "SELECT * FROM task_activity WHERE task_id = :taskId " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<TaskActivity> findLatest(@Param("taskId") Long taskId, @Param("limit") int limit);
+
+    // следующая страница ленты по ключу (created_at, id), без OFFSET
+    @Query(value = "SELECT * FROM task_activity WHERE task_id = :taskId " +
+            "AND (created_at, id) < (:beforeCreatedAt, :beforeId) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<TaskActivity> findBefore(@Param("taskId") Long taskId,
+                                  @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                  @Param("beforeId") long beforeId,
+                                  @Param("limit") int limit);
+}
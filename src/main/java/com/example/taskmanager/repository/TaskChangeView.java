@@ -0,0 +1,17 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.event.TaskChangeType;
+
+public interface TaskChangeView {
+
+    Long getTaskId();
+
+    Long getOwnerId();
+
+    String getOwnerUsername();
+
+    TaskStatus getStatus();
+
+    TaskChangeType getChangeType();
+}
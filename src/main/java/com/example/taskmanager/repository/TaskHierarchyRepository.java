@@ -0,0 +1,155 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.Task;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// обход дерева подзадач рекурсивными CTE: каждый шаг рекурсии - поиск детей по idx_tasks_parent,
+// дерево не загружается в память. Тексты запросов открыты для нагрузочного теста
+public interface TaskHierarchyRepository extends Repository<Task, Long> {
+
+    // поиск по id идет во все 16 секций, и без LIMIT 1 планировщик ждет от корня 16 строк, а от рабочей таблицы
+    // рекурсии - в десять раз больше; тогда каждый шаг выполняется hash join по всем подзадачам в базе
+    // вместо поиска детей по индексу. Рекурсия идет по уровням, поэтому родители возвращаются раньше детей,
+    // а внешний LIMIT останавливает обход
+    String SUBTREE_SQL = """
+            WITH RECURSIVE subtree AS (
+                (SELECT id, user_id, parent_id, title, status, priority, due_at, 0 AS depth
+                FROM tasks WHERE id = :id LIMIT 1)
+                UNION ALL
+                SELECT c.id, c.user_id, c.parent_id, c.title, c.status, c.priority, c.due_at, s.depth + 1
+                FROM subtree s JOIN tasks c ON c.parent_id = s.id AND c.parent_user_id = s.user_id
+                WHERE s.depth < :maxDepth
+            )
+            SELECT id AS id, parent_id AS parentId, depth AS depth, title AS title, status AS status,
+                   priority AS priorityCode, due_at AS dueAt
+            FROM subtree WHERE depth > 0
+            LIMIT :limit""";
+
+    String STATUS_ROLLUP_SQL = """
+            WITH RECURSIVE subtree AS (
+                (SELECT id, user_id, status, 0 AS depth
+                FROM tasks WHERE id = :id LIMIT 1)
+                UNION ALL
+                SELECT c.id, c.user_id, c.status, s.depth + 1
+                FROM subtree s JOIN tasks c ON c.parent_id = s.id AND c.parent_user_id = s.user_id
+                WHERE s.depth < :maxDepth
+            )
+            SELECT status AS status, count(*) AS taskCount
+            FROM subtree WHERE depth > 0
+            GROUP BY status""";
+
+    // для пользователя без роли админа: обход спускается только в подзадачи, к которым у него есть доступ
+    // (task_acl сам или через команды, либо захват), поэтому недоступная подзадача скрыта вместе со своим поддеревом
+    String VISIBLE_SUBTREE_SQL = """
+            WITH RECURSIVE subtree AS (
+                (SELECT id, user_id, parent_id, title, status, priority, due_at, 0 AS depth
+                FROM tasks WHERE id = :id LIMIT 1)
+                UNION ALL
+                SELECT c.id, c.user_id, c.parent_id, c.title, c.status, c.priority, c.due_at, s.depth + 1
+                FROM subtree s JOIN tasks c ON c.parent_id = s.id AND c.parent_user_id = s.user_id
+                WHERE s.depth < :maxDepth
+                  AND (c.claimed_by = :userId OR EXISTS (
+                      SELECT 1 FROM task_acl a
+                      WHERE a.task_user_id = c.user_id AND a.task_id = c.id
+                        AND (a.user_id = :userId OR a.team_id = ANY (CAST(:teamIds AS BIGINT[])))))
+            )
+            SELECT id AS id, parent_id AS parentId, depth AS depth, title AS title, status AS status,
+                   priority AS priorityCode, due_at AS dueAt
+            FROM subtree WHERE depth > 0
+            LIMIT :limit""";
+
+    String VISIBLE_STATUS_ROLLUP_SQL = """
+            WITH RECURSIVE subtree AS (
+                (SELECT id, user_id, status, 0 AS depth
+                FROM tasks WHERE id = :id LIMIT 1)
+                UNION ALL
+                SELECT c.id, c.user_id, c.status, s.depth + 1
+                FROM subtree s JOIN tasks c ON c.parent_id = s.id AND c.parent_user_id = s.user_id
+                WHERE s.depth < :maxDepth
+                  AND (c.claimed_by = :userId OR EXISTS (
+                      SELECT 1 FROM task_acl a
+                      WHERE a.task_user_id = c.user_id AND a.task_id = c.id
+                        AND (a.user_id = :userId OR a.team_id = ANY (CAST(:teamIds AS BIGINT[])))))
+            )
+            SELECT status AS status, count(*) AS taskCount
+            FROM subtree WHERE depth > 0
+            GROUP BY status""";
+
+    // подъем от будущего родителя к корню по первичному ключу (user_id, id)
+    String IS_ANCESTOR_OR_SELF_SQL = """
+            WITH RECURSIVE ancestors AS (
+                (SELECT id, parent_id, parent_user_id FROM tasks WHERE id = :descendantId LIMIT 1)
+                UNION ALL
+                SELECT p.id, p.parent_id, p.parent_user_id
+                FROM ancestors a JOIN tasks p ON p.user_id = a.parent_user_id AND p.id = a.parent_id
+            )
+            SELECT EXISTS (SELECT 1 FROM ancestors WHERE id = :ancestorId)""";
+
+    @Query(value = SUBTREE_SQL, nativeQuery = true)
+    List<TaskNodeView> findSubtree(@Param("id") Long id, @Param("maxDepth") int maxDepth, @Param("limit") int limit);
+
+    @Query(value = STATUS_ROLLUP_SQL, nativeQuery = true)
+    List<TaskStatusCountView> countSubtreeByStatus(@Param("id") Long id, @Param("maxDepth") int maxDepth);
+
+    @Query(value = VISIBLE_SUBTREE_SQL, nativeQuery = true)
+    List<TaskNodeView> findVisibleSubtree(@Param("id") Long id,
+                                          @Param("maxDepth") int maxDepth,
+                                          @Param("limit") int limit,
+                                          @Param("userId") Long userId,
+                                          @Param("teamIds") Long[] teamIds);
+
+    @Query(value = VISIBLE_STATUS_ROLLUP_SQL, nativeQuery = true)
+    List<TaskStatusCountView> countVisibleSubtreeByStatus(@Param("id") Long id,
+                                                          @Param("maxDepth") int maxDepth,
+                                                          @Param("userId") Long userId,
+                                                          @Param("teamIds") Long[] teamIds);
+
+    @Query(value = IS_ANCESTOR_OR_SELF_SQL, nativeQuery = true)
+    boolean isAncestorOrSelf(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+
+    // подзадачи удаляемой задачи отвязываются до удаления, как при архивировании: ON DELETE SET NULL не меняет
+    // их version и updated_at, и синхронизация, ETag и SSE не увидели бы нового parentId.
+    // Возвращает изменения для событий outbox
+    @Transactional
+    @Query(value = """
+            WITH detached AS (
+                UPDATE tasks c
+                SET parent_id = NULL, parent_user_id = NULL, version = c.version + 1, updated_at = :now
+                WHERE c.parent_id = :parentId AND c.parent_user_id = :parentUserId
+                RETURNING c.id, c.user_id, c.status
+            )
+            SELECT d.id AS taskId, d.user_id AS ownerId, u.username AS ownerUsername, d.status AS status,
+                   'UPDATED' AS changeType
+            FROM detached d JOIN users u ON u.id = d.user_id""",
+            nativeQuery = true)
+    List<TaskChangeView> detachChildren(@Param("parentUserId") Long parentUserId,
+                                        @Param("parentId") Long parentId,
+                                        @Param("now") LocalDateTime now);
+
+    // то же при удалении пользователя: отвязываются только чужие подзадачи, свои удаляются вместе с родителями
+    @Transactional
+    @Query(value = """
+            WITH detached AS (
+                UPDATE tasks c
+                SET parent_id = NULL, parent_user_id = NULL, version = c.version + 1, updated_at = :now
+                FROM tasks p
+                WHERE p.user_id = :userId AND c.parent_id = p.id AND c.parent_user_id = p.user_id
+                  AND c.user_id <> :userId
+                RETURNING c.id, c.user_id, c.status
+            )
+            SELECT d.id AS taskId, d.user_id AS ownerId, u.username AS ownerUsername, d.status AS status,
+                   'UPDATED' AS changeType
+            FROM detached d JOIN users u ON u.id = d.user_id""",
+            nativeQuery = true)
+    List<TaskChangeView> detachChildrenOfUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // транзакционная advisory-блокировка: одновременные перестановки не могут вместе замкнуть цикл
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    int lockHierarchy(@Param("key") long key);
+}
@@ -0,0 +1,10 @@
+package com.example.taskmanager.repository;
+
+import java.time.LocalDateTime;
+
+public interface TaskKeyView {
+
+    LocalDateTime getCreatedAt();
+
+    Long getId();
+}
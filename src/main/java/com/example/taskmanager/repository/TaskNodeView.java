@@ -0,0 +1,23 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskStatus;
+
+import java.time.LocalDateTime;
+
+public interface TaskNodeView {
+
+    Long getId();
+
+    Long getParentId();
+
+    Integer getDepth();
+
+    String getTitle();
+
+    TaskStatus getStatus();
+
+    // код TaskPriority: нативный запрос не проходит через TaskPriorityConverter
+    Short getPriorityCode();
+
+    LocalDateTime getDueAt();
+}
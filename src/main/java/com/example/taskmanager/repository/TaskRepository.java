@@ -11,6 +11,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,7 +22,84 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 
     List<Task> findByUser(User user);
 
-    Page<Task> findAllByUserUsername(String username, Pageable pageable);
+    // задачи, к которым у пользователя есть доступ сам или через команды; соединение с task_acl идет по индексам
+    // idx_task_acl_user/idx_task_acl_team, а в tasks - по первичному ключу (user_id, id)
+    @Query("SELECT t FROM Task t WHERE (t.user.id, t.id) IN (" +
+            "SELECT a.taskUserId, a.taskId FROM TaskAclEntry a WHERE a.userId = :userId OR a.teamId IN :teamIds)")
+    Page<Task> findVisible(@Param("userId") Long userId,
+                           @Param("teamIds") Collection<Long> teamIds,
+                           Pageable pageable);
+
+    @Query("SELECT t FROM Task t WHERE t.status = :status AND (t.user.id, t.id) IN (" +
+            "SELECT a.taskUserId, a.taskId FROM TaskAclEntry a WHERE a.userId = :userId OR a.teamId IN :teamIds)")
+    Page<Task> findVisibleByStatus(@Param("status") TaskStatus status,
+                                   @Param("userId") Long userId,
+                                   @Param("teamIds") Collection<Long> teamIds,
+                                   Pageable pageable);
+
+    // редкие теги: задачи со всеми тегами из списка ищутся по GIN-индексу idx_tasks_tags и сортируются
+    // по ключу курсора (created_at, id); MATERIALIZED не дает планировщику заменить GIN обходом idx_tasks_created_at
+    @Query(value = "WITH matched AS MATERIALIZED (" +
+            "SELECT * FROM tasks t WHERE t.tags @> CAST(:tags AS text[]) " +
+            "AND (t.created_at, t.id) > (:afterCreatedAt, :afterId)) " +
+            "SELECT * FROM matched ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<Task> findTaggedAfter(@Param("tags") String[] tags,
+                               @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                               @Param("afterId") long afterId,
+                               @Param("limit") int limit);
+
+    // частые теги: обход idx_tasks_created_at с проверкой тегов, не дальше scanLimit задач за страницу,
+    // поэтому пересечение частых тегов без общих задач не просматривает всю таблицу
+    @Query(value = "SELECT * FROM (SELECT * FROM tasks t WHERE (t.created_at, t.id) > (:afterCreatedAt, :afterId) " +
+            "ORDER BY t.created_at, t.id LIMIT :scanLimit) w " +
+            "WHERE w.tags @> CAST(:tags AS text[]) " +
+            "ORDER BY w.created_at, w.id LIMIT :limit", nativeQuery = true)
+    List<Task> findTaggedByScanAfter(@Param("tags") String[] tags,
+                                     @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                     @Param("afterId") long afterId,
+                                     @Param("scanLimit") int scanLimit,
+                                     @Param("limit") int limit);
+
+    // ключ последней задачи окна обхода findTaggedByScanAfter, с него продолжается неполная страница
+    @Query(value = "SELECT t.created_at AS createdAt, t.id AS id FROM tasks t " +
+            "WHERE (t.created_at, t.id) > (:afterCreatedAt, :afterId) " +
+            "ORDER BY t.created_at, t.id OFFSET :offset LIMIT 1", nativeQuery = true)
+    Optional<TaskKeyView> findKeyAfter(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                       @Param("afterId") long afterId,
+                                       @Param("offset") int offset);
+
+    // то же с проверкой доступа, как в findVisible; команды передаются массивом, чтобы пустой список
+    // не превращался в недопустимое IN ()
+    @Query(value = "WITH matched AS MATERIALIZED (" +
+            "SELECT * FROM tasks t WHERE t.tags @> CAST(:tags AS text[]) " +
+            "AND (t.created_at, t.id) > (:afterCreatedAt, :afterId)) " +
+            "SELECT * FROM matched m WHERE (m.user_id, m.id) IN (SELECT a.task_user_id, a.task_id FROM task_acl a " +
+            "WHERE a.user_id = :userId OR a.team_id = ANY (CAST(:teamIds AS BIGINT[]))) " +
+            "ORDER BY m.created_at, m.id LIMIT :limit", nativeQuery = true)
+    List<Task> findVisibleTaggedAfter(@Param("tags") String[] tags,
+                                      @Param("userId") Long userId,
+                                      @Param("teamIds") Long[] teamIds,
+                                      @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                      @Param("afterId") long afterId,
+                                      @Param("limit") int limit);
+
+    // частые теги для пользователя: сначала доступные ему задачи из task_acl, затем проверка тегов,
+    // стоимость ограничена числом его задач, а не числом задач с тегом
+    @Query(value = "WITH visible AS MATERIALIZED (" +
+            "SELECT DISTINCT a.task_user_id, a.task_id FROM task_acl a " +
+            "WHERE a.user_id = :userId OR a.team_id = ANY (CAST(:teamIds AS BIGINT[]))) " +
+            "SELECT t.* FROM visible v JOIN tasks t ON t.user_id = v.task_user_id AND t.id = v.task_id " +
+            "WHERE t.tags @> CAST(:tags AS text[]) AND (t.created_at, t.id) > (:afterCreatedAt, :afterId) " +
+            "ORDER BY t.created_at, t.id LIMIT :limit", nativeQuery = true)
+    List<Task> findVisibleTaggedByAclAfter(@Param("tags") String[] tags,
+                                           @Param("userId") Long userId,
+                                           @Param("teamIds") Long[] teamIds,
+                                           @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                           @Param("afterId") long afterId,
+                                           @Param("limit") int limit);
+
+    // фильтр по user_id, а не по join с users: иначе планировщик не отсекает секции tasks
+    Page<Task> findByUser(User user, Pageable pageable);
 
     List<Task> findByStatus(TaskStatus status);
 
@@ -30,8 +109,105 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 
     Page<Task> findByStatusAndUser(TaskStatus status, User user, Pageable pageable);
 
+    @Query("SELECT t.id AS id, t.version AS version, t.user.id AS ownerId, t.claimedBy.id AS claimerId " +
+            "FROM Task t WHERE t.id = :id")
+    Optional<TaskVersionView> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT t FROM Task t " +
+            "WHERE t.updatedAt > :since OR (t.updatedAt = :since AND t.id > :lastId) " +
+            "ORDER BY t.updatedAt, t.id")
+    List<Task> findChangedSince(@Param("since") LocalDateTime since,
+                                @Param("lastId") Long lastId,
+                                Pageable pageable);
+
+    @Query("SELECT t FROM Task t " +
+            "WHERE t.user.id = :userId AND (t.updatedAt > :since OR (t.updatedAt = :since AND t.id > :lastId)) " +
+            "ORDER BY t.updatedAt, t.id")
+    List<Task> findChangedSinceByUserId(@Param("userId") Long userId,
+                                        @Param("since") LocalDateTime since,
+                                        @Param("lastId") Long lastId,
+                                        Pageable pageable);
+
+    // SKIP LOCKED: несколько узлов разбирают разные пачки, задачи, которые сейчас изменяются, пропускаются
+    @Query(value = "SELECT * FROM tasks WHERE status = 'PENDING' AND updated_at < :before " +
+            "ORDER BY updated_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Task> lockStalePendingBatch(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    // SKIP LOCKED: конкурирующие исполнители не ждут друг друга и не получают одну задачу дважды,
+    // порядок совпадает с частичным индексом idx_tasks_claim_queue
+    @Query(value = "SELECT * FROM tasks WHERE status = 'PENDING' " +
+            "ORDER BY priority DESC, created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Task> lockPendingForClaim(@Param("limit") int limit);
+
+    // очередь пользователя без роли админа: только задачи, доступные ему самому или его командам через task_acl
+    @Query(value = "SELECT * FROM tasks t WHERE t.status = 'PENDING' " +
+            "AND (t.user_id, t.id) IN (SELECT a.task_user_id, a.task_id FROM task_acl a " +
+            "WHERE a.user_id = :userId OR a.team_id = ANY (CAST(:teamIds AS BIGINT[]))) " +
+            "ORDER BY t.priority DESC, t.created_at, t.id LIMIT :limit FOR UPDATE OF t SKIP LOCKED", nativeQuery = true)
+    List<Task> lockVisiblePendingForClaim(@Param("userId") Long userId,
+                                          @Param("teamIds") Long[] teamIds,
+                                          @Param("limit") int limit);
+
+    // статусы заданы литералами, чтобы условие совпадало с частичными индексами idx_tasks_user_due_at и idx_tasks_due_at.
+    // Доступ как в findVisible: владелец тоже записан в task_acl, а задачи из общего списка ищутся по ключу (user_id, ...)
+    @Query("SELECT t FROM Task t WHERE t.dueAt IS NOT NULL " +
+            "AND t.status IN (com.example.taskmanager.entity.TaskStatus.PENDING, " +
+            "com.example.taskmanager.entity.TaskStatus.IN_PROGRESS) " +
+            "AND (t.user.id, t.id) IN (" +
+            "SELECT a.taskUserId, a.taskId FROM TaskAclEntry a WHERE a.userId = :userId OR a.teamId IN :teamIds) " +
+            "ORDER BY t.dueAt, t.priority DESC, t.id")
+    List<Task> findVisibleDue(@Param("userId") Long userId,
+                              @Param("teamIds") Collection<Long> teamIds,
+                              Pageable pageable);
+
+    @Query("SELECT t FROM Task t WHERE t.dueAt IS NOT NULL " +
+            "AND t.status IN (com.example.taskmanager.entity.TaskStatus.PENDING, " +
+            "com.example.taskmanager.entity.TaskStatus.IN_PROGRESS) " +
+            "ORDER BY t.dueAt, t.priority DESC, t.id")
+    List<Task> findDue(Pageable pageable);
+
+    // одна временная корзина очереди сроков, страницы по ключу (due_at, id); уже объявленные сроки
+    // (повтор корзины после сбоя до сдвига позиции) пропускаются
+    @Query(value = "SELECT * FROM tasks WHERE due_at IS NOT NULL AND status IN ('PENDING', 'IN_PROGRESS') " +
+            "AND (due_at, id) > (:afterDueAt, :afterId) AND due_at <= :until " +
+            "AND overdue_notified_due_at IS DISTINCT FROM due_at " +
+            "ORDER BY due_at, id LIMIT :limit", nativeQuery = true)
+    List<Task> findDueBatch(@Param("afterDueAt") LocalDateTime afterDueAt,
+                            @Param("afterId") long afterId,
+                            @Param("until") LocalDateTime until,
+                            @Param("limit") int limit);
+
+    // задачи, срок которых после изменения оказался в уже просканированном интервале; правка других полей
+    // не меняет due_at и потому не дает повторного события
+    @Query(value = "SELECT * FROM tasks WHERE due_at IS NOT NULL AND status IN ('PENDING', 'IN_PROGRESS') " +
+            "AND due_at <= :scannedUntil AND (updated_at, id) > (:afterUpdatedAt, :afterId) " +
+            "AND overdue_notified_due_at IS DISTINCT FROM due_at " +
+            "ORDER BY updated_at, id LIMIT :limit", nativeQuery = true)
+    List<Task> findRescheduledIntoPastBatch(@Param("scannedUntil") LocalDateTime scannedUntil,
+                                            @Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+                                            @Param("afterId") long afterId,
+                                            @Param("limit") int limit);
+
+    // служебная отметка без изменения version и updated_at; задача, измененная после чтения детектором,
+    // не отмечается и будет проверена заново по новому updated_at
+    @Modifying
+    @Query(value = "UPDATE tasks t SET overdue_notified_due_at = t.due_at " +
+            "FROM unnest(CAST(:userIds AS bigint[]), CAST(:ids AS bigint[]), CAST(:versions AS bigint[])) " +
+            "AS k(user_id, id, version) " +
+            "WHERE t.user_id = k.user_id AND t.id = k.id AND t.version = k.version", nativeQuery = true)
+    int markOverdueNotified(@Param("userIds") Long[] userIds,
+                            @Param("ids") Long[] ids,
+                            @Param("versions") Long[] versions);
+
+    // вместе с задачами пользователя пишутся их tombstone-записи, иначе синхронизация админа не увидит удаления
     @Transactional
     @Modifying
-    @Query("DELETE FROM Task t WHERE t.user.id = :userId")
-    void deleteByUserId(@Param("userId") Long userId);
+    @Query(value = """
+            WITH deleted AS (
+                DELETE FROM tasks WHERE user_id = :userId RETURNING id, user_id
+            )
+            INSERT INTO task_tombstones (task_id, user_id, deleted_at)
+            SELECT id, user_id, :deletedAt FROM deleted""",
+            nativeQuery = true)
+    int deleteByUserIdWithTombstones(@Param("userId") Long userId, @Param("deletedAt") LocalDateTime deletedAt);
 }
@@ -0,0 +1,10 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskStatus;
+
+public interface TaskStatusCountView {
+
+    TaskStatus getStatus();
+
+    Long getTaskCount();
+}
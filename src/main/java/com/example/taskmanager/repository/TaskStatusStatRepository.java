@@ -0,0 +1,39 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskStatusStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface TaskStatusStatRepository extends JpaRepository<TaskStatusStat, TaskStatusStat.Key> {
+
+    List<TaskStatusStat> findByUserId(Long userId);
+
+    @Query("SELECT s.status AS status, SUM(s.taskCount) AS taskCount, MAX(s.computedAt) AS computedAt " +
+            "FROM TaskStatusStat s GROUP BY s.status")
+    List<TaskStatusTotalView> sumByStatus();
+
+    // одна команда: DELETE видит снимок до вставки, поэтому удаляются только пропавшие пары пользователь-статус
+    @Transactional
+    @Modifying
+    @Query(value = """
+            WITH fresh AS (
+                SELECT user_id, status, count(*) AS task_count
+                FROM (SELECT user_id, status FROM tasks
+                      UNION ALL
+                      SELECT user_id, status FROM tasks_archive) all_tasks
+                GROUP BY user_id, status
+            ), upserted AS (
+                INSERT INTO task_status_stats (user_id, status, task_count, computed_at)
+                SELECT user_id, status, task_count, now() FROM fresh
+                ON CONFLICT (user_id, status)
+                    DO UPDATE SET task_count = EXCLUDED.task_count, computed_at = EXCLUDED.computed_at
+            )
+            DELETE FROM task_status_stats s
+            WHERE NOT EXISTS (SELECT 1 FROM fresh f WHERE f.user_id = s.user_id AND f.status = s.status)""",
+            nativeQuery = true)
+    int recalculate();
+}
@@ -0,0 +1,14 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskStatus;
+
+import java.time.LocalDateTime;
+
+public interface TaskStatusTotalView {
+
+    TaskStatus getStatus();
+
+    Long getTaskCount();
+
+    LocalDateTime getComputedAt();
+}
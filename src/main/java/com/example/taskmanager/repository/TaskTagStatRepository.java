@@ -0,0 +1,36 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskTagStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface TaskTagStatRepository extends JpaRepository<TaskTagStat, String> {
+
+    // оценка сверху для пересечения тегов - число задач с самым редким из них;
+    // тега нет в статистике, если при последнем пересчете задач с ним не было
+    @Query(value = "SELECT COALESCE(MIN(COALESCE(s.task_count, 0)), 0) FROM unnest(CAST(:tags AS text[])) AS q(tag) " +
+            "LEFT JOIN task_tag_stats s ON s.tag = q.tag", nativeQuery = true)
+    long findRarestTagCount(@Param("tags") String[] tags);
+
+    // как и пересчет статусов, одна команда: удаляются только теги, которых больше нет ни у одной задачи
+    @Transactional
+    @Modifying
+    @Query(value = """
+            WITH fresh AS (
+                SELECT tag, count(*) AS task_count
+                FROM tasks, unnest(tags) AS tag
+                GROUP BY tag
+            ), upserted AS (
+                INSERT INTO task_tag_stats (tag, task_count, computed_at)
+                SELECT tag, task_count, now() FROM fresh
+                ON CONFLICT (tag)
+                    DO UPDATE SET task_count = EXCLUDED.task_count, computed_at = EXCLUDED.computed_at
+            )
+            DELETE FROM task_tag_stats s
+            WHERE NOT EXISTS (SELECT 1 FROM fresh f WHERE f.tag = s.tag)""",
+            nativeQuery = true)
+    int recalculate();
+}
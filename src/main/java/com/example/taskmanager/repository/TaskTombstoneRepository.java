@@ -0,0 +1,28 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    @Query("SELECT t FROM TaskTombstone t " +
+            "WHERE t.deletedAt > :since OR (t.deletedAt = :since AND t.id > :lastId) " +
+            "ORDER BY t.deletedAt, t.id")
+    List<TaskTombstone> findDeletedSince(@Param("since") LocalDateTime since,
+                                         @Param("lastId") Long lastId,
+                                         Pageable pageable);
+
+    @Query("SELECT t FROM TaskTombstone t " +
+            "WHERE t.userId = :userId AND (t.deletedAt > :since OR (t.deletedAt = :since AND t.id > :lastId)) " +
+            "ORDER BY t.deletedAt, t.id")
+    List<TaskTombstone> findDeletedSinceByUserId(@Param("userId") Long userId,
+                                                 @Param("since") LocalDateTime since,
+                                                 @Param("lastId") Long lastId,
+                                                 Pageable pageable);
+}
@@ -0,0 +1,12 @@
+package com.example.taskmanager.repository;
+
+public interface TaskVersionView {
+
+    Long getId();
+
+    Long getVersion();
+
+    Long getOwnerId();
+
+    Long getClaimerId();
+}
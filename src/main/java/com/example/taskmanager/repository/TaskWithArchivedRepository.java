@@ -0,0 +1,40 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.TaskWithArchived;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+
+public interface TaskWithArchivedRepository extends Repository<TaskWithArchived, Long> {
+
+    Page<TaskWithArchived> findAll(Pageable pageable);
+
+    Page<TaskWithArchived> findByStatus(TaskStatus status, Pageable pageable);
+
+    // доступ к горячим задачам - по task_acl, как в TaskRepository.findVisible, к архивным - по правам,
+    // сохраненным при архивировании. Условие - одна проверка IN по объединению, чтобы PostgreSQL превратил ее
+    // в полусоединение с поиском по первичным ключам обеих таблиц, а не фильтровал весь UNION ALL
+    @Query("SELECT t FROM TaskWithArchived t WHERE (t.user.id, t.id) IN (" + VISIBLE_KEYS + ")")
+    Page<TaskWithArchived> findVisible(@Param("userId") Long userId,
+                                       @Param("teamIds") Collection<Long> teamIds,
+                                       @Param("viewerTeamIds") Long[] viewerTeamIds,
+                                       Pageable pageable);
+
+    @Query("SELECT t FROM TaskWithArchived t WHERE t.status = :status AND (t.user.id, t.id) IN (" + VISIBLE_KEYS + ")")
+    Page<TaskWithArchived> findVisibleByStatus(@Param("status") TaskStatus status,
+                                               @Param("userId") Long userId,
+                                               @Param("teamIds") Collection<Long> teamIds,
+                                               @Param("viewerTeamIds") Long[] viewerTeamIds,
+                                               Pageable pageable);
+
+    String VISIBLE_KEYS = "SELECT a.taskUserId, a.taskId FROM TaskAclEntry a " +
+            "WHERE a.userId = :userId OR a.teamId IN :teamIds " +
+            "UNION ALL " +
+            "SELECT r.user.id, r.id FROM ArchivedTask r " +
+            "WHERE array_contains(r.viewerUserIds, :userId) OR array_intersects(r.viewerTeamIds, :viewerTeamIds)";
+}
@@ -0,0 +1,16 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TeamMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TeamMemberRepository extends JpaRepository<TeamMember, TeamMember.Key> {
+
+    @Query("SELECT m.teamId FROM TeamMember m WHERE m.userId = :userId")
+    List<Long> findTeamIdsByUserId(@Param("userId") Long userId);
+
+    List<TeamMember> findByTeamId(Long teamId);
+}
@@ -0,0 +1,9 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.Team;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    boolean existsByName(String name);
+}
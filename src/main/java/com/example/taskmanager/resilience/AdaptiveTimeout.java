@@ -0,0 +1,48 @@
+package com.example.taskmanager.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+// оценка как у RTO в TCP: сглаженная задержка плюс четыре отклонения, в пределах [min, max]
+class AdaptiveTimeout {
+
+    private final long minNanos;
+    private final long maxNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double smoothed = -1;
+    private double deviation;
+
+    AdaptiveTimeout(Duration min, Duration max) {
+        this.minNanos = min.toNanos();
+        this.maxNanos = max.toNanos();
+    }
+
+    void record(long elapsedNanos) {
+        lock.lock();
+        try {
+            if (smoothed < 0) {
+                smoothed = elapsedNanos;
+                deviation = elapsedNanos / 2.0;
+            } else {
+                deviation = 0.75 * deviation + 0.25 * Math.abs(smoothed - elapsedNanos);
+                smoothed = 0.875 * smoothed + 0.125 * elapsedNanos;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long currentNanos() {
+        lock.lock();
+        try {
+            if (smoothed < 0) {
+                return maxNanos;
+            }
+            long estimate = (long) (smoothed + 4 * deviation);
+            return Math.max(minNanos, Math.min(maxNanos, estimate));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
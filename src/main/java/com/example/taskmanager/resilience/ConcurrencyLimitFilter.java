@@ -0,0 +1,88 @@
+package com.example.taskmanager.resilience;
+
+import com.example.taskmanager.entity.RoleType;
+import com.netflix.concurrency.limits.Limiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    public static final String CRITICAL = "critical";
+    public static final String STANDARD = "standard";
+    public static final String BULK = "bulk";
+
+    private final Limiter<HttpServletRequest> limiter;
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrencyLimitFilter(Limiter<HttpServletRequest> limiter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // чтения и обновление токена обслуживаются в первую очередь, массовые правки администратора - в последнюю
+    public static String partitionOf(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+                || request.getRequestURI().equals("/api/auth/refresh")) {
+            return CRITICAL;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> RoleType.ROLE_ADMIN.name().equals(authority.getAuthority()))) {
+            return BULK;
+        }
+        return STANDARD;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // SSE-подписка держит соединение часами и исказила бы оценку задержки
+        String path = request.getRequestURI();
+        return path.equals("/tasks/stream") || path.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Optional<Limiter.Listener> acquired = limiter.acquire(request);
+        if (acquired.isEmpty()) {
+            String partition = partitionOf(request);
+            meterRegistry.counter("http.load_shedding.rejected", "partition", partition).increment();
+            logger.debug("Запрос {} {} отклонен ограничителем конкурентности ({})",
+                    request.getMethod(), request.getRequestURI(), partition);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server is overloaded, retry later");
+            return;
+        }
+
+        Limiter.Listener listener = acquired.get();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            // 503 от зависимостей и асинхронные ответы не отражают задержку обработки запроса
+            if (completed && !request.isAsyncStarted() && response.getStatus() != HttpServletResponse.SC_SERVICE_UNAVAILABLE) {
+                listener.onSuccess();
+            } else {
+                listener.onIgnore();
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.taskmanager.resilience;
+
+import com.example.taskmanager.config.ResilienceProperties;
+import com.example.taskmanager.datasource.ReadRoutingContext;
+import com.example.taskmanager.exception.DependencyUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionException;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// изолирует вызовы одной внешней зависимости: свой bulkhead, circuit breaker и адаптивный таймаут
+public abstract class DependencyGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyGuard.class);
+
+    private final String name;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveTimeout timeout;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    protected DependencyGuard(String name, ResilienceProperties.Dependency properties, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        this.timeout = new AdaptiveTimeout(properties.minTimeout(), properties.maxTimeout());
+
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.maxConcurrentCalls())
+                .maxWaitDuration(properties.maxWait())
+                .build());
+        this.bulkhead = bulkheadRegistry.bulkhead(name);
+
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.failureRateThreshold())
+                .slowCallRateThreshold(properties.failureRateThreshold())
+                .slowCallDurationThreshold(properties.maxTimeout())
+                .slidingWindowSize(properties.slidingWindowSize())
+                .minimumNumberOfCalls(Math.min(10, properties.slidingWindowSize()))
+                .waitDurationInOpenState(properties.openStateDuration())
+                .permittedNumberOfCallsInHalfOpenState(3)
+                // бизнес-ошибки (нет пользователя и т.п.) не говорят о состоянии зависимости
+                .recordException(e -> e instanceof DataAccessException
+                        || e instanceof TransactionException
+                        || e instanceof TimeoutException)
+                .build());
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        Gauge.builder("dependency.timeout", timeout, t -> t.currentNanos() / 1_000_000.0)
+                .description("Текущий адаптивный таймаут вызова зависимости, мс")
+                .tag("dependency", name)
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> supplier) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw rejected("circuit_open", name + " is unavailable, circuit breaker is open");
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            throw rejected("bulkhead_full", name + " is saturated, too many concurrent calls");
+        }
+
+        long timeoutNanos = timeout.currentNanos();
+        long start = System.nanoTime();
+        Supplier<T> task = withCallerContext(supplier);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    return task.get();
+                } finally {
+                    // слот освобождается только когда вызов реально завершился, а не когда вызывающий перестал ждать
+                    bulkhead.onComplete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.onComplete();
+            circuitBreaker.releasePermission();
+            throw rejected("shutdown", name + " guard is shut down");
+        }
+
+        try {
+            T result = future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            long elapsed = System.nanoTime() - start;
+            timeout.record(elapsed);
+            circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeout.record(timeoutNanos);
+            circuitBreaker.onError(timeoutNanos, TimeUnit.NANOSECONDS, e);
+            logger.warn("Вызов {} не уложился в {} мс", name, TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+            throw rejected("timeout", name + " call timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            circuitBreaker.releasePermission();
+            throw new DependencyUnavailableException(name + " call interrupted");
+        } catch (ExecutionException e) {
+            long elapsed = System.nanoTime() - start;
+            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, e.getCause());
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // вызов на потоке вызывающего: транзакция, persistence context и ThreadLocal-контекст остаются на месте,
+    // поэтому таймаут не навязывается, его обеспечивают таймауты драйвера и пула
+    public <T> T callInline(Invocation<T> invocation) throws Throwable {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw rejected("circuit_open", name + " is unavailable, circuit breaker is open");
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            throw rejected("bulkhead_full", name + " is saturated, too many concurrent calls");
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = invocation.proceed();
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    CircuitBreaker.State state() {
+        return circuitBreaker.getState();
+    }
+
+    // вызов идет на отдельном виртуальном потоке, поэтому переносим туда ThreadLocal-контекст запроса:
+    // MDC для логов, SecurityContext и признак чтения с primary для маршрутизации на реплику
+    private static <T> Supplier<T> withCallerContext(Supplier<T> supplier) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        boolean primaryRequired = ReadRoutingContext.isPrimaryRequired();
+        return () -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            SecurityContextHolder.setContext(securityContext);
+            if (primaryRequired) {
+                ReadRoutingContext.requirePrimary();
+            }
+            try {
+                return supplier.get();
+            } finally {
+                MDC.clear();
+                SecurityContextHolder.clearContext();
+                ReadRoutingContext.clear();
+            }
+        };
+    }
+
+    private DependencyUnavailableException rejected(String reason, String message) {
+        meterRegistry.counter("dependency.rejected", "dependency", name, "reason", reason).increment();
+        return new DependencyUnavailableException(message);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    public interface Invocation<T> {
+        T proceed() throws Throwable;
+    }
+}
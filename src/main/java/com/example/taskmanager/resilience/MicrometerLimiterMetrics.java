@@ -0,0 +1,41 @@
+package com.example.taskmanager.resilience;
+
+import com.netflix.concurrency.limits.MetricRegistry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+
+import java.util.function.Supplier;
+
+// адаптер метрик concurrency-limits к Micrometer, теги передаются парами имя-значение
+@RequiredArgsConstructor
+class MicrometerLimiterMetrics implements MetricRegistry {
+
+    private static final String PREFIX = "http.concurrency_limit.";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public SampleListener distribution(String id, String... tagNameValuePairs) {
+        DistributionSummary summary = DistributionSummary.builder(PREFIX + id)
+                .tags(Tags.of(tagNameValuePairs))
+                .register(meterRegistry);
+        return value -> summary.record(value.doubleValue());
+    }
+
+    @Override
+    public void gauge(String id, Supplier<Number> supplier, String... tagNameValuePairs) {
+        Gauge.builder(PREFIX + id, supplier, s -> s.get().doubleValue())
+                .tags(Tags.of(tagNameValuePairs))
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Counter counter(String id, String... tagNameValuePairs) {
+        io.micrometer.core.instrument.Counter counter = meterRegistry.counter(PREFIX + id, Tags.of(tagNameValuePairs));
+        return counter::increment;
+    }
+}
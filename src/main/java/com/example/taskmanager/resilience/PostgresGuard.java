@@ -0,0 +1,13 @@
+package com.example.taskmanager.resilience;
+
+import com.example.taskmanager.config.ResilienceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PostgresGuard extends DependencyGuard {
+
+    public PostgresGuard(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        super("postgres", properties.postgres(), meterRegistry);
+    }
+}
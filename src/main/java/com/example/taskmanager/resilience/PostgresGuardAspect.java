@@ -0,0 +1,36 @@
+package com.example.taskmanager.resilience;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+// транзакции сервисов, начатые запросом, проходят через PostgresGuard: при недоступной базе запрос сразу
+// получает 503, а не держит поток до таймаута пула. Аспект стоит снаружи транзакции, поэтому отказ
+// происходит до получения соединения
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class PostgresGuardAspect {
+
+    private final PostgresGuard postgresGuard;
+
+    @Around("within(com.example.taskmanager.service..*) && "
+            + "(@within(org.springframework.transaction.annotation.Transactional) "
+            + "|| @annotation(org.springframework.transaction.annotation.Transactional))")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        // вложенный вызов уже учтен внешней транзакцией; фоновые задачи не делят лимит с запросами
+        // и не должны открывать circuit breaker долгими пакетами
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                || RequestContextHolder.getRequestAttributes() == null) {
+            return joinPoint.proceed();
+        }
+        return postgresGuard.callInline(joinPoint::proceed);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.taskmanager.resilience;
+
+import com.example.taskmanager.config.ResilienceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RedisGuard extends DependencyGuard {
+
+    public RedisGuard(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        super("redis", properties.redis(), meterRegistry);
+    }
+}
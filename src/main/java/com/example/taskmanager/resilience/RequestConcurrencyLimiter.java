@@ -0,0 +1,34 @@
+package com.example.taskmanager.resilience;
+
+import com.netflix.concurrency.limits.MetricRegistry;
+import com.netflix.concurrency.limits.limiter.AbstractPartitionedLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+public class RequestConcurrencyLimiter extends AbstractPartitionedLimiter<HttpServletRequest> {
+
+    private RequestConcurrencyLimiter(Builder builder) {
+        super(builder);
+    }
+
+    public static MetricRegistry metricsFor(MeterRegistry meterRegistry) {
+        return new MicrometerLimiterMetrics(meterRegistry);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractPartitionedLimiter.Builder<Builder, HttpServletRequest> {
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        public RequestConcurrencyLimiter build() {
+            return new RequestConcurrencyLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.taskmanager.scheduling;
+
+import java.time.Duration;
+
+public interface ClusterJob {
+
+    String name();
+
+    Duration interval();
+
+    default boolean enabled() {
+        return true;
+    }
+
+    // true - выполняется только на узле-лидере; false - на всех узлах, работа делится пачками через SKIP LOCKED
+    boolean leaderOnly();
+
+    void run();
+}
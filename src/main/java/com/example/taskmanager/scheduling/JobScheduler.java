@@ -0,0 +1,83 @@
+package com.example.taskmanager.scheduling;
+
+import com.example.taskmanager.config.SchedulerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class JobScheduler implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobScheduler.class);
+
+    private final List<ClusterJob> jobs;
+    private final LeaderElection leaderElection;
+    private final SchedulerProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private ThreadPoolTaskScheduler taskScheduler;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        running = true;
+        if (!properties.enabled()) {
+            logger.info("Планировщик фоновых задач отключен");
+            return;
+        }
+
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(properties.poolSize());
+        taskScheduler.setThreadNamePrefix("cluster-job-");
+        taskScheduler.initialize();
+
+        taskScheduler.scheduleWithFixedDelay(leaderElection::refresh, properties.leaderCheckInterval());
+        for (ClusterJob job : jobs) {
+            if (job.enabled()) {
+                taskScheduler.scheduleWithFixedDelay(() -> execute(job), job.interval());
+                logger.info("Фоновая задача {} запланирована с интервалом {}{}", job.name(), job.interval(),
+                        job.leaderOnly() ? " (только на лидере)" : "");
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (taskScheduler != null) {
+            taskScheduler.shutdown();
+            taskScheduler = null;
+        }
+        leaderElection.release();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void execute(ClusterJob job) {
+        if (job.leaderOnly() && !leaderElection.isLeader()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "success";
+        try {
+            job.run();
+        } catch (RuntimeException e) {
+            result = "failure";
+            logger.error("Фоновая задача {} завершилась с ошибкой", job.name(), e);
+        } finally {
+            sample.stop(meterRegistry.timer("scheduler.job.duration", "job", job.name(), "result", result));
+        }
+    }
+}
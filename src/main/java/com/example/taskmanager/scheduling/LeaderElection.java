@@ -0,0 +1,99 @@
+package com.example.taskmanager.scheduling;
+
+import com.example.taskmanager.config.SchedulerProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+// лидер - узел, удерживающий сессионную advisory-блокировку PostgreSQL; при обрыве соединения
+// блокировка снимается сервером и ее забирает другой узел
+@Component
+public class LeaderElection {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderElection.class);
+
+    private final DataSourceProperties dataSourceProperties;
+    private final long lockKey;
+    private final ReentrantLock lock = new ReentrantLock();
+    // отдельное соединение вне пулов: оно удерживается постоянно и не должно считаться утечкой
+    private Connection connection;
+    private volatile boolean leader;
+
+    public LeaderElection(DataSourceProperties dataSourceProperties, SchedulerProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.lockKey = properties.leaderLockKey();
+        Gauge.builder("scheduler.leader", this, election -> election.isLeader() ? 1 : 0)
+                .description("1, если узел является лидером планировщика")
+                .register(meterRegistry);
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    public void refresh() {
+        lock.lock();
+        try {
+            if (connection == null || !connection.isValid(2)) {
+                if (leader) {
+                    logger.warn("Соединение с блокировкой лидера потеряно, узел больше не лидер");
+                }
+                leader = false;
+                closeConnection();
+                connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                        dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+            }
+            if (!leader) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                    statement.setLong(1, lockKey);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        resultSet.next();
+                        leader = resultSet.getBoolean(1);
+                    }
+                }
+                if (leader) {
+                    logger.info("Узел стал лидером планировщика");
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Не удалось проверить лидерство: {}", e.getMessage());
+            leader = false;
+            closeConnection();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            leader = false;
+            closeConnection();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeConnection() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.debug("Ошибка при закрытии соединения лидера: {}", e.getMessage());
+        }
+        connection = null;
+    }
+}
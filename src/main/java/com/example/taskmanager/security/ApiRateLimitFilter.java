@@ -0,0 +1,75 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.entity.RoleType;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+public class ApiRateLimitFilter extends OncePerRequestFilter {
+
+    private final ApiRateLimiter apiRateLimiter;
+    private final JwtService jwtService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // логин ограничивается отдельно, документация и анонимные запросы сюда не доходят
+        String path = request.getRequestURI();
+        return path.startsWith("/api/auth")
+                || path.startsWith("/v3/api-docs")
+                || path.startsWith("/swagger-ui");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtService.extractClaimsIgnoringExpiration(header.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            // невалидный токен отклонит JwtAuthenticationFilter
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = apiRateLimiter.tryAcquire(claims.getSubject(), isAdmin(claims));
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static boolean isAdmin(Claims claims) {
+        if (claims.get("roles") instanceof Collection<?> roles) {
+            for (Object role : roles) {
+                Object authority = role instanceof Map<?, ?> map ? map.get("authority") : role;
+                if (RoleType.ROLE_ADMIN.name().equals(authority)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.config.ApiRateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+@Component
+public class ApiRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiRateLimiter.class);
+
+    private static final String KEY_PREFIX = "api:rl:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ApiRateLimitProperties properties;
+    private final LongSupplier nanoClock;
+    private final Counter allowedCounter;
+    private final Counter rejectedCounter;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ApiRateLimiter(StringRedisTemplate redisTemplate, ApiRateLimitProperties properties,
+                          MeterRegistry meterRegistry) {
+        this(redisTemplate, properties, meterRegistry, System::nanoTime);
+    }
+
+    ApiRateLimiter(StringRedisTemplate redisTemplate, ApiRateLimitProperties properties,
+                   MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.allowedCounter = meterRegistry.counter("api.rate_limit", "result", "allowed");
+        this.rejectedCounter = meterRegistry.counter("api.rate_limit", "result", "rejected");
+    }
+
+    // GCRA по локальному состоянию без обращения к Redis; возвращает 0 или время ожидания в наносекундах
+    public long tryAcquire(String username, boolean admin) {
+        int quota = admin ? properties.adminQuota() : properties.userQuota();
+        int burst = admin ? properties.adminBurst() : properties.userBurst();
+        Bucket bucket = buckets.computeIfAbsent(username, key -> new Bucket(properties.period().toNanos() / quota));
+
+        long tolerance = bucket.emissionInterval * (burst - 1L);
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long tat = bucket.tat.get();
+            long start = Math.max(tat, now);
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                rejectedCounter.increment();
+                return wait;
+            }
+            if (bucket.tat.compareAndSet(tat, start + bucket.emissionInterval)) {
+                bucket.pending.increment();
+                allowedCounter.increment();
+                return 0;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.api-rate-limit.sync-interval:1s}")
+    public void synchronize() {
+        long now = nanoClock.getAsLong();
+        List<String> keys = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+
+        buckets.forEach((username, bucket) -> {
+            long delta = bucket.pending.sumThenReset();
+            if (delta > 0) {
+                keys.add(username);
+                deltas.add(delta);
+            } else if (bucket.tat.get() < now) {
+                // бакет полностью восстановился и не менялся с прошлой синхронизации
+                buckets.remove(username, bucket);
+            }
+        });
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<Object> results;
+        try {
+            long ttlMillis = properties.period().toMillis();
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (int i = 0; i < keys.size(); i++) {
+                    stringConnection.incrBy(KEY_PREFIX + keys.get(i), deltas.get(i));
+                    stringConnection.pExpire(KEY_PREFIX + keys.get(i), ttlMillis);
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            // лимит продолжает работать по локальным счетчикам этого экземпляра
+            logger.warn("Синхронизация счетчиков rate limit с Redis не удалась: {}", e.getMessage());
+            return;
+        }
+
+        long reconciledAt = nanoClock.getAsLong();
+        for (int i = 0; i < keys.size(); i++) {
+            Bucket bucket = buckets.get(keys.get(i));
+            if (bucket != null && results.get(i * 2) instanceof Long global) {
+                bucket.reconcile(global, deltas.get(i), reconciledAt);
+            }
+        }
+    }
+
+    int trackedUsers() {
+        return buckets.size();
+    }
+
+    private static final class Bucket {
+        private final long emissionInterval;
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        private final LongAdder pending = new LongAdder();
+        private long lastGlobal = -1;
+
+        private Bucket(long emissionInterval) {
+            this.emissionInterval = emissionInterval;
+        }
+
+        // запросы других экземпляров сдвигают TAT так, как если бы они прошли через этот бакет:
+        // как и в tryAcquire, отсчет идет от max(tat, now), иначе TAT в прошлом поглощает чужие запросы
+        private void reconcile(long global, long delta, long now) {
+            long foreign = lastGlobal < 0 ? 0 : global - lastGlobal - delta;
+            lastGlobal = global;
+            if (foreign > 0) {
+                long shift = foreign * emissionInterval;
+                tat.getAndUpdate(current -> Math.max(current, now) + shift);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.taskmanager.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+
+public final class BCryptCostCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        // прогрев JIT, чтобы первый замер не завышал время
+        BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(4));
+
+        long baseNanos = measure(minStrength);
+        int strength = minStrength;
+        long expectedNanos = baseNanos;
+
+        // каждая единица cost удваивает время хеширования
+        while (strength < maxStrength && expectedNanos * 2 <= target.toNanos()) {
+            strength++;
+            expectedNanos *= 2;
+        }
+
+        // экстраполяция по малому cost бывает оптимистичной, проверяем выбранный cost прямым замером
+        long measuredNanos = strength > minStrength ? measure(strength) : baseNanos;
+        while (strength > minStrength && measuredNanos > target.toNanos()) {
+            strength--;
+            measuredNanos = measure(strength);
+        }
+        expectedNanos = measuredNanos;
+
+        logger.info("Калибровка BCrypt: cost={} занимает {} мс, выбран cost={} (~{} мс) при целевом времени {} мс",
+                minStrength, baseNanos / 1_000_000, strength, expectedNanos / 1_000_000, target.toMillis());
+        return strength;
+    }
+
+    static long measure(int strength) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(strength));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.taskmanager.security;
+
+public record BCryptStrength(int value) {
+}
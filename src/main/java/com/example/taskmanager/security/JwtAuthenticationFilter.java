@@ -1,5 +1,7 @@
 package com.example.taskmanager.security;
 
+import com.example.taskmanager.exception.DependencyUnavailableException;
+import com.example.taskmanager.resilience.PostgresGuard;
 import com.example.taskmanager.service.RefreshTokenService;
 import com.example.taskmanager.service.TokenBlacklistService;
 import com.example.taskmanager.service.UserDetailsServiceImpl;
@@ -12,6 +14,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -34,6 +37,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final UserDetailsServiceImpl userDetailsService;
     private final RefreshTokenService refreshTokenService;
     private final UserDetailsServiceImpl userDetailsServiceImpl;
+    private final PostgresGuard postgresGuard;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -51,39 +55,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = extractToken(request);
 
-        if (token != null) {
+        try {
+            if (token != null) {
 
-            if (tokenBlacklistService.isTokenBlacklisted(token)) {
-                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token is blacklisted");
-                return;
-            }
-
-            if (jwtService.isTokenExpired(token)) {
-                String refreshToken = extractRefreshTokenFromCookie(request);
-
-                if (refreshToken != null) {
-                    String username = jwtService.extractUsername(refreshToken);
-                    if (jwtService.isTokenValid(refreshToken, username) &&
-                        refreshToken.equals(refreshTokenService.getRefreshToken(username))) {
-                        UserDetails userDetails = userDetailsServiceImpl.loadUserByUsername(username);
-                    String newAccessToken = jwtService.generateAccessToken(userDetails);
-                    //sendAccessToken(response, newAccessToken);
-                    response.setHeader("X-New-Access-Token", newAccessToken);
-                    setAuthentication(userDetails, request);
+                if (tokenBlacklistService.isTokenBlacklisted(token)) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token is blacklisted");
+                    return;
                 }
-            }
-        } else {
-                String username = jwtService.extractUsername(token);
 
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    if (jwtService.isTokenValid(token, userDetails.getUsername())) {
-                        setAuthentication(userDetails, request);
+                if (jwtService.isTokenExpired(token)) {
+                    String refreshToken = extractRefreshTokenFromCookie(request);
+
+                    if (refreshToken != null) {
+                        String username = jwtService.extractUsername(refreshToken);
+                        if (jwtService.isTokenValid(refreshToken, username) &&
+                                refreshToken.equals(refreshTokenService.getRefreshToken(username))) {
+                            UserDetails userDetails = postgresGuard.call(() -> userDetailsServiceImpl.loadUserByUsername(username));
+                            String newAccessToken = jwtService.generateAccessToken(userDetails);
+                            //sendAccessToken(response, newAccessToken);
+                            response.setHeader("X-New-Access-Token", newAccessToken);
+                            setAuthentication(userDetails, request);
+                        }
+                    }
+                } else {
+                    String username = jwtService.extractUsername(token);
+
+                    if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                        UserDetails userDetails = postgresGuard.call(() -> userDetailsService.loadUserByUsername(username));
+                        if (jwtService.isTokenValid(token, userDetails.getUsername())) {
+                            setAuthentication(userDetails, request);
+                        }
                     }
                 }
+            } else {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
+                return;
             }
-        } else {
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
+        } catch (DependencyUnavailableException e) {
+            // фильтр работает до DispatcherServlet, поэтому GlobalExceptionHandler сюда не дотягивается
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
             return;
         }
         filterChain.doFilter(request, response);
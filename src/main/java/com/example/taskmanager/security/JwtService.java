@@ -1,5 +1,6 @@
 package com.example.taskmanager.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
@@ -28,7 +29,8 @@ public class JwtService {
     @Value("${jwt.expirationRefreshToken}")
     private long refreshTokenExpirationTime;
 
-    private SecretKey key;
+    // инициализация идемпотентна, поэтому обходимся без synchronized, чтобы не закреплять виртуальный поток за потоком-носителем
+    private volatile SecretKey key;
 
     public SecretKey getKey() {
         if (key == null) {
@@ -81,6 +83,19 @@ public class JwtService {
                 .getSubject();
     }
 
+    public Claims extractClaimsIgnoringExpiration(String token) {
+        try {
+            return Jwts.parser()
+                    .verifyWith(getKey())
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        } catch (ExpiredJwtException e) {
+            // подпись уже проверена, просрочен только срок действия
+            return e.getClaims();
+        }
+    }
+
     public boolean isTokenValid(String token, String username) {
         logger.debug("Проверка валидности токена для пользователя {}", username);
         String extractedUsername = extractUsername(token);
@@ -0,0 +1,128 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.config.PasswordHashingProperties;
+import com.example.taskmanager.exception.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private static final String THREAD_PREFIX = "password-hash-";
+
+    private final ThreadPoolExecutor executor;
+    private final PasswordHashingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor(
+                properties.resolvedThreads(),
+                properties.resolvedThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                new CustomizableThreadFactory(THREAD_PREFIX),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.queueWaitTimer = Timer.builder("password.hash.queue.wait")
+                .description("Время ожидания задачи хеширования в очереди")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hash.rejected")
+                .description("Количество операций хеширования, отклоненных из-за переполнения очереди")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(String operation, Supplier<T> hashing) {
+        Timer hashTimer = Timer.builder("password.hash.duration")
+                .description("Время выполнения операции хеширования пароля")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        // вложенный вызов из потока пула выполняем сразу, иначе поток ждал бы сам себя
+        if (Thread.currentThread().getName().startsWith(THREAD_PREFIX)) {
+            return hashTimer.record(hashing);
+        }
+
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.record(hashing);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.warn("Очередь хеширования паролей переполнена ({} задач), запрос отклонен", executor.getQueue().size());
+            throw new PasswordHashingOverloadedException("Password hashing capacity exceeded, retry later");
+        }
+
+        try {
+            return future.get(properties.waitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new PasswordHashingOverloadedException("Password hashing timed out, retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingOverloadedException("Password hashing interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public boolean hasSpareCapacity() {
+        // фоновая работа занимает не больше половины очереди, чтобы не вытеснять логины
+        return executor.getQueue().remainingCapacity() > properties.queueCapacity() / 2;
+    }
+
+    public boolean trySubmitBackground(String operation, Runnable hashing) {
+        if (!hasSpareCapacity()) {
+            return false;
+        }
+
+        Timer hashTimer = Timer.builder("password.hash.duration")
+                .description("Время выполнения операции хеширования пароля")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        try {
+            executor.execute(() -> hashTimer.record(hashing));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PasswordUpgradeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordUpgradeService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    public void upgradeAsync(UserDetails user, String rawPassword) {
+        String username = user.getUsername();
+        String currentPassword = user.getPassword();
+        if (!passwordEncoder.upgradeEncoding(currentPassword)) {
+            return;
+        }
+
+        // логин не ждет перехеширования: новый хеш и запись в БД делаются в пуле хеширования
+        boolean submitted = passwordHashingExecutor.trySubmitBackground("rehash", () -> {
+            try {
+                String upgraded = passwordEncoder.encode(rawPassword);
+                // условное обновление: пароль мог смениться, пока шло перехеширование
+                int updated = userRepository.updatePasswordIfUnchanged(username, currentPassword, upgraded);
+                meterRegistry.counter("password.rehash", "result", updated == 1 ? "upgraded" : "stale").increment();
+                logger.debug("Хеш пароля пользователя '{}' обновлен", username);
+            } catch (RuntimeException e) {
+                meterRegistry.counter("password.rehash", "result", "failed").increment();
+                logger.warn("Не удалось перехешировать пароль пользователя '{}': {}", username, e.getMessage());
+            }
+        });
+
+        if (!submitted) {
+            // пул занят логинами, повторим при следующем входе
+            meterRegistry.counter("password.rehash", "result", "deferred").increment();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.taskmanager.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+
+@RequiredArgsConstructor
+public class UpgradingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final PasswordUpgradeService passwordUpgradeService;
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        // здесь еще доступны исходный пароль и хеш из БД: дальше ProviderManager затирает пароль
+        if (authentication.getCredentials() != null) {
+            passwordUpgradeService.upgradeAsync(user, authentication.getCredentials().toString());
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.LoginRateLimitProperties;
+import com.example.taskmanager.exception.DependencyUnavailableException;
+import com.example.taskmanager.exception.LoginRateLimitExceededException;
+import com.example.taskmanager.resilience.RedisGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class LoginRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private static final String USER_PREFIX = "login:rl:user:";
+    private static final String IP_PREFIX = "login:rl:ip:";
+
+    private static final int USER_DENIED = 1;
+    private static final int IP_DENIED = 2;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisGuard redisGuard;
+    private final LoginRateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final RedisScript<List> script;
+
+    // ключи, для которых Redis уже отказал: до истечения блокировки отвечаем 429 без обращения к Redis
+    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    public LoginRateLimiter(StringRedisTemplate redisTemplate, RedisGuard redisGuard,
+                            LoginRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.redisGuard = redisGuard;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/login-rate-limit.lua"));
+        script.setResultType(List.class);
+        this.script = script;
+    }
+
+    public void checkAllowed(String username, String clientIp) {
+        if (!properties.enabled()) {
+            return;
+        }
+
+        String userKey = USER_PREFIX + normalize(username);
+        String ipKey = IP_PREFIX + clientIp;
+        long now = System.currentTimeMillis();
+
+        long localWait = Math.max(remaining(userKey, now), remaining(ipKey, now));
+        if (localWait > 0) {
+            record("rejected_local");
+            throw new LoginRateLimitExceededException(toSeconds(localWait));
+        }
+
+        List<?> result;
+        try {
+            result = redisGuard.call(() -> redisTemplate.execute(script, List.of(userKey, ipKey),
+                    String.valueOf(properties.usernameCapacity()),
+                    String.valueOf(properties.usernameRefillInterval().toMillis()),
+                    String.valueOf(properties.ipCapacity()),
+                    String.valueOf(properties.ipRefillInterval().toMillis())));
+        } catch (DependencyUnavailableException | DataAccessException e) {
+            // недоступность Redis не должна блокировать вход, BCrypt-пул все равно ограничен
+            record("redis_error");
+            logger.warn("Проверка лимита попыток входа пропущена, Redis недоступен: {}", e.getMessage());
+            return;
+        }
+
+        if (result == null || ((Number) result.get(0)).longValue() == 1) {
+            record("allowed");
+            return;
+        }
+
+        long retryAfterMillis = ((Number) result.get(1)).longValue();
+        int deniedMask = ((Number) result.get(2)).intValue();
+        rememberBlocked(deniedMask, userKey, ipKey, now + retryAfterMillis);
+
+        record("rejected");
+        logger.warn("Превышен лимит попыток входа: пользователь '{}', IP {}", username, clientIp);
+        throw new LoginRateLimitExceededException(toSeconds(retryAfterMillis));
+    }
+
+    private long remaining(String key, long now) {
+        Long until = blockedUntil.get(key);
+        if (until == null) {
+            return 0;
+        }
+        if (until <= now) {
+            blockedUntil.remove(key, until);
+            return 0;
+        }
+        return until - now;
+    }
+
+    private void rememberBlocked(int deniedMask, String userKey, String ipKey, long until) {
+        if (blockedUntil.size() >= properties.localMaxEntries()) {
+            long now = System.currentTimeMillis();
+            blockedUntil.values().removeIf(value -> value <= now);
+            if (blockedUntil.size() >= properties.localMaxEntries()) {
+                return;
+            }
+        }
+        if ((deniedMask & USER_DENIED) != 0) {
+            blockedUntil.put(userKey, until);
+        }
+        if ((deniedMask & IP_DENIED) != 0) {
+            blockedUntil.put(ipKey, until);
+        }
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("login.rate_limit", "result", result).increment();
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+}
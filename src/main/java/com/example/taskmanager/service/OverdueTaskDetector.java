@@ -0,0 +1,165 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.OverdueTaskProperties;
+import com.example.taskmanager.entity.JobWatermark;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.JobWatermarkRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.scheduling.ClusterJob;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// публикует события OVERDUE: очередь сроков сканируется временными корзинами по индексу idx_tasks_due_at
+// начиная с сохраненной позиции, поэтому каждый запуск читает только задачи, срок которых наступил с прошлого раза
+@Service
+public class OverdueTaskDetector implements ClusterJob {
+
+    static final String NAME = "task-overdue";
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueTaskDetector.class);
+
+    private final TaskRepository taskRepository;
+    private final JobWatermarkRepository watermarkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OverdueTaskProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    public OverdueTaskDetector(TaskRepository taskRepository, JobWatermarkRepository watermarkRepository,
+                               ApplicationEventPublisher eventPublisher, OverdueTaskProperties properties,
+                               MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Duration interval() {
+        return properties.interval();
+    }
+
+    @Override
+    public boolean enabled() {
+        return properties.enabled();
+    }
+
+    // позиция общая для кластера, два узла одновременно продублировали бы события
+    @Override
+    public boolean leaderOnly() {
+        return true;
+    }
+
+    @Override
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Optional<JobWatermark> watermark = watermarkRepository.findById(NAME);
+        if (watermark.isEmpty()) {
+            // при первом запуске уже просроченные задачи не объявляются, отсчет идет с текущего момента
+            watermarkRepository.save(new JobWatermark(NAME, now));
+            return;
+        }
+
+        LocalDateTime scannedUntil = watermark.get().getPosition();
+        int total = publishRescheduled(scannedUntil);
+
+        LocalDateTime from = scannedUntil;
+        for (int i = 0; i < properties.maxBucketsPerRun() && from.isBefore(now); i++) {
+            LocalDateTime to = from.plus(properties.bucket());
+            if (to.isAfter(now)) {
+                to = now;
+            }
+            total += publishBucket(from, to);
+            from = to;
+        }
+
+        if (total > 0) {
+            meterRegistry.counter("task.overdue.detected").increment(total);
+            logger.info("Опубликовано {} событий о просроченных задачах, обработано до {}", total, from);
+        }
+        if (from.isBefore(now)) {
+            logger.warn("Поиск просроченных задач отстает: обработано до {}, текущее время {}", from, now);
+        }
+    }
+
+    // корзина (from, to] читается страницами, позиция сдвигается в транзакции последней страницы вместе с событиями
+    private int publishBucket(LocalDateTime from, LocalDateTime to) {
+        int total = 0;
+        Cursor cursor = new Cursor(from, Long.MAX_VALUE);
+        while (cursor != null) {
+            Cursor after = cursor;
+            List<Task> batch = transactionTemplate.execute(status -> {
+                List<Task> tasks = taskRepository.findDueBatch(after.position(), after.id(), to, properties.batchSize());
+                publishOverdue(tasks);
+                if (tasks.size() < properties.batchSize()) {
+                    watermarkRepository.save(new JobWatermark(NAME, to));
+                }
+                return tasks;
+            });
+            total += batch.size();
+            cursor = batch.size() < properties.batchSize()
+                    ? null
+                    : new Cursor(batch.getLast().getDueAt(), batch.getLast().getId());
+        }
+        return total;
+    }
+
+    // срок мог быть перенесен в уже просканированное прошлое; транзакции, начатые до прошлого запуска,
+    // могли зафиксироваться после него, поэтому окно расширено на commitGrace. Задачи с уже объявленным
+    // сроком в окне отсекает отметка overdue_notified_due_at
+    private int publishRescheduled(LocalDateTime scannedUntil) {
+        int total = 0;
+        Cursor cursor = new Cursor(scannedUntil.minus(properties.commitGrace()), Long.MAX_VALUE);
+        while (cursor != null) {
+            Cursor after = cursor;
+            List<Task> batch = transactionTemplate.execute(status -> {
+                List<Task> tasks = taskRepository.findRescheduledIntoPastBatch(
+                        scannedUntil, after.position(), after.id(), properties.batchSize());
+                publishOverdue(tasks);
+                return tasks;
+            });
+            total += batch.size();
+            cursor = batch.size() < properties.batchSize()
+                    ? null
+                    : new Cursor(batch.getLast().getUpdatedAt(), batch.getLast().getId());
+        }
+        return total;
+    }
+
+    // отметка пишется в транзакции событий: после отката срок останется необъявленным и попадет в следующий запуск
+    private void publishOverdue(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        for (Task task : tasks) {
+            eventPublisher.publishEvent(TaskChangedEvent.of(task, TaskChangeType.OVERDUE));
+        }
+        taskRepository.markOverdueNotified(
+                tasks.stream().map(task -> task.getUser().getId()).toArray(Long[]::new),
+                tasks.stream().map(Task::getId).toArray(Long[]::new),
+                tasks.stream().map(Task::getVersion).toArray(Long[]::new));
+    }
+
+    private record Cursor(LocalDateTime position, long id) {
+    }
+}
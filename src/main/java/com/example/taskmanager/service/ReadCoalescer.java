@@ -0,0 +1,65 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.datasource.ReadRoutingContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class ReadCoalescer {
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ReadCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("task.read.coalescing.in_flight", inFlight, Map::size)
+                .description("Количество выполняющихся чтений, к которым могут присоединиться запросы")
+                .register(meterRegistry);
+    }
+
+    // одинаковые конкурентные чтения в пределах одной области видимости делят один запрос к БД
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String query, String scope, Supplier<T> loader, Object... arguments) {
+        // запрос, обязанный читать с primary, не должен получить результат, прочитанный с реплики
+        Key key = new Key(query, scope, ReadRoutingContext.isPrimaryRequired(), Arrays.asList(arguments));
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+
+        if (existing != null) {
+            meterRegistry.counter("task.read.coalescing", "query", query, "result", "coalesced").increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
+
+        meterRegistry.counter("task.read.coalescing", "query", query, "result", "executed").increment();
+        try {
+            T result = loader.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            // после завершения новые запросы снова идут в БД и видят свежие данные
+            inFlight.remove(key, future);
+        }
+    }
+
+    private record Key(String query, String scope, boolean primaryRequired, List<Object> arguments) {
+    }
+}
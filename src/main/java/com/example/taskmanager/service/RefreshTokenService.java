@@ -1,5 +1,6 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.resilience.RedisGuard;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +15,7 @@ public class RefreshTokenService {
     private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
 
     private final StringRedisTemplate stringRedisTemplate;
+    private final RedisGuard redisGuard;
     private static final String REFRESH_PREFIX = "refresh:";
 
     public void storeRefreshToken(String username, String refreshToken, long ttlMillis) {
@@ -28,7 +30,7 @@ public class RefreshTokenService {
     public String getRefreshToken(String username) {
         logger.debug("Получение токена для пользователя={}", username);
 
-        String token = stringRedisTemplate.opsForValue().get(REFRESH_PREFIX + username);
+        String token = redisGuard.call(() -> stringRedisTemplate.opsForValue().get(REFRESH_PREFIX + username));
         if (token == null) {
             logger.debug("Токен не найден в кэше для пользователя={}", username);
         } else {
@@ -0,0 +1,95 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.StalePendingTaskProperties;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.scheduling.ClusterJob;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// отменяет задачи, которые слишком долго ждут начала работы; события изменений пишутся в outbox как при ручной отмене
+@Service
+public class StalePendingTaskCanceller implements ClusterJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(StalePendingTaskCanceller.class);
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StalePendingTaskProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    public StalePendingTaskCanceller(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher,
+                                     StalePendingTaskProperties properties, MeterRegistry meterRegistry,
+                                     PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String name() {
+        return "stale-pending-cancel";
+    }
+
+    @Override
+    public Duration interval() {
+        return properties.interval();
+    }
+
+    @Override
+    public boolean enabled() {
+        return properties.enabled();
+    }
+
+    @Override
+    public boolean leaderOnly() {
+        return false;
+    }
+
+    @Override
+    public void run() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.after());
+
+        int total = 0;
+        for (int i = 0; i < properties.maxBatchesPerRun(); i++) {
+            Integer cancelled = transactionTemplate.execute(status -> cancelBatch(before));
+            total += cancelled;
+            if (cancelled < properties.batchSize()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            meterRegistry.counter("task.stale_pending.cancelled").increment(total);
+            logger.info("Автоматически отменено {} задач в статусе PENDING без изменений дольше {}", total, properties.after());
+        }
+    }
+
+    private int cancelBatch(LocalDateTime before) {
+        List<Task> batch = taskRepository.lockStalePendingBatch(before, properties.batchSize());
+        for (Task task : batch) {
+            task.setStatus(TaskStatus.CANCELLED);
+        }
+        // версия и updatedAt должны обновиться до формирования событий
+        taskRepository.flush();
+        for (Task task : batch) {
+            eventPublisher.publishEvent(TaskChangedEvent.of(task, TaskChangeType.UPDATED));
+        }
+        return batch.size();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.exception.InvalidSyncTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+record SyncWatermark(LocalDateTime taskUpdatedAt, long taskId, LocalDateTime deletedAt, long tombstoneId) {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    static final SyncWatermark INITIAL = new SyncWatermark(EPOCH, 0, EPOCH, 0);
+
+    static SyncWatermark decode(String token) {
+        if (token == null || token.isBlank()) {
+            return INITIAL;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 4) {
+                throw new InvalidSyncTokenException("Invalid sync token");
+            }
+            return new SyncWatermark(
+                    fromMicros(Long.parseLong(parts[0])),
+                    Long.parseLong(parts[1]),
+                    fromMicros(Long.parseLong(parts[2])),
+                    Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSyncTokenException("Invalid sync token");
+        }
+    }
+
+    String encode() {
+        String raw = toMicros(taskUpdatedAt) + ":" + taskId + ":" + toMicros(deletedAt) + ":" + tombstoneId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    SyncWatermark withTask(LocalDateTime updatedAt, long id) {
+        return new SyncWatermark(updatedAt, id, deletedAt, tombstoneId);
+    }
+
+    SyncWatermark withTombstone(LocalDateTime deletedAt, long id) {
+        return new SyncWatermark(taskUpdatedAt, taskId, deletedAt, id);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return ChronoUnit.MICROS.between(EPOCH, time);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.RoleType;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.exception.TaskNotFoundException;
+import com.example.taskmanager.exception.UserNotFoundException;
+import com.example.taskmanager.repository.ArchivedTaskRepository;
+import com.example.taskmanager.repository.TaskAclRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskVersionView;
+import com.example.taskmanager.repository.TeamMemberRepository;
+import com.example.taskmanager.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+// проверки доступа к задачам: пользователь, его команды и решения по отдельным задачам кешируются
+// в атрибутах текущего HTTP-запроса; вне запроса (фоновые задачи, тесты) каждый вызов идет в БД
+@Component
+@RequiredArgsConstructor
+public class TaskAccessResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskAccessResolver.class);
+
+    private static final String ATTRIBUTE_PREFIX = TaskAccessResolver.class.getName() + ".";
+
+    private final UserRepository userRepository;
+    private final TeamMemberRepository teamMemberRepository;
+    private final TaskAclRepository taskAclRepository;
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+
+    public Subject subject(String username) {
+        return cached("subject:" + username, () -> {
+            logger.debug("Загрузка прав пользователя={}", username);
+
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UserNotFoundException(username));
+            List<Long> teamIds = user.getRole() == RoleType.ROLE_ADMIN
+                    ? List.of()
+                    : List.copyOf(teamMemberRepository.findTeamIdsByUserId(user.getId()));
+            return new Subject(user, teamIds);
+        });
+    }
+
+    public boolean canAccess(String username, Long taskId, Long ownerId, Long claimerId) {
+        Subject subject = subject(username);
+        if (subject.admin()
+                || subject.user().getId().equals(ownerId)
+                || subject.user().getId().equals(claimerId)) {
+            return true;
+        }
+        return cached("task:" + username + ":" + taskId,
+                () -> taskAclRepository.hasAccess(taskId, subject.user().getId(), subject.teamIds()));
+    }
+
+    // архивная задача видна владельцу и тем, у кого был доступ на момент архивирования
+    public boolean canAccessArchived(String username, Long taskId, Long ownerId) {
+        Subject subject = subject(username);
+        if (subject.admin() || subject.user().getId().equals(ownerId)) {
+            return true;
+        }
+        return cached("archived:" + username + ":" + taskId,
+                () -> archivedTaskRepository.hasViewer(taskId, subject.user().getId(),
+                        subject.teamIds().toArray(Long[]::new)));
+    }
+
+    // проверка по легкой проекции без загрузки задачи; версия нужна вызывающим для ETag
+    public TaskVersionView requireAccess(Long taskId, String username) {
+        TaskVersionView task = taskRepository.findVersionById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " not found"));
+
+        if (!canAccess(username, taskId, task.getOwnerId(), task.getClaimerId())) {
+            throw new AccessDeniedException("You are not allowed to this task");
+        }
+        return task;
+    }
+
+    // для чтения: задача могла уйти в архив, тогда права проверяются по архиву; изменения идут через requireAccess
+    public TaskVersionView requireReadAccess(Long taskId, String username) {
+        TaskVersionView task = taskRepository.findVersionById(taskId).orElse(null);
+        if (task != null) {
+            if (!canAccess(username, taskId, task.getOwnerId(), task.getClaimerId())) {
+                throw new AccessDeniedException("You are not allowed to this task");
+            }
+            return task;
+        }
+
+        TaskVersionView archived = archivedTaskRepository.findVersionById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " not found"));
+        if (!canAccessArchived(username, taskId, archived.getOwnerId())) {
+            throw new AccessDeniedException("You are not allowed to this task");
+        }
+        return archived;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cached(String key, Supplier<T> loader) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return loader.get();
+        }
+        Object value = attributes.getAttribute(ATTRIBUTE_PREFIX + key, RequestAttributes.SCOPE_REQUEST);
+        if (value == null) {
+            value = Objects.requireNonNull(loader.get());
+            attributes.setAttribute(ATTRIBUTE_PREFIX + key, value, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (T) value;
+    }
+
+    public record Subject(User user, List<Long> teamIds) {
+
+        public boolean admin() {
+            return user.getRole() == RoleType.ROLE_ADMIN;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.TaskActivity;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+// записи истории копятся в буфере текущей транзакции и вставляются одним JDBC-пакетом перед коммитом:
+// изменение задачи не получает лишних обращений к БД, а при откате история не пишется вовсе
+@Component
+@RequiredArgsConstructor
+public class TaskActivityLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskActivityLog.class);
+
+    private static final String INSERT_SQL = "INSERT INTO task_activity (task_id, kind, status, actor, body, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void append(TaskActivity activity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(activity));
+            return;
+        }
+        Buffer buffer = (Buffer) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            buffer = new Buffer();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(buffer);
+        }
+        buffer.entries.add(activity);
+    }
+
+    private void insert(List<TaskActivity> entries) {
+        logger.debug("Запись {} событий истории задач", entries.size());
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, activity) -> {
+            ps.setLong(1, activity.getTaskId());
+            ps.setString(2, activity.getKind().name());
+            ps.setString(3, activity.getStatus() != null ? activity.getStatus().name() : null);
+            ps.setString(4, activity.getActor());
+            ps.setString(5, activity.getBody());
+            ps.setTimestamp(6, Timestamp.valueOf(activity.getCreatedAt()));
+        });
+    }
+
+    private class Buffer implements TransactionSynchronization {
+
+        private final List<TaskActivity> entries = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!entries.isEmpty()) {
+                insert(entries);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TaskActivityLog.this);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskActivityDto;
+import com.example.taskmanager.dto.TaskActivityResponse;
+import com.example.taskmanager.entity.TaskActivity;
+import com.example.taskmanager.entity.TaskActivityKind;
+import com.example.taskmanager.repository.TaskActivityRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TaskActivityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskActivityService.class);
+
+    private final TaskActivityRepository taskActivityRepository;
+    private final TaskActivityLog taskActivityLog;
+    private final TaskAccessResolver taskAccessResolver;
+
+    public TaskActivityResponse findActivity(Long taskId, String before, int limit, String username) {
+        logger.debug("Получение истории задачи с id={} пользователем={}, курсор={}", taskId, username, before);
+
+        taskAccessResolver.requireReadAccess(taskId, username);
+
+        // запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+        List<TaskActivity> entries;
+        if (before == null || before.isBlank()) {
+            entries = taskActivityRepository.findLatest(taskId, limit + 1);
+        } else {
+            PageCursor cursor = PageCursor.decode(before);
+            entries = taskActivityRepository.findBefore(taskId, cursor.time(), cursor.id(), limit + 1);
+        }
+
+        boolean hasMore = entries.size() > limit;
+        List<TaskActivity> page = hasMore ? entries.subList(0, limit) : entries;
+        String next = null;
+        if (hasMore) {
+            TaskActivity last = page.get(page.size() - 1);
+            next = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new TaskActivityResponse(page.stream().map(TaskActivityService::toDto).toList(), next);
+    }
+
+    @Transactional
+    public TaskActivityDto addComment(Long taskId, String body, String username) {
+        logger.info("Комментарий к задаче с id={} от пользователя={}", taskId, username);
+
+        taskAccessResolver.requireAccess(taskId, username);
+
+        TaskActivity comment = TaskActivity.builder()
+                .taskId(taskId)
+                .kind(TaskActivityKind.COMMENTED)
+                .actor(username)
+                .body(body)
+                .createdAt(LocalDateTime.now())
+                .build();
+        taskActivityLog.append(comment);
+        return toDto(comment);
+    }
+
+    private static TaskActivityDto toDto(TaskActivity activity) {
+        return new TaskActivityDto(activity.getKind(), activity.getStatus(), activity.getActor(), activity.getBody(),
+                activity.getCreatedAt());
+    }
+}
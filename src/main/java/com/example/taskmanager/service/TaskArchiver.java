@@ -0,0 +1,103 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.TaskArchiveProperties;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.ArchivedTaskRepository;
+import com.example.taskmanager.repository.TaskChangeView;
+import com.example.taskmanager.scheduling.ClusterJob;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+// события ARCHIVED и UPDATED отвязанных подзадач пишутся в outbox в той же транзакции, что и перенос пачки
+@Service
+public class TaskArchiver implements ClusterJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchiver.class);
+
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskArchiveProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    public TaskArchiver(ArchivedTaskRepository archivedTaskRepository, ApplicationEventPublisher eventPublisher,
+                        TaskArchiveProperties properties, MeterRegistry meterRegistry,
+                        PlatformTransactionManager transactionManager) {
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String name() {
+        return "task-archive";
+    }
+
+    @Override
+    public Duration interval() {
+        return properties.interval();
+    }
+
+    @Override
+    public boolean enabled() {
+        return properties.enabled();
+    }
+
+    @Override
+    public boolean leaderOnly() {
+        return false;
+    }
+
+    // каждая пачка - отдельная короткая транзакция, за один запуск переносится не больше maxBatchesPerRun пачек
+    @Override
+    public void run() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.after());
+
+        int total = 0;
+        for (int i = 0; i < properties.maxBatchesPerRun(); i++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(before));
+            total += moved;
+            if (moved < properties.batchSize()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            meterRegistry.counter("task.archive.moved").increment(total);
+            logger.info("Перенесено в архив {} завершенных и отмененных задач", total);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime before) {
+        LocalDateTime now = LocalDateTime.now();
+        Instant occurredAt = now.atZone(ZoneId.systemDefault()).toInstant();
+        List<TaskChangeView> changes = archivedTaskRepository.archiveTerminalBatch(before, now,
+                properties.batchSize());
+
+        int moved = 0;
+        for (TaskChangeView change : changes) {
+            if (change.getChangeType() == TaskChangeType.ARCHIVED) {
+                moved++;
+            }
+            eventPublisher.publishEvent(TaskChangedEvent.of(change, occurredAt));
+        }
+        if (changes.size() > moved) {
+            logger.debug("При архивировании {} задач отвязано {} подзадач", moved, changes.size() - moved);
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskWithArchived;
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+final class TaskETags {
+
+    private TaskETags() {
+    }
+
+    static String forTask(Long version) {
+        return quote(String.valueOf(version == null ? 0 : version));
+    }
+
+    static String forPage(Page<Task> page) {
+        return forPage(page, Task::getId, Task::getVersion);
+    }
+
+    static String forArchivedPage(Page<TaskWithArchived> page) {
+        return forPage(page, TaskWithArchived::getId, TaskWithArchived::getVersion);
+    }
+
+    private static <T> String forPage(Page<T> page, Function<T, Long> id, Function<T, Long> version) {
+        StringBuilder source = new StringBuilder()
+                .append(page.getNumber()).append(':')
+                .append(page.getSize()).append(':')
+                .append(page.getTotalElements());
+
+        for (T task : page.getContent()) {
+            source.append('|').append(id.apply(task)).append('-').append(version.apply(task));
+        }
+
+        return quote(DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    static boolean matches(String ifMatch, Long version) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return true;
+        }
+        String current = forTask(version);
+        for (String candidate : ifMatch.split(",")) {
+            String eTag = candidate.trim();
+            // If-Match требует строгого сравнения, слабые ETag не подходят
+            if (eTag.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.TaskHierarchyProperties;
+import com.example.taskmanager.dto.SubtaskDto;
+import com.example.taskmanager.dto.TaskRollupResponse;
+import com.example.taskmanager.dto.TaskSubtreeResponse;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.exception.TaskHierarchyException;
+import com.example.taskmanager.exception.TaskNotFoundException;
+import com.example.taskmanager.repository.TaskHierarchyRepository;
+import com.example.taskmanager.repository.TaskNodeView;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskStatusCountView;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// права на корень проверяет TaskAccessResolver, подзадачи для пользователя без роли админа фильтруются
+// по task_acl прямо в рекурсивном запросе
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TaskHierarchyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskHierarchyService.class);
+
+    private final TaskRepository taskRepository;
+    private final TaskHierarchyRepository taskHierarchyRepository;
+    private final TaskAccessResolver taskAccessResolver;
+    private final TaskHierarchyProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TaskSubtreeResponse findSubtree(Long taskId, Integer maxDepth, String username) {
+        logger.debug("Получение подзадач задачи с id={} пользователем={}, глубина={}", taskId, username, maxDepth);
+
+        taskAccessResolver.requireAccess(taskId, username);
+        TaskAccessResolver.Subject subject = taskAccessResolver.subject(username);
+
+        // запрашиваем на одну подзадачу больше лимита, чтобы понять, обрезано ли дерево
+        int limit = properties.maxNodes();
+        List<TaskNodeView> nodes = subject.admin()
+                ? taskHierarchyRepository.findSubtree(taskId, depth(maxDepth), limit + 1)
+                : taskHierarchyRepository.findVisibleSubtree(taskId, depth(maxDepth), limit + 1,
+                        subject.user().getId(), subject.teamIds().toArray(Long[]::new));
+        boolean truncated = nodes.size() > limit;
+        List<TaskNodeView> page = truncated ? nodes.subList(0, limit) : nodes;
+        if (truncated) {
+            logger.warn("Дерево задачи с id={} больше {} подзадач, ответ обрезан", taskId, limit);
+        }
+        return new TaskSubtreeResponse(taskId, page.stream().map(TaskHierarchyService::toDto).toList(), truncated);
+    }
+
+    public TaskRollupResponse findRollup(Long taskId, Integer maxDepth, String username) {
+        logger.debug("Подсчет подзадач задачи с id={} пользователем={}, глубина={}", taskId, username, maxDepth);
+
+        taskAccessResolver.requireAccess(taskId, username);
+        TaskAccessResolver.Subject subject = taskAccessResolver.subject(username);
+        List<TaskStatusCountView> rows = subject.admin()
+                ? taskHierarchyRepository.countSubtreeByStatus(taskId, depth(maxDepth))
+                : taskHierarchyRepository.countVisibleSubtreeByStatus(taskId, depth(maxDepth),
+                        subject.user().getId(), subject.teamIds().toArray(Long[]::new));
+
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, 0L);
+        }
+        long total = 0;
+        for (TaskStatusCountView row : rows) {
+            counts.put(row.getStatus(), row.getTaskCount());
+            total += row.getTaskCount();
+        }
+        return new TaskRollupResponse(taskId, counts, total);
+    }
+
+    @Transactional
+    public void setParent(Long taskId, Long parentId, String username) {
+        logger.info("Перенос задачи с id={} под задачу с id={} админом={}", taskId, parentId, username);
+
+        // перестановки выполняются по очереди: две одновременные перестановки A под B и B под A
+        // по отдельности проходят проверку, но вместе замкнули бы цикл
+        taskHierarchyRepository.lockHierarchy(properties.lockKey());
+
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " not found"));
+        if (Objects.equals(task.getParentId(), parentId)) {
+            return;
+        }
+
+        Long parentUserId = null;
+        if (parentId != null) {
+            Task parent = taskRepository.findById(parentId)
+                    .orElseThrow(() -> new TaskNotFoundException("Task with id " + parentId + " not found"));
+            if (taskHierarchyRepository.isAncestorOrSelf(taskId, parentId)) {
+                throw new TaskHierarchyException("Task " + parentId + " is a subtask of task " + taskId
+                        + ", moving would create a cycle");
+            }
+            parentUserId = parent.getUser().getId();
+        }
+
+        task.setParentId(parentId);
+        task.setParentUserId(parentUserId);
+        taskRepository.flush();
+        eventPublisher.publishEvent(TaskChangedEvent.of(task, TaskChangeType.UPDATED));
+    }
+
+    private int depth(Integer maxDepth) {
+        return maxDepth == null ? properties.maxDepth() : Math.min(maxDepth, properties.maxDepth());
+    }
+
+    private static SubtaskDto toDto(TaskNodeView node) {
+        return new SubtaskDto(node.getId(), node.getParentId(), node.getDepth(), node.getTitle(), node.getStatus(),
+                TaskPriority.fromCode(node.getPriorityCode()), node.getDueAt());
+    }
+}
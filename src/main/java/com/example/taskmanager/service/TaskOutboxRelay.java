@@ -0,0 +1,68 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.TaskOutboxProperties;
+import com.example.taskmanager.entity.TaskOutboxEvent;
+import com.example.taskmanager.repository.TaskOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class TaskOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskOutboxRelay.class);
+
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TaskOutboxProperties properties;
+
+    @Scheduled(fixedDelayString = "${task.outbox.poll-interval:1s}")
+    @Transactional
+    public void relay() {
+        List<TaskOutboxEvent> batch = taskOutboxRepository.lockUnpublishedBatch(properties.batchSize());
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        logger.debug("Публикация {} событий из outbox в stream {}", batch.size(), properties.streamKey());
+
+        // при ошибке Redis транзакция откатится и события будут отправлены повторно (at-least-once)
+        XAddOptions options = XAddOptions.maxlen(properties.streamMaxLength()).approximateTrimming(true);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (TaskOutboxEvent event : batch) {
+                stringConnection.xAdd(StreamRecords.string(Map.of(
+                                "id", String.valueOf(event.getId()),
+                                "taskId", String.valueOf(event.getTaskId()),
+                                "type", event.getEventType().name(),
+                                "payload", event.getPayload()))
+                        .withStreamKey(properties.streamKey()), options);
+            }
+            return null;
+        });
+
+        taskOutboxRepository.markPublished(batch.stream().map(TaskOutboxEvent::getId).toList(), LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${task.outbox.cleanup-interval:1h}")
+    @Transactional
+    public void cleanup() {
+        int deleted = taskOutboxRepository.deletePublishedBefore(LocalDateTime.now().minus(properties.retention()));
+        if (deleted > 0) {
+            logger.info("Удалено {} опубликованных событий из outbox", deleted);
+        }
+    }
+}
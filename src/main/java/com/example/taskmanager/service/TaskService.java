@@ -1,23 +1,48 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.config.TaskTagProperties;
+import com.example.taskmanager.dto.ClaimedTaskDto;
+import com.example.taskmanager.dto.ETagged;
+import com.example.taskmanager.dto.TaskAssigneesDto;
 import com.example.taskmanager.dto.TaskRequestDto;
 import com.example.taskmanager.dto.TaskResponseDto;
 import com.example.taskmanager.dto.TaskStatusUpdateRequest;
+import com.example.taskmanager.dto.TaskTaggedResponse;
 import com.example.taskmanager.entity.RoleType;
 import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskAccessKind;
+import com.example.taskmanager.entity.TaskAclEntry;
 import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.TaskTombstone;
+import com.example.taskmanager.entity.TaskWithArchived;
 import com.example.taskmanager.entity.User;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
 import com.example.taskmanager.exception.DataBaseOperationException;
+import com.example.taskmanager.exception.TaskClaimException;
 import com.example.taskmanager.exception.TaskNotFoundException;
+import com.example.taskmanager.exception.TaskVersionConflictException;
+import com.example.taskmanager.exception.TeamNotFoundException;
 import com.example.taskmanager.exception.UserNotFoundException;
 import com.example.taskmanager.mapper.TaskMapper;
+import com.example.taskmanager.repository.ArchivedTaskRepository;
+import com.example.taskmanager.repository.TaskAclRepository;
+import com.example.taskmanager.repository.TaskChangeView;
+import com.example.taskmanager.repository.TaskHierarchyRepository;
 import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskTagStatRepository;
+import com.example.taskmanager.repository.TaskTombstoneRepository;
+import com.example.taskmanager.repository.TaskVersionView;
+import com.example.taskmanager.repository.TaskWithArchivedRepository;
+import com.example.taskmanager.repository.TeamRepository;
 import com.example.taskmanager.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
@@ -25,9 +50,14 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 @RequiredArgsConstructor
@@ -39,50 +69,177 @@ public class TaskService {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final TaskMapper taskMapper;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadCoalescer readCoalescer;
+    private final TaskWithArchivedRepository taskWithArchivedRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskAccessResolver taskAccessResolver;
+    private final TaskAclRepository taskAclRepository;
+    private final TeamRepository teamRepository;
+    private final TaskHierarchyRepository taskHierarchyRepository;
+    private final TaskTagStatRepository taskTagStatRepository;
+    private final TaskTagProperties taskTagProperties;
 
     public Page<TaskResponseDto> findByStatus(TaskStatus status, String username, Pageable pageable) {
-        logger.debug("Поиск задачи по статусу: {}", status);
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException(username));
+        return findByStatusWithETag(status, username, pageable).body();
+    }
 
-        Page<Task> tasks;
+    public ETagged<Page<TaskResponseDto>> findByStatusWithETag(TaskStatus status, String username, Pageable pageable) {
+        return findByStatusWithETag(status, username, pageable, false);
+    }
 
-        if (user.getRole().equals(RoleType.ROLE_ADMIN)) {
-            tasks = taskRepository.findByStatus(status, pageable);
-        } else {
-            tasks = taskRepository.findByStatusAndUser(status, user, pageable);
+    public ETagged<Page<TaskResponseDto>> findByStatusWithETag(TaskStatus status, String username, Pageable pageable,
+                                                               boolean includeArchived) {
+        logger.debug("Поиск задачи по статусу: {}, включая архив: {}", status, includeArchived);
+
+        TaskAccessResolver.Subject subject = taskAccessResolver.subject(username);
+        User user = subject.user();
+
+        if (includeArchived) {
+            return readCoalescer.execute("tasks-by-status-with-archived", visibilityScope(user), () -> {
+                Page<TaskWithArchived> tasks = subject.admin()
+                        ? taskWithArchivedRepository.findByStatus(status, pageable)
+                        : taskWithArchivedRepository.findVisibleByStatus(status, user.getId(), subject.teamIds(),
+                                subject.teamIds().toArray(Long[]::new), pageable);
+                return new ETagged<>(tasks.map(taskMapper::mapToDto), TaskETags.forArchivedPage(tasks));
+            }, status, pageable);
         }
 
-        return tasks.map(taskMapper::mapToDto);
+        return readCoalescer.execute("tasks-by-status", visibilityScope(user), () -> {
+            Page<Task> tasks = subject.admin()
+                    ? taskRepository.findByStatus(status, pageable)
+                    : taskRepository.findVisibleByStatus(status, user.getId(), subject.teamIds(), pageable);
+            return new ETagged<>(tasks.map(taskMapper::mapToDto), TaskETags.forPage(tasks));
+        }, status, pageable);
     }
 
     public Page<TaskResponseDto> findTasksForCurrentUser(Pageable pageable) {
-        logger.debug("Поиск задачи для текущего пользователя");
+        return findTasksForCurrentUserWithETag(pageable).body();
+    }
+
+    public ETagged<Page<TaskResponseDto>> findTasksForCurrentUserWithETag(Pageable pageable) {
+        return findTasksForCurrentUserWithETag(pageable, false);
+    }
+
+    public ETagged<Page<TaskResponseDto>> findTasksForCurrentUserWithETag(Pageable pageable, boolean includeArchived) {
+        logger.debug("Поиск задачи для текущего пользователя, включая архив: {}", includeArchived);
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        TaskAccessResolver.Subject subject = taskAccessResolver.subject(username);
+        User user = subject.user();
+
+        if (includeArchived) {
+            return readCoalescer.execute("tasks-of-user-with-archived", visibilityScope(user), () -> {
+                Page<TaskWithArchived> tasks = subject.admin()
+                        ? taskWithArchivedRepository.findAll(pageable)
+                        : taskWithArchivedRepository.findVisible(user.getId(), subject.teamIds(),
+                                subject.teamIds().toArray(Long[]::new), pageable);
+                return new ETagged<>(tasks.map(taskMapper::mapToDto), TaskETags.forArchivedPage(tasks));
+            }, pageable);
+        }
 
-        Page<Task> tasks;
+        return readCoalescer.execute("tasks-of-user", visibilityScope(user), () -> {
+            Page<Task> tasks = subject.admin()
+                    ? taskRepository.findAll(pageable)
+                    : taskRepository.findVisible(user.getId(), subject.teamIds(), pageable);
+            return new ETagged<>(tasks.map(taskMapper::mapToDto), TaskETags.forPage(tasks));
+        }, pageable);
+    }
 
-        if (user.getRole() == RoleType.ROLE_ADMIN) {
-            tasks = taskRepository.findAll(pageable);
+    public TaskTaggedResponse findByTags(Collection<String> tags, String after, int limit, String username) {
+        List<String> normalized = TaskTags.normalize(tags);
+        logger.debug("Поиск задач с тегами {} для пользователя={}, курсор={}", normalized, username, after);
+
+        TaskAccessResolver.Subject subject = taskAccessResolver.subject(username);
+        PageCursor cursor = after == null || after.isBlank() ? PageCursor.START : PageCursor.decode(after);
+        String[] tagArray = normalized.toArray(String[]::new);
+
+        // для частого тега GIN отдает все его задачи, и их пришлось бы сортировать на каждой странице
+        boolean frequent = taskTagStatRepository.findRarestTagCount(tagArray) > taskTagProperties.rareThreshold();
+        Long[] teamIds = subject.teamIds().toArray(Long[]::new);
+
+        // запрашиваем на одну задачу больше, чтобы понять, есть ли следующая страница
+        List<Task> tasks;
+        PageCursor scannedUntil = null;
+        if (subject.admin() && frequent) {
+            int scanLimit = taskTagProperties.scanLimit();
+            tasks = taskRepository.findTaggedByScanAfter(tagArray, cursor.time(), cursor.id(), scanLimit, limit + 1);
+            if (tasks.size() <= limit) {
+                // окно обхода кончилось раньше, чем набралась страница: клиент продолжит с его конца
+                scannedUntil = taskRepository.findKeyAfter(cursor.time(), cursor.id(), scanLimit - 1)
+                        .map(key -> new PageCursor(key.getCreatedAt(), key.getId()))
+                        .orElse(null);
+            }
+        } else if (subject.admin()) {
+            tasks = taskRepository.findTaggedAfter(tagArray, cursor.time(), cursor.id(), limit + 1);
+        } else if (frequent) {
+            tasks = taskRepository.findVisibleTaggedByAclAfter(tagArray, subject.user().getId(), teamIds,
+                    cursor.time(), cursor.id(), limit + 1);
         } else {
-            tasks = taskRepository.findAllByUserUsername(username, pageable);
+            tasks = taskRepository.findVisibleTaggedAfter(tagArray, subject.user().getId(), teamIds,
+                    cursor.time(), cursor.id(), limit + 1);
         }
 
-        return tasks.map(taskMapper::mapToDto);
+        boolean hasMore = tasks.size() > limit;
+        List<Task> page = hasMore ? tasks.subList(0, limit) : tasks;
+        String next = null;
+        if (hasMore) {
+            Task last = page.get(page.size() - 1);
+            next = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        } else if (scannedUntil != null) {
+            next = scannedUntil.encode();
+        }
+        return new TaskTaggedResponse(page.stream().map(taskMapper::mapToDto).toList(), next);
     }
 
-    public TaskResponseDto findByIdAndUsername(Long id, String username) {
-        logger.debug("Поиск задачи по id={} и username пользователя={}", id, username);
+    public List<TaskResponseDto> findDueTasks(String username, int limit) {
+        logger.debug("Поиск ближайших {} задач по сроку для пользователя={}", limit, username);
 
-        return Optional.of(findTaskByUsername(id, username))
+        TaskAccessResolver.Subject subject = taskAccessResolver.subject(username);
+
+        Pageable firstN = PageRequest.of(0, limit);
+        List<Task> tasks = subject.admin()
+                ? taskRepository.findDue(firstN)
+                : taskRepository.findVisibleDue(subject.user().getId(), subject.teamIds(), firstN);
+        return tasks.stream()
                 .map(taskMapper::mapToDto)
-                .orElseThrow(() -> new TaskNotFoundException("Task with id " + id + " not found"));
+                .toList();
+    }
+
+    public TaskResponseDto findByIdAndUsername(Long id, String username) {
+        return findByIdAndUsernameWithETag(id, username).body();
+    }
+
+    public ETagged<TaskResponseDto> findByIdAndUsernameWithETag(Long id, String username) {
+        logger.debug("Поиск задачи с ETag по id={} и username пользователя={}", id, username);
+
+        // загрузка не зависит от пользователя, права проверяются для каждого запроса отдельно
+        // архивная задача только читается и отдается, если ее нет в горячей таблице
+        TaskSnapshot snapshot = readCoalescer.execute("task-by-id", "any", () -> taskRepository.findById(id)
+                .map(task -> new TaskSnapshot(taskMapper.mapToDto(task), task.getVersion(), task.getUser().getId(),
+                        claimerId(task), false))
+                .or(() -> archivedTaskRepository.findById(id)
+                        .map(task -> new TaskSnapshot(taskMapper.mapToDto(task), task.getVersion(),
+                                task.getUser().getId(), null, true)))
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + id + " not found")), id);
+
+        boolean allowed = snapshot.archived()
+                ? taskAccessResolver.canAccessArchived(username, id, snapshot.ownerId())
+                : taskAccessResolver.canAccess(username, id, snapshot.ownerId(), snapshot.claimerId());
+        if (!allowed) {
+            throw new AccessDeniedException("You are not allowed to this task");
+        }
+        return new ETagged<>(snapshot.task(), TaskETags.forTask(snapshot.version()));
+    }
+
+    public String findTaskETag(Long id, String username) {
+        logger.debug("Получение ETag задачи с id={} для пользователя={}", id, username);
+
+        TaskVersionView version = taskAccessResolver.requireReadAccess(id, username);
+        return TaskETags.forTask(version.getVersion());
     }
 
     @Transactional
@@ -94,39 +251,90 @@ public class TaskService {
 
         var task = taskMapper.mapToEntity(taskRequestDto);
         task.setUser(user);
+        if (taskRequestDto.getTags() != null) {
+            task.setTags(TaskTags.normalize(taskRequestDto.getTags()));
+        }
 
         try {
             taskRepository.save(task);
+            taskAclRepository.save(TaskAclEntry.owner(task));
+            eventPublisher.publishEvent(TaskChangedEvent.of(task, TaskChangeType.CREATED));
             return taskMapper.mapToDto(task);
         } catch (DataAccessException e) {
             throw new DataBaseOperationException("Failed to create task", e);
         }
     }
 
+    @Transactional
+    public List<ClaimedTaskDto> claim(TaskStatus status, int limit, String username) {
+        logger.info("Захват до {} задач в статусе {} пользователем={}", limit, status, username);
+
+        if (status != TaskStatus.PENDING) {
+            throw new TaskClaimException("Only PENDING tasks can be claimed, got " + status);
+        }
+
+        TaskAccessResolver.Subject subject = taskAccessResolver.subject(username);
+        User user = subject.user();
+
+        // админ разбирает общую очередь, остальные - только задачи, которые им видны
+        List<Task> tasks = subject.admin()
+                ? taskRepository.lockPendingForClaim(limit)
+                : taskRepository.lockVisiblePendingForClaim(user.getId(), subject.teamIds().toArray(Long[]::new),
+                        limit);
+        LocalDateTime claimedAt = LocalDateTime.now();
+        for (Task task : tasks) {
+            task.setStatus(TaskStatus.IN_PROGRESS);
+            task.setClaimedBy(user);
+            task.setClaimedAt(claimedAt);
+        }
+        // версия и updatedAt должны обновиться до формирования событий
+        taskRepository.flush();
+
+        List<ClaimedTaskDto> claimed = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            eventPublisher.publishEvent(TaskChangedEvent.of(task, TaskChangeType.UPDATED));
+            claimed.add(new ClaimedTaskDto(task.getId(), claimedAt, taskMapper.mapToDto(task)));
+        }
+        return claimed;
+    }
+
     @Transactional
     public TaskResponseDto updateOwnTaskStatus(Long taskId, TaskStatusUpdateRequest request, String username) {
+        return updateOwnTaskStatus(taskId, request, username, null).body();
+    }
+
+    @Transactional
+    public ETagged<TaskResponseDto> updateOwnTaskStatus(Long taskId, TaskStatusUpdateRequest request, String username,
+                                                        String ifMatch) {
         logger.info("Обновление статуса задачи с id={} пользователем={}", taskId, username);
 
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " not found"));
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-
-        if (!user.getRole().equals(RoleType.ROLE_ADMIN) && !task.getUser().getId().equals(user.getId())) {
+        if (!taskAccessResolver.canAccess(username, taskId, task.getUser().getId(), claimerId(task))) {
             throw new AccessDeniedException("You do not have permission to update this task");
         }
+        checkVersion(task, ifMatch);
 
         task.setStatus(request.status());
         Task updatedTask = taskRepository.save(task);
-        return taskMapper.mapToDto(updatedTask);
+        taskRepository.flush();
+        eventPublisher.publishEvent(TaskChangedEvent.of(updatedTask, TaskChangeType.UPDATED));
+        return new ETagged<>(taskMapper.mapToDto(updatedTask), TaskETags.forTask(updatedTask.getVersion()));
     }
 
     @Transactional
     public TaskResponseDto updateTaskByAdmin(Long id, TaskRequestDto taskRequestDto, String username) {
+        return updateTaskByAdmin(id, taskRequestDto, username, null).body();
+    }
+
+    @Transactional
+    public ETagged<TaskResponseDto> updateTaskByAdmin(Long id, TaskRequestDto taskRequestDto, String username,
+                                                      String ifMatch) {
         logger.info("Обновление задачи с id={} админом={}", id, username);
 
         var task = findTaskByUsername(id, username);
+        checkVersion(task, ifMatch);
 
         if (taskRequestDto.getTitle() != null) {
             task.setTitle(taskRequestDto.getTitle());
@@ -137,10 +345,23 @@ public class TaskService {
         if (taskRequestDto.getStatus() != null) {
             task.setStatus(taskRequestDto.getStatus());
         }
+        if (Boolean.TRUE.equals(taskRequestDto.getClearDueAt())) {
+            task.setDueAt(null);
+        } else if (taskRequestDto.getDueAt() != null) {
+            task.setDueAt(taskRequestDto.getDueAt());
+        }
+        if (taskRequestDto.getPriority() != null) {
+            task.setPriority(taskRequestDto.getPriority());
+        }
+        if (taskRequestDto.getTags() != null) {
+            task.setTags(TaskTags.normalize(taskRequestDto.getTags()));
+        }
 
         var savedTask = taskRepository.save(task);
+        taskRepository.flush();
+        eventPublisher.publishEvent(TaskChangedEvent.of(savedTask, TaskChangeType.UPDATED));
 
-        return taskMapper.mapToDto(savedTask);
+        return new ETagged<>(taskMapper.mapToDto(savedTask), TaskETags.forTask(savedTask.getVersion()));
     }
 
     @Transactional
@@ -149,7 +370,56 @@ public class TaskService {
 
         Task task = findTaskByUsername(id, username);
 
+        // подзадачи становятся корневыми: отвязываем их явно, чтобы новый parentId дошел до синхронизации и SSE
+        LocalDateTime now = LocalDateTime.now();
+        Instant occurredAt = now.atZone(ZoneId.systemDefault()).toInstant();
+        for (TaskChangeView change : taskHierarchyRepository.detachChildren(task.getUser().getId(), task.getId(), now)) {
+            eventPublisher.publishEvent(TaskChangedEvent.of(change, occurredAt));
+        }
+
         taskRepository.delete(task);
+        taskTombstoneRepository.save(TaskTombstone.builder()
+                .taskId(task.getId())
+                .userId(task.getUser().getId())
+                .build());
+        eventPublisher.publishEvent(TaskChangedEvent.of(task, TaskChangeType.DELETED));
+    }
+
+    public TaskAssigneesDto findAssignees(Long id, String username) {
+        logger.debug("Получение исполнителей задачи с id={} пользователем={}", id, username);
+
+        findTaskByUsername(id, username);
+        return toAssignees(taskAclRepository.findByTaskIdAndKind(id, TaskAccessKind.ASSIGNEE));
+    }
+
+    @Transactional
+    public TaskAssigneesDto replaceAssignees(Long id, TaskAssigneesDto assignees, String username) {
+        logger.info("Назначение исполнителей задачи с id={} админом={}: пользователи={}, команды={}",
+                id, username, assignees.userIds(), assignees.teamIds());
+
+        Task task = findTaskByUsername(id, username);
+
+        if (userRepository.findAllById(assignees.userIds()).size() != assignees.userIds().size()) {
+            throw new UserNotFoundException("Some of users " + assignees.userIds() + " not found");
+        }
+        if (teamRepository.findAllById(assignees.teamIds()).size() != assignees.teamIds().size()) {
+            throw new TeamNotFoundException("Some of teams " + assignees.teamIds() + " not found");
+        }
+
+        // набор исполнителей заменяется целиком; строка владельца не затрагивается, а сам владелец
+        // не дублируется среди исполнителей, у него уже есть доступ
+        taskAclRepository.deleteByTaskIdAndKind(id, TaskAccessKind.ASSIGNEE);
+        List<TaskAclEntry> entries = new ArrayList<>();
+        for (Long userId : assignees.userIds()) {
+            if (!userId.equals(task.getUser().getId())) {
+                entries.add(TaskAclEntry.assignee(task, userId, null));
+            }
+        }
+        for (Long teamId : assignees.teamIds()) {
+            entries.add(TaskAclEntry.assignee(task, null, teamId));
+        }
+        taskAclRepository.saveAll(entries);
+        return toAssignees(entries);
     }
 
     private Task findTaskByUsername(Long id, String username) {
@@ -158,17 +428,42 @@ public class TaskService {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new TaskNotFoundException("Task with id " + id + " not found"));
 
-        if (!task.getUser().getUsername().equals(username) && !isAdmin(username)) {
+        if (!taskAccessResolver.canAccess(username, id, task.getUser().getId(), claimerId(task))) {
             throw new AccessDeniedException("You are not allowed to this task");
         }
         return task;
     }
 
-    private boolean isAdmin(String username) {
-        logger.debug("Проверка на наличие роли admin у пользователя={}", username);
+    private void checkVersion(Task task, String ifMatch) {
+        if (!TaskETags.matches(ifMatch, task.getVersion())) {
+            logger.warn("Версия задачи с id={} не совпадает с If-Match={}", task.getId(), ifMatch);
+            throw new TaskVersionConflictException("Task with id " + task.getId() + " was modified, current version is "
+                    + TaskETags.forTask(task.getVersion()));
+        }
+    }
+
+    private static TaskAssigneesDto toAssignees(List<TaskAclEntry> entries) {
+        Set<Long> userIds = new TreeSet<>();
+        Set<Long> teamIds = new TreeSet<>();
+        for (TaskAclEntry entry : entries) {
+            if (entry.getUserId() != null) {
+                userIds.add(entry.getUserId());
+            } else {
+                teamIds.add(entry.getTeamId());
+            }
+        }
+        return new TaskAssigneesDto(userIds, teamIds);
+    }
+
+    private static Long claimerId(Task task) {
+        return task.getClaimedBy() != null ? task.getClaimedBy().getId() : null;
+    }
+
+    // администраторы видят одни и те же задачи, поэтому делят результат между собой
+    private static String visibilityScope(User user) {
+        return user.getRole() == RoleType.ROLE_ADMIN ? "admin" : "user:" + user.getUsername();
+    }
 
-        return userRepository.findByUsername(username)
-                .map(user -> user.getRole() == RoleType.ROLE_ADMIN)
-                .orElse(false);
+    private record TaskSnapshot(TaskResponseDto task, Long version, Long ownerId, Long claimerId, boolean archived) {
     }
 }
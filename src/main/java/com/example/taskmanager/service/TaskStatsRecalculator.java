@@ -0,0 +1,51 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.TaskStatsProperties;
+import com.example.taskmanager.repository.TaskStatusStatRepository;
+import com.example.taskmanager.repository.TaskTagStatRepository;
+import com.example.taskmanager.scheduling.ClusterJob;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+@Service
+@RequiredArgsConstructor
+public class TaskStatsRecalculator implements ClusterJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStatsRecalculator.class);
+
+    private final TaskStatusStatRepository taskStatusStatRepository;
+    private final TaskTagStatRepository taskTagStatRepository;
+    private final TaskStatsProperties properties;
+
+    @Override
+    public String name() {
+        return "task-stats";
+    }
+
+    @Override
+    public Duration interval() {
+        return properties.interval();
+    }
+
+    @Override
+    public boolean enabled() {
+        return properties.enabled();
+    }
+
+    // полный пересчет по всем задачам: достаточно одного узла
+    @Override
+    public boolean leaderOnly() {
+        return true;
+    }
+
+    @Override
+    public void run() {
+        int removed = taskStatusStatRepository.recalculate();
+        int removedTags = taskTagStatRepository.recalculate();
+        logger.debug("Статистика задач пересчитана, удалено устаревших строк: {}, тегов: {}", removed, removedTags);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskStatsResponse;
+import com.example.taskmanager.entity.RoleType;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.TaskStatusStat;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.exception.UserNotFoundException;
+import com.example.taskmanager.repository.TaskStatusStatRepository;
+import com.example.taskmanager.repository.TaskStatusTotalView;
+import com.example.taskmanager.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TaskStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStatsService.class);
+
+    private final TaskStatusStatRepository taskStatusStatRepository;
+    private final UserRepository userRepository;
+
+    // читает предрассчитанную статистику, данные отстают от задач не больше чем на task.stats.interval
+    public TaskStatsResponse findStats(String username) {
+        logger.debug("Получение статистики задач для пользователя={}", username);
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException(username));
+
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, 0L);
+        }
+        LocalDateTime computedAt = null;
+
+        if (user.getRole() == RoleType.ROLE_ADMIN) {
+            for (TaskStatusTotalView total : taskStatusStatRepository.sumByStatus()) {
+                counts.put(total.getStatus(), total.getTaskCount());
+                computedAt = latest(computedAt, total.getComputedAt());
+            }
+        } else {
+            for (TaskStatusStat stat : taskStatusStatRepository.findByUserId(user.getId())) {
+                counts.put(stat.getStatus(), stat.getTaskCount());
+                computedAt = latest(computedAt, stat.getComputedAt());
+            }
+        }
+        return new TaskStatsResponse(counts, computedAt);
+    }
+
+    private static LocalDateTime latest(LocalDateTime current, LocalDateTime candidate) {
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+}
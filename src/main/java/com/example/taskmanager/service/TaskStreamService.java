@@ -0,0 +1,177 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.TaskStreamProperties;
+import com.example.taskmanager.entity.RoleType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.exception.UserNotFoundException;
+import com.example.taskmanager.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class TaskStreamService implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStreamService.class);
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final TaskStreamProperties properties;
+    private final ExecutorService dispatchExecutor;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    public TaskStreamService(UserRepository userRepository, ObjectMapper objectMapper, TaskStreamProperties properties) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.dispatchExecutor = Executors.newFixedThreadPool(properties.dispatchThreads(),
+                new CustomizableThreadFactory("task-stream-"));
+    }
+
+    public SseEmitter subscribe(String username) {
+        boolean admin = userRepository.findByUsername(username)
+                .map(user -> user.getRole() == RoleType.ROLE_ADMIN)
+                .orElseThrow(() -> new UserNotFoundException(username));
+
+        SseEmitter emitter = createEmitter(properties.timeout().toMillis());
+        String id = UUID.randomUUID().toString();
+        Subscription subscription = new Subscription(id, username, admin, emitter, new ArrayBlockingQueue<>(properties.bufferSize()));
+
+        emitter.onCompletion(() -> subscriptions.remove(id));
+        emitter.onTimeout(() -> subscriptions.remove(id));
+        emitter.onError(e -> subscriptions.remove(id));
+        subscriptions.put(id, subscription);
+
+        logger.debug("Пользователь '{}' подписался на события задач, активных подписок: {}", username, subscriptions.size());
+        return emitter;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            dispatch(objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8), TaskChangedEvent.class));
+        } catch (IOException e) {
+            logger.warn("Не удалось прочитать событие задачи: {}", e.getMessage());
+        }
+    }
+
+    public void dispatch(TaskChangedEvent event) {
+        for (Subscription subscription : subscriptions.values()) {
+            if (!subscription.canSee(event)) {
+                continue;
+            }
+            if (!subscription.queue().offer(event)) {
+                // медленный клиент не должен копить события без ограничений, он переподключится и догонит через /tasks/changes
+                logger.warn("Буфер подписки пользователя '{}' переполнен, соединение закрывается", subscription.username());
+                close(subscription);
+                continue;
+            }
+            scheduleDrain(subscription);
+        }
+    }
+
+    // общий поток @Scheduled только отмечает подписки, а отправка идет через очередь подписки на dispatchExecutor:
+    // медленный клиент не задерживает остальные задачи по расписанию, и heartbeat не пишется в emitter параллельно событиям
+    @Scheduled(fixedRateString = "${task.stream.heartbeat-interval:15s}")
+    public void sendHeartbeats() {
+        for (Subscription subscription : subscriptions.values()) {
+            subscription.heartbeatPending().set(true);
+            scheduleDrain(subscription);
+        }
+    }
+
+    public int activeSubscriptions() {
+        return subscriptions.size();
+    }
+
+    protected SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(this::close);
+        dispatchExecutor.shutdownNow();
+    }
+
+    private void scheduleDrain(Subscription subscription) {
+        if (subscription.draining().compareAndSet(false, true)) {
+            try {
+                dispatchExecutor.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.draining().set(false);
+            }
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            boolean sent = false;
+            TaskChangedEvent event;
+            while ((event = subscription.queue().poll()) != null) {
+                subscription.emitter().send(SseEmitter.event()
+                        .name("task")
+                        .id(String.valueOf(event.taskId()))
+                        .data(event));
+                sent = true;
+            }
+            // отправленное событие уже держит соединение живым, отдельный heartbeat нужен только простаивающей подписке
+            if (subscription.heartbeatPending().getAndSet(false) && !sent) {
+                subscription.emitter().send(SseEmitter.event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Подписка пользователя '{}' закрыта клиентом: {}", subscription.username(), e.getMessage());
+            close(subscription);
+        } finally {
+            subscription.draining().set(false);
+        }
+        if (subscriptions.containsKey(subscription.id())
+                && (!subscription.queue().isEmpty() || subscription.heartbeatPending().get())) {
+            scheduleDrain(subscription);
+        }
+    }
+
+    private void close(Subscription subscription) {
+        if (subscriptions.remove(subscription.id()) != null) {
+            subscription.queue().clear();
+            subscription.emitter().complete();
+        }
+    }
+
+    private record Subscription(String id,
+                                String username,
+                                boolean admin,
+                                SseEmitter emitter,
+                                BlockingQueue<TaskChangedEvent> queue,
+                                AtomicBoolean draining,
+                                AtomicBoolean heartbeatPending) {
+
+        Subscription(String id, String username, boolean admin, SseEmitter emitter, BlockingQueue<TaskChangedEvent> queue) {
+            this(id, username, admin, emitter, queue, new AtomicBoolean(), new AtomicBoolean());
+        }
+
+        // как и /tasks/changes, поток только по своим задачам: после него клиент догоняет пропущенное через ленту
+        boolean canSee(TaskChangedEvent event) {
+            return admin || username.equals(event.ownerUsername());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.TaskSyncProperties;
+import com.example.taskmanager.dto.TaskChangeDto;
+import com.example.taskmanager.dto.TaskChangesResponse;
+import com.example.taskmanager.entity.RoleType;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskTombstone;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.exception.UserNotFoundException;
+import com.example.taskmanager.mapper.TaskMapper;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskTombstoneRepository;
+import com.example.taskmanager.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TaskSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSyncService.class);
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final UserRepository userRepository;
+    private final TaskMapper taskMapper;
+    private final TaskSyncProperties properties;
+
+    public TaskChangesResponse findChangesSince(String since, int limit, String username) {
+        logger.debug("Поиск изменений задач для пользователя={} с токеном={}", username, since);
+
+        SyncWatermark watermark = SyncWatermark.decode(since);
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException(username));
+
+        // лента только по своим задачам, без task_acl: tombstone хранит лишь владельца, и исполнитель не узнал бы
+        // об удалении, архивировании или снятии назначения общей задачи, оставив у себя устаревшую копию
+        // запрашиваем на одну запись больше, чтобы узнать, остались ли еще изменения
+        Pageable window = PageRequest.ofSize(limit + 1);
+        boolean admin = user.getRole() == RoleType.ROLE_ADMIN;
+
+        List<Task> changed = admin
+                ? taskRepository.findChangedSince(watermark.taskUpdatedAt(), watermark.taskId(), window)
+                : taskRepository.findChangedSinceByUserId(user.getId(), watermark.taskUpdatedAt(), watermark.taskId(), window);
+
+        List<TaskTombstone> deleted = admin
+                ? taskTombstoneRepository.findDeletedSince(watermark.deletedAt(), watermark.tombstoneId(), window)
+                : taskTombstoneRepository.findDeletedSinceByUserId(user.getId(), watermark.deletedAt(), watermark.tombstoneId(), window);
+
+        boolean changedMore = changed.size() > limit;
+        boolean deletedMore = deleted.size() > limit;
+        changed = changed.subList(0, Math.min(limit, changed.size()));
+        deleted = deleted.subList(0, Math.min(limit, deleted.size()));
+
+        // updated_at и deleted_at берутся при flush, а видны после коммита: транзакция, начавшаяся раньше,
+        // может зафиксироваться позже и оказаться позади уже выданного водяного знака. Поэтому знак не продвигается
+        // дальше settled, а более свежие записи отдаются и при следующем запросе - клиент применяет их повторно
+        LocalDateTime settled = LocalDateTime.now().minus(properties.commitGrace());
+        int settledChanged = countSettled(changed, Task::getUpdatedAt, settled);
+        int settledDeleted = countSettled(deleted, TaskTombstone::getDeletedAt, settled);
+
+        SyncWatermark next = watermark;
+        if (settledChanged > 0) {
+            Task last = changed.get(settledChanged - 1);
+            next = next.withTask(last.getUpdatedAt(), last.getId());
+        }
+        if (settledDeleted > 0) {
+            TaskTombstone last = deleted.get(settledDeleted - 1);
+            next = next.withTombstone(last.getDeletedAt(), last.getId());
+        }
+
+        // следующая страница есть, только если знак продвинулся до конца текущей, иначе клиент получил бы ее снова
+        boolean hasMore = changedMore && settledChanged == limit || deletedMore && settledDeleted == limit;
+
+        logger.debug("Найдено изменений: {}, удалений: {}, hasMore={}", changed.size(), deleted.size(), hasMore);
+
+        return new TaskChangesResponse(
+                changed.stream()
+                        .map(task -> new TaskChangeDto(task.getId(), task.getUpdatedAt(), taskMapper.mapToDto(task)))
+                        .toList(),
+                deleted.stream()
+                        .map(TaskTombstone::getTaskId)
+                        .toList(),
+                next.encode(),
+                hasMore);
+    }
+
+    // записи идут по возрастанию времени, поэтому устоявшиеся образуют начало списка
+    private static <T> int countSettled(List<T> page, Function<T, LocalDateTime> time, LocalDateTime settled) {
+        int count = 0;
+        while (count < page.size() && !time.apply(page.get(count)).isAfter(settled)) {
+            count++;
+        }
+        return count;
+    }
+}
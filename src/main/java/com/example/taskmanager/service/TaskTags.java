@@ -0,0 +1,20 @@
+package com.example.taskmanager.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+// теги сравниваются без учета регистра: в БД и в фильтре они всегда в нижнем регистре, без повторов и по алфавиту
+final class TaskTags {
+
+    private TaskTags() {
+    }
+
+    static List<String> normalize(Collection<String> tags) {
+        return tags.stream()
+                .map(tag -> tag.toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TeamRequestDto;
+import com.example.taskmanager.dto.TeamResponseDto;
+import com.example.taskmanager.entity.Team;
+import com.example.taskmanager.entity.TeamMember;
+import com.example.taskmanager.exception.TeamAlreadyExistsException;
+import com.example.taskmanager.exception.TeamNotFoundException;
+import com.example.taskmanager.exception.UserNotFoundException;
+import com.example.taskmanager.repository.TeamMemberRepository;
+import com.example.taskmanager.repository.TeamRepository;
+import com.example.taskmanager.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TeamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeamService.class);
+
+    private final TeamRepository teamRepository;
+    private final TeamMemberRepository teamMemberRepository;
+    private final UserRepository userRepository;
+
+    public TeamResponseDto findById(Long id) {
+        logger.debug("Поиск команды с id={}", id);
+
+        Team team = findTeam(id);
+        return toDto(team);
+    }
+
+    @Transactional
+    public TeamResponseDto create(TeamRequestDto teamRequestDto) {
+        logger.info("Создание команды '{}'", teamRequestDto.name());
+
+        if (teamRepository.existsByName(teamRequestDto.name())) {
+            throw new TeamAlreadyExistsException("Team " + teamRequestDto.name() + " already exists");
+        }
+        Team team = teamRepository.save(Team.builder().name(teamRequestDto.name()).build());
+        return new TeamResponseDto(team.getId(), team.getName(), List.of());
+    }
+
+    @Transactional
+    public TeamResponseDto addMember(Long teamId, Long userId) {
+        logger.info("Добавление пользователя с id={} в команду с id={}", userId, teamId);
+
+        Team team = findTeam(teamId);
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User with id " + userId + " not found");
+        }
+        teamMemberRepository.save(new TeamMember(teamId, userId));
+        return toDto(team);
+    }
+
+    @Transactional
+    public TeamResponseDto removeMember(Long teamId, Long userId) {
+        logger.info("Удаление пользователя с id={} из команды с id={}", userId, teamId);
+
+        Team team = findTeam(teamId);
+        teamMemberRepository.deleteById(new TeamMember.Key(teamId, userId));
+        return toDto(team);
+    }
+
+    private Team findTeam(Long id) {
+        return teamRepository.findById(id)
+                .orElseThrow(() -> new TeamNotFoundException("Team with id " + id + " not found"));
+    }
+
+    private TeamResponseDto toDto(Team team) {
+        List<Long> memberIds = teamMemberRepository.findByTeamId(team.getId()).stream()
+                .map(TeamMember::getUserId)
+                .sorted()
+                .toList();
+        return new TeamResponseDto(team.getId(), team.getName(), memberIds);
+    }
+}
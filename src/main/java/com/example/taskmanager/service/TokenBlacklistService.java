@@ -1,8 +1,13 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.config.ResilienceProperties;
+import com.example.taskmanager.config.ResilienceProperties.BlacklistFailurePolicy;
+import com.example.taskmanager.exception.DependencyUnavailableException;
+import com.example.taskmanager.resilience.RedisGuard;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
@@ -15,6 +20,8 @@ public class TokenBlacklistService {
     private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
 
     private final StringRedisTemplate redisTemplate;
+    private final RedisGuard redisGuard;
+    private final ResilienceProperties resilienceProperties;
     private static final String BLACKLIST_PREFIX = "blacklist:";
 
     public void blacklistToken(String token, long ttlMillis) {
@@ -27,7 +34,18 @@ public class TokenBlacklistService {
     }
 
     public boolean isTokenBlacklisted(String token) {
-        boolean blacklisted = Boolean.TRUE.equals(redisTemplate.hasKey(BLACKLIST_PREFIX + token));
+        boolean blacklisted;
+        try {
+            blacklisted = redisGuard.call(() -> Boolean.TRUE.equals(redisTemplate.hasKey(BLACKLIST_PREFIX + token)));
+        } catch (DependencyUnavailableException | DataAccessException e) {
+            if (resilienceProperties.blacklistFailurePolicy() == BlacklistFailurePolicy.FAIL_OPEN) {
+                // отозванный токен может пройти до истечения срока действия, это осознанный компромисс политики
+                logger.warn("Blacklist недоступен, токен пропущен без проверки: {}", e.getMessage());
+                return false;
+            }
+            logger.warn("Blacklist недоступен, запрос отклонен: {}", e.getMessage());
+            throw new DependencyUnavailableException("Token blacklist is unavailable");
+        }
         logger.debug("Проверка токена на наличие в blacklist: {}, blacklisted={}", token, blacklisted);
         return blacklisted;
     }
@@ -4,14 +4,18 @@ import com.example.taskmanager.dto.UserRequestDto;
 import com.example.taskmanager.dto.UserResponseDto;
 import com.example.taskmanager.entity.RoleType;
 import com.example.taskmanager.entity.User;
+import com.example.taskmanager.event.TaskChangedEvent;
 import com.example.taskmanager.exception.UserNotFoundException;
 import com.example.taskmanager.mapper.UserMapper;
+import com.example.taskmanager.repository.TaskChangeView;
+import com.example.taskmanager.repository.TaskHierarchyRepository;
 import com.example.taskmanager.repository.TaskRepository;
 import com.example.taskmanager.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,6 +25,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -37,6 +44,8 @@ public class UserService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final TaskRepository taskRepository;
+    private final TaskHierarchyRepository taskHierarchyRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Page<UserResponseDto> findAll(Pageable pageable) {
         logger.debug("Поиск всех пользователей");
@@ -107,7 +116,15 @@ public class UserService {
     public void delete(Long id) {
         logger.info("Удаление пользователя с id={}", id);
 
-        taskRepository.deleteByUserId(id);
+        // чужие подзадачи удаляемых задач отвязываются явно, как в TaskService.delete
+        LocalDateTime now = LocalDateTime.now();
+        Instant occurredAt = now.atZone(ZoneId.systemDefault()).toInstant();
+        for (TaskChangeView change : taskHierarchyRepository.detachChildrenOfUser(id, now)) {
+            eventPublisher.publishEvent(TaskChangedEvent.of(change, occurredAt));
+        }
+
+        int deleted = taskRepository.deleteByUserIdWithTombstones(id, now);
+        logger.debug("Удалено задач пользователя с id={}: {}", id, deleted);
         var user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User with id " + id + " not found"));
 
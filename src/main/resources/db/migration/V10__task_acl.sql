@@ -0,0 +1,33 @@
+CREATE TABLE teams (
+                       id BIGSERIAL PRIMARY KEY,
+                       name VARCHAR(100) NOT NULL UNIQUE
+);
+
+CREATE TABLE team_members (
+                       team_id BIGINT NOT NULL REFERENCES teams(id) ON DELETE CASCADE,
+                       user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+                       PRIMARY KEY (team_id, user_id)
+);
+
+-- команды пользователя читаются при каждой проверке доступа
+CREATE INDEX idx_team_members_user ON team_members (user_id, team_id);
+
+CREATE TABLE task_acl (
+                       id BIGSERIAL PRIMARY KEY,
+                       task_id BIGINT NOT NULL,
+                       task_user_id BIGINT NOT NULL,
+                       user_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
+                       team_id BIGINT REFERENCES teams(id) ON DELETE CASCADE,
+                       kind VARCHAR(10) NOT NULL,
+                       FOREIGN KEY (task_user_id, task_id) REFERENCES tasks(user_id, id) ON DELETE CASCADE,
+                       CHECK ((user_id IS NULL) <> (team_id IS NULL))
+);
+
+-- списки задач: по пользователю и его командам через BitmapOr, затем в tasks по первичному ключу
+CREATE UNIQUE INDEX idx_task_acl_user ON task_acl (user_id, task_id) INCLUDE (task_user_id) WHERE user_id IS NOT NULL;
+CREATE UNIQUE INDEX idx_task_acl_team ON task_acl (team_id, task_id) INCLUDE (task_user_id) WHERE team_id IS NOT NULL;
+CREATE INDEX idx_task_acl_task ON task_acl (task_id);
+
+-- владелец получает доступ через ту же таблицу, чтобы видимость проверялась одним соединением
+INSERT INTO task_acl (task_id, task_user_id, user_id, kind)
+SELECT id, user_id, user_id, 'OWNER' FROM tasks;
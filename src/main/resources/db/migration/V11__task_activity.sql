@@ -0,0 +1,24 @@
+-- история задач и комментарии: строки только добавляются, связи с tasks нет,
+-- чтобы история переживала удаление и архивирование задачи
+CREATE TABLE task_activity (
+                       id BIGSERIAL PRIMARY KEY,
+                       task_id BIGINT NOT NULL,
+                       kind VARCHAR(20) NOT NULL,
+                       status VARCHAR(20),
+                       actor VARCHAR(50),
+                       body TEXT,
+                       created_at TIMESTAMP NOT NULL
+);
+
+-- лента задачи читается от новых записей к старым по ключу (created_at, id)
+CREATE INDEX idx_task_activity_task ON task_activity (task_id, created_at, id);
+
+CREATE FUNCTION task_activity_append_only() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'task_activity is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_activity_append_only
+    BEFORE UPDATE OR DELETE ON task_activity
+    FOR EACH ROW EXECUTE FUNCTION task_activity_append_only();
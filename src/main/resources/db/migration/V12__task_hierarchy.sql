@@ -0,0 +1,11 @@
+ALTER TABLE tasks ADD COLUMN parent_id BIGINT;
+ALTER TABLE tasks ADD COLUMN parent_user_id BIGINT;
+
+-- при удалении или архивировании родителя подзадачи становятся корневыми
+ALTER TABLE tasks ADD CONSTRAINT fk_tasks_parent
+    FOREIGN KEY (parent_user_id, parent_id) REFERENCES tasks (user_id, id) ON DELETE SET NULL;
+ALTER TABLE tasks ADD CONSTRAINT chk_tasks_parent
+    CHECK ((parent_id IS NULL) = (parent_user_id IS NULL));
+
+-- шаг рекурсивного обхода дерева: дети задачи по parent_id, по одному индексному поиску на секцию
+CREATE INDEX idx_tasks_parent ON tasks (parent_id) WHERE parent_id IS NOT NULL;
@@ -0,0 +1,10 @@
+ALTER TABLE tasks ADD COLUMN tags TEXT[] NOT NULL DEFAULT '{}';
+ALTER TABLE tasks_archive ADD COLUMN tags TEXT[] NOT NULL DEFAULT '{}';
+
+-- фильтр "все теги из списка" (tags @> ARRAY[...]): GIN пересекает списки задач по каждому тегу
+-- и отдает битовую карту строк, сами массивы читаются только для найденных строк
+CREATE INDEX idx_tasks_tags ON tasks USING GIN (tags);
+
+-- индекса по (created_at, id) намеренно нет: с ним планировщик для частых тегов идет по дате и проверяет теги
+-- строка за строкой, а на пересечении частых тегов без общих задач и в закешированном generic-плане
+-- просматривает всю таблицу; без него стоимость запроса ограничена числом задач с нужными тегами
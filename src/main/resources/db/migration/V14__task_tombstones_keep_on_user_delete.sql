@@ -0,0 +1,2 @@
+-- tombstone-записи удаленного пользователя нужны синхронизации админа, поэтому не удаляются каскадом вместе с ним
+ALTER TABLE task_tombstones DROP CONSTRAINT task_tombstones_user_id_fkey;
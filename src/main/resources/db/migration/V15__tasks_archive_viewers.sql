@@ -0,0 +1,7 @@
+-- права на задачу переносятся в архив вместе с ней, иначе каскадное удаление строк task_acl
+-- оставило бы архивную задачу видимой только владельцу и администраторам
+ALTER TABLE tasks_archive ADD COLUMN viewer_user_ids BIGINT[] NOT NULL DEFAULT '{}';
+ALTER TABLE tasks_archive ADD COLUMN viewer_team_ids BIGINT[] NOT NULL DEFAULT '{}';
+
+-- для уже перенесенных задач остальные права потеряны, сохраняем хотя бы владельца
+UPDATE tasks_archive SET viewer_user_ids = ARRAY[user_id];
@@ -0,0 +1,4 @@
+-- includeArchived для пользователя без роли админа ищет архивные задачи по правам (@> и &&),
+-- без GIN-индексов это полный просмотр архива на каждый запрос списка
+CREATE INDEX idx_tasks_archive_viewer_users ON tasks_archive USING GIN (viewer_user_ids);
+CREATE INDEX idx_tasks_archive_viewer_teams ON tasks_archive USING GIN (viewer_team_ids);
@@ -0,0 +1,8 @@
+-- срок, о просрочке которого уже опубликовано OVERDUE: правка других полей просроченной задачи
+-- и повторные проходы окна commit-grace не публикуют событие снова, пока не изменится due_at
+ALTER TABLE tasks ADD COLUMN overdue_notified_due_at TIMESTAMP;
+
+-- сроки до позиции детектора уже объявлены (или намеренно пропущены при первом запуске)
+UPDATE tasks SET overdue_notified_due_at = due_at
+WHERE due_at IS NOT NULL AND status IN ('PENDING', 'IN_PROGRESS')
+  AND due_at <= (SELECT position FROM job_watermarks WHERE job = 'task-overdue');
@@ -0,0 +1,11 @@
+-- число задач с каждым тегом, пересчитывается вместе со статистикой статусов; по нему поиск по тегам
+-- выбирает план: редкие теги через GIN idx_tasks_tags, частые - обходом в порядке курсора
+CREATE TABLE task_tag_stats (
+                       tag TEXT PRIMARY KEY,
+                       task_count BIGINT NOT NULL,
+                       computed_at TIMESTAMP NOT NULL
+);
+
+-- обход для частых тегов; запрос по GIN отделен от него MATERIALIZED CTE, поэтому планировщик не переходит
+-- на этот индекс для пересечений частых тегов, о чем предупреждает V13
+CREATE INDEX idx_tasks_created_at ON tasks (created_at, id);
@@ -0,0 +1,13 @@
+CREATE INDEX idx_tasks_updated_at ON tasks (updated_at, id);
+CREATE INDEX idx_tasks_user_updated_at ON tasks (user_id, updated_at, id);
+
+CREATE TABLE task_tombstones (
+                       id BIGSERIAL PRIMARY KEY,
+                       task_id BIGINT NOT NULL,
+                       user_id BIGINT NOT NULL,
+                       deleted_at TIMESTAMP NOT NULL,
+                       FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_task_tombstones_deleted_at ON task_tombstones (deleted_at, id);
+CREATE INDEX idx_task_tombstones_user_deleted_at ON task_tombstones (user_id, deleted_at, id);
@@ -0,0 +1,11 @@
+CREATE TABLE task_outbox (
+                       id BIGSERIAL PRIMARY KEY,
+                       task_id BIGINT NOT NULL,
+                       event_type VARCHAR(20) NOT NULL,
+                       payload TEXT NOT NULL,
+                       created_at TIMESTAMP NOT NULL,
+                       published_at TIMESTAMP
+);
+
+CREATE INDEX idx_task_outbox_unpublished ON task_outbox (id) WHERE published_at IS NULL;
+CREATE INDEX idx_task_outbox_published_at ON task_outbox (published_at) WHERE published_at IS NOT NULL;
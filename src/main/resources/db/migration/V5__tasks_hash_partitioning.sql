@@ -0,0 +1,41 @@
+-- Хеш-секционирование tasks по user_id: запросы по пользователю читают одну секцию из 16.
+-- Большие базы переводятся заранее без простоя скриптом db/partitioning/tasks_hash_partitioning_online.sql,
+-- тогда таблица уже секционирована и миграция ничего не делает.
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'tasks'::regclass) = 'p' THEN
+        RAISE NOTICE 'tasks уже секционирована, миграция пропущена';
+        RETURN;
+    END IF;
+
+    CREATE TABLE tasks_partitioned (
+        id          BIGINT       NOT NULL DEFAULT nextval('tasks_id_seq'),
+        title       VARCHAR(100) NOT NULL,
+        description TEXT         NOT NULL,
+        status      VARCHAR(20)  NOT NULL,
+        created_at  TIMESTAMP    NOT NULL,
+        updated_at  TIMESTAMP    NOT NULL,
+        user_id     BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+        version     BIGINT       NOT NULL DEFAULT 0,
+        CONSTRAINT tasks_partitioned_pkey PRIMARY KEY (user_id, id)
+    ) PARTITION BY HASH (user_id);
+
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE tasks_p%s PARTITION OF tasks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                       lpad(i::text, 2, '0'), i);
+    END LOOP;
+
+    INSERT INTO tasks_partitioned (id, title, description, status, created_at, updated_at, user_id, version)
+    SELECT id, title, description, status, created_at, updated_at, user_id, version FROM tasks;
+
+    ALTER SEQUENCE tasks_id_seq OWNED BY tasks_partitioned.id;
+    DROP TABLE tasks;
+
+    ALTER TABLE tasks_partitioned RENAME TO tasks;
+    ALTER TABLE tasks RENAME CONSTRAINT tasks_partitioned_pkey TO tasks_pkey;
+
+    CREATE INDEX idx_tasks_id ON tasks (id);
+    CREATE INDEX idx_tasks_updated_at ON tasks (updated_at, id);
+    CREATE INDEX idx_tasks_user_updated_at ON tasks (user_id, updated_at, id);
+    CREATE INDEX idx_tasks_user_status ON tasks (user_id, status);
+END $$;
@@ -0,0 +1,19 @@
+-- холодное хранилище завершенных и отмененных задач; горячая таблица tasks и ее индексы остаются небольшими
+CREATE TABLE tasks_archive (
+                       id BIGINT PRIMARY KEY,
+                       title VARCHAR(100) NOT NULL,
+                       description TEXT NOT NULL,
+                       status VARCHAR(20) NOT NULL,
+                       created_at TIMESTAMP NOT NULL,
+                       updated_at TIMESTAMP NOT NULL,
+                       user_id BIGINT NOT NULL,
+                       version BIGINT NOT NULL,
+                       archived_at TIMESTAMP NOT NULL,
+                       FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_tasks_archive_user_created_at ON tasks_archive (user_id, created_at, id);
+CREATE INDEX idx_tasks_archive_status_created_at ON tasks_archive (status, created_at, id);
+
+-- кандидаты в архив: частичный индекс не растет вместе с активными задачами
+CREATE INDEX idx_tasks_terminal_updated_at ON tasks (updated_at) WHERE status IN ('COMPLETED', 'CANCELLED');
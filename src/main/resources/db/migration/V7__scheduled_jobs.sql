@@ -0,0 +1,11 @@
+-- кандидаты на автоматическую отмену: частичный индекс по ожидающим задачам
+CREATE INDEX idx_tasks_pending_updated_at ON tasks (updated_at) WHERE status = 'PENDING';
+
+CREATE TABLE task_status_stats (
+                       user_id BIGINT NOT NULL,
+                       status VARCHAR(20) NOT NULL,
+                       task_count BIGINT NOT NULL,
+                       computed_at TIMESTAMP NOT NULL,
+                       PRIMARY KEY (user_id, status),
+                       FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
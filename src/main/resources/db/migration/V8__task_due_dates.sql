@@ -0,0 +1,17 @@
+ALTER TABLE tasks ADD COLUMN due_at TIMESTAMP;
+ALTER TABLE tasks ADD COLUMN priority SMALLINT NOT NULL DEFAULT 1;
+
+ALTER TABLE tasks_archive ADD COLUMN due_at TIMESTAMP;
+ALTER TABLE tasks_archive ADD COLUMN priority SMALLINT NOT NULL DEFAULT 1;
+
+-- очередь сроков: в индекс попадают только активные задачи со сроком
+CREATE INDEX idx_tasks_user_due_at ON tasks (user_id, due_at, id)
+    WHERE due_at IS NOT NULL AND status IN ('PENDING', 'IN_PROGRESS');
+CREATE INDEX idx_tasks_due_at ON tasks (due_at, id)
+    WHERE due_at IS NOT NULL AND status IN ('PENDING', 'IN_PROGRESS');
+
+-- позиция, до которой фоновая задача уже обработала данные
+CREATE TABLE job_watermarks (
+                       job VARCHAR(50) PRIMARY KEY,
+                       position TIMESTAMP NOT NULL
+);
@@ -0,0 +1,5 @@
+ALTER TABLE tasks ADD COLUMN claimed_by BIGINT REFERENCES users(id) ON DELETE SET NULL;
+ALTER TABLE tasks ADD COLUMN claimed_at TIMESTAMP;
+
+-- очередь на захват: порядок индекса совпадает с ORDER BY запроса захвата, LIMIT читает только начало индекса
+CREATE INDEX idx_tasks_claim_queue ON tasks (priority DESC, created_at, id) WHERE status = 'PENDING';
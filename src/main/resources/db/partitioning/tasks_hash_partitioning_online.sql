@@ -0,0 +1,103 @@
+-- Онлайн-перевод tasks на хеш-секционирование по user_id для больших баз.
+-- Выполняется до выката миграции V5: она обнаружит уже секционированную таблицу и ничего не сделает.
+--   1. psql -f tasks_hash_partitioning_online.sql   -- структура и двойная запись триггером
+--   2. SELECT tasks_partitioning_backfill(<id>, 5000);
+--      начиная с 0 и передавая возвращенный id, пока функция не вернет NULL; каждый вызов - отдельная транзакция
+--   3. CALL tasks_partitioning_swap();               -- сверка и переименование под короткой блокировкой
+--   4. после проверки приложения: DROP TABLE tasks_unpartitioned;
+
+CREATE TABLE tasks_partitioned (
+    id          BIGINT       NOT NULL DEFAULT nextval('tasks_id_seq'),
+    title       VARCHAR(100) NOT NULL,
+    description TEXT         NOT NULL,
+    status      VARCHAR(20)  NOT NULL,
+    created_at  TIMESTAMP    NOT NULL,
+    updated_at  TIMESTAMP    NOT NULL,
+    user_id     BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    version     BIGINT       NOT NULL DEFAULT 0,
+    -- ключ секционирования обязан входить в первичный ключ; уникальность id обеспечивает последовательность
+    CONSTRAINT tasks_partitioned_pkey PRIMARY KEY (user_id, id)
+) PARTITION BY HASH (user_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE tasks_p%s PARTITION OF tasks_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                       lpad(i::text, 2, '0'), i);
+    END LOOP;
+END $$;
+
+CREATE INDEX idx_tasks_partitioned_id ON tasks_partitioned (id);
+CREATE INDEX idx_tasks_partitioned_updated_at ON tasks_partitioned (updated_at, id);
+CREATE INDEX idx_tasks_partitioned_user_updated_at ON tasks_partitioned (user_id, updated_at, id);
+CREATE INDEX idx_tasks_partitioned_user_status ON tasks_partitioned (user_id, status);
+
+-- изменения tasks во время копирования сразу повторяются в секционированной таблице
+CREATE FUNCTION tasks_partitioning_mirror() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM tasks_partitioned WHERE user_id = OLD.user_id AND id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO tasks_partitioned (id, title, description, status, created_at, updated_at, user_id, version)
+        VALUES (NEW.id, NEW.title, NEW.description, NEW.status, NEW.created_at, NEW.updated_at, NEW.user_id, NEW.version);
+    END IF;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER tasks_partitioning_mirror
+    AFTER INSERT OR UPDATE OR DELETE ON tasks
+    FOR EACH ROW EXECUTE FUNCTION tasks_partitioning_mirror();
+
+-- FOR SHARE не дает удалить строку между чтением пачки и ее вставкой, иначе удаленная задача вернулась бы копией
+CREATE FUNCTION tasks_partitioning_backfill(after_id BIGINT, batch_size INT) RETURNS BIGINT
+LANGUAGE sql AS $$
+    WITH batch AS (
+        SELECT id, title, description, status, created_at, updated_at, user_id, version
+        FROM tasks
+        WHERE id > after_id
+        ORDER BY id
+        LIMIT batch_size
+        FOR SHARE
+    ), copied AS (
+        INSERT INTO tasks_partitioned (id, title, description, status, created_at, updated_at, user_id, version)
+        SELECT id, title, description, status, created_at, updated_at, user_id, version FROM batch
+        ON CONFLICT (user_id, id) DO NOTHING
+    )
+    SELECT max(id) FROM batch;
+$$;
+
+CREATE PROCEDURE tasks_partitioning_swap()
+LANGUAGE plpgsql AS $$
+DECLARE
+    source_rows BIGINT;
+    target_rows BIGINT;
+BEGIN
+    LOCK TABLE tasks, tasks_partitioned IN ACCESS EXCLUSIVE MODE;
+
+    SELECT count(*) INTO source_rows FROM tasks;
+    SELECT count(*) INTO target_rows FROM tasks_partitioned;
+    IF source_rows <> target_rows THEN
+        RAISE EXCEPTION 'Копирование не завершено: в tasks % строк, в tasks_partitioned %', source_rows, target_rows;
+    END IF;
+
+    DROP TRIGGER tasks_partitioning_mirror ON tasks;
+    DROP FUNCTION tasks_partitioning_mirror();
+    DROP FUNCTION tasks_partitioning_backfill(BIGINT, INT);
+
+    ALTER TABLE tasks RENAME TO tasks_unpartitioned;
+    ALTER TABLE tasks_unpartitioned RENAME CONSTRAINT tasks_pkey TO tasks_unpartitioned_pkey;
+    ALTER INDEX idx_tasks_updated_at RENAME TO idx_tasks_unpartitioned_updated_at;
+    ALTER INDEX idx_tasks_user_updated_at RENAME TO idx_tasks_unpartitioned_user_updated_at;
+
+    ALTER TABLE tasks_partitioned RENAME TO tasks;
+    ALTER TABLE tasks RENAME CONSTRAINT tasks_partitioned_pkey TO tasks_pkey;
+    ALTER INDEX idx_tasks_partitioned_id RENAME TO idx_tasks_id;
+    ALTER INDEX idx_tasks_partitioned_updated_at RENAME TO idx_tasks_updated_at;
+    ALTER INDEX idx_tasks_partitioned_user_updated_at RENAME TO idx_tasks_user_updated_at;
+    ALTER INDEX idx_tasks_partitioned_user_status RENAME TO idx_tasks_user_status;
+
+    -- иначе DROP TABLE tasks_unpartitioned удалит и последовательность
+    ALTER SEQUENCE tasks_id_seq OWNED BY tasks.id;
+END $$;
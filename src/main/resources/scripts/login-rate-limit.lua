@@ -0,0 +1,53 @@
+-- Token bucket по имени пользователя (KEYS[1]) и по IP (KEYS[2]).
+-- ARGV: емкость и интервал пополнения (мс на один токен) для каждого bucket.
+-- Токен списывается только если оба bucket разрешают попытку.
+-- Возвращает {allowed, retryAfterMs, deniedMask}: бит 1 - имя пользователя, бит 2 - IP.
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local function refill(key, capacity, interval)
+    local state = redis.call('HMGET', key, 'tokens', 'ts')
+    local tokens = tonumber(state[1])
+    local ts = tonumber(state[2])
+    if tokens == nil or ts == nil then
+        return capacity, now
+    end
+    local added = math.floor((now - ts) / interval)
+    if added > 0 then
+        tokens = math.min(capacity, tokens + added)
+        ts = ts + added * interval
+    end
+    if tokens >= capacity then
+        ts = now
+    end
+    return tokens, ts
+end
+
+local function store(key, tokens, ts, capacity, interval)
+    redis.call('HSET', key, 'tokens', tokens, 'ts', ts)
+    redis.call('PEXPIRE', key, capacity * interval)
+end
+
+local userCapacity, userInterval = tonumber(ARGV[1]), tonumber(ARGV[2])
+local ipCapacity, ipInterval = tonumber(ARGV[3]), tonumber(ARGV[4])
+
+local userTokens, userTs = refill(KEYS[1], userCapacity, userInterval)
+local ipTokens, ipTs = refill(KEYS[2], ipCapacity, ipInterval)
+
+if userTokens >= 1 and ipTokens >= 1 then
+    store(KEYS[1], userTokens - 1, userTs, userCapacity, userInterval)
+    store(KEYS[2], ipTokens - 1, ipTs, ipCapacity, ipInterval)
+    return {1, 0, 0}
+end
+
+local retryAfter = 0
+local mask = 0
+if userTokens < 1 then
+    mask = mask + 1
+    retryAfter = math.max(retryAfter, userInterval - (now - userTs))
+end
+if ipTokens < 1 then
+    mask = mask + 2
+    retryAfter = math.max(retryAfter, ipInterval - (now - ipTs))
+end
+return {0, retryAfter, mask}
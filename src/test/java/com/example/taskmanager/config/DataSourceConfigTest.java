@@ -0,0 +1,73 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class DataSourceConfigTest {
+
+    private HikariDataSource writePool;
+    private HikariDataSource readPool;
+    private TransactionTemplate transactionTemplate;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        writePool = mockPool();
+        readPool = mockPool();
+        ReplicationProperties replication = new ReplicationProperties(
+                List.of(), Duration.ofSeconds(5), Duration.ofSeconds(2), Duration.ofSeconds(5),
+                Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofSeconds(15));
+        dataSource = new DataSourceConfig().dataSource(writePool,
+                new ReplicaRoutingDataSource(readPool, replication, new SimpleMeterRegistry()));
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReadPool() throws Exception {
+        transactionTemplate.setReadOnly(true);
+
+        transactionTemplate.executeWithoutResult(status -> runStatement());
+
+        verify(readPool).getConnection();
+        verify(writePool, never()).getConnection();
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUseWritePool() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> runStatement());
+
+        verify(writePool).getConnection();
+        verify(readPool, never()).getConnection();
+    }
+
+    private void runStatement() {
+        try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HikariDataSource mockPool() throws Exception {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        when(pool.getConnection()).thenReturn(connection);
+        return pool;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.taskmanager.datasource;
+
+import com.example.taskmanager.config.ReplicationProperties;
+import com.example.taskmanager.config.ResilienceProperties;
+import com.example.taskmanager.config.ResilienceProperties.BlacklistFailurePolicy;
+import com.example.taskmanager.resilience.RedisGuard;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+    private ReplicationProperties properties;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        primary = mock(DataSource.class);
+        replicaA = mock(DataSource.class);
+        replicaB = mock(DataSource.class);
+        Map<String, DataSource> pools = Map.of("a", replicaA, "b", replicaB);
+        properties = new ReplicationProperties(
+                List.of(new ReplicationProperties.Replica("a", "jdbc:postgresql://a/db", null, null),
+                        new ReplicationProperties.Replica("b", "jdbc:postgresql://b/db", null, null)),
+                Duration.ofSeconds(5), Duration.ofSeconds(2), Duration.ofSeconds(5),
+                Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofSeconds(15));
+        routingDataSource = new ReplicaRoutingDataSource(primary, properties, new SimpleMeterRegistry(),
+                replica -> pools.get(replica.name()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadRoutingContext.clear();
+    }
+
+    @Test
+    void determineTarget_ShouldUsePrimary_BeforeFirstLagCheck() {
+        assertSame(primary, routingDataSource.determineTarget());
+    }
+
+    @Test
+    void determineTarget_ShouldRoundRobinHealthyReplicas() throws Exception {
+        stubLag(replicaA, 0);
+        stubLag(replicaB, 1200);
+        routingDataSource.refreshLag();
+
+        DataSource first = routingDataSource.determineTarget();
+        DataSource second = routingDataSource.determineTarget();
+
+        assertNotSame(first, second);
+        assertTrue(List.of(replicaA, replicaB).containsAll(List.of(first, second)));
+    }
+
+    @Test
+    void determineTarget_ShouldSkipLaggingAndUnreachableReplicas() throws Exception {
+        stubLag(replicaA, 60_000);
+        when(replicaB.getConnection()).thenThrow(new SQLException("connection refused"));
+        routingDataSource.refreshLag();
+
+        assertSame(primary, routingDataSource.determineTarget());
+        assertTrue(routingDataSource.replicaStates().stream().noneMatch(ReplicaRoutingDataSource.ReplicaState::healthy));
+    }
+
+    @Test
+    void determineTarget_ShouldExcludeReplicaThatIsNotInRecovery() throws Exception {
+        stubLag(replicaA, null);
+        stubLag(replicaB, 0);
+        routingDataSource.refreshLag();
+
+        assertSame(replicaB, routingDataSource.determineTarget());
+        assertSame(replicaB, routingDataSource.determineTarget());
+    }
+
+    @Test
+    void determineTarget_ShouldUsePrimary_WhenReadYourWritesRequired() throws Exception {
+        stubLag(replicaA, 0);
+        stubLag(replicaB, 0);
+        routingDataSource.refreshLag();
+
+        ReadRoutingContext.requirePrimary();
+
+        assertSame(primary, routingDataSource.determineTarget());
+    }
+
+    @Test
+    void determineTarget_ShouldExcludeReplicaWithoutStreamingWalReceiver() throws Exception {
+        // WAL receiver отключен: принятый WAL воспроизведен полностью, но от primary ничего не приходит
+        stubLag(replicaA, 0, false);
+        stubLag(replicaB, 0);
+        routingDataSource.refreshLag();
+
+        assertSame(replicaB, routingDataSource.determineTarget());
+        assertSame(replicaB, routingDataSource.determineTarget());
+        assertEquals(-1, routingDataSource.replicaStates().get(0).lagMillis());
+    }
+
+    @Test
+    void refreshLag_ShouldBoundProbe_AndExcludeReplicaThatTimesOut() throws Exception {
+        stubLag(replicaA, 0);
+        stubLag(replicaB, 0);
+        routingDataSource.refreshLag();
+        Connection hanging = replicaB.getConnection();
+        when(hanging.createStatement().executeQuery(ReplicaRoutingDataSource.LAG_QUERY))
+                .thenThrow(new SQLException("Read timed out", "08006"));
+
+        routingDataSource.refreshLag();
+
+        verify(hanging, atLeastOnce()).setNetworkTimeout(any(), eq(1000));
+        assertSame(replicaA, routingDataSource.determineTarget());
+        assertSame(replicaA, routingDataSource.determineTarget());
+    }
+
+    @Test
+    void replicaPoolConfig_ShouldSetSocketAndStatementTimeouts() {
+        try (HikariDataSource primaryPool = new HikariDataSource()) {
+            primaryPool.setJdbcUrl("jdbc:postgresql://primary/db");
+            primaryPool.addDataSourceProperty("options", "-c search_path=public");
+
+            HikariConfig config = ReplicaRoutingDataSource.replicaPoolConfig(primaryPool,
+                    properties.replicas().get(0), properties, new SimpleMeterRegistry());
+
+            assertEquals("jdbc:postgresql://a/db", config.getJdbcUrl());
+            assertEquals("30", config.getDataSourceProperties().getProperty("socketTimeout"));
+            assertEquals("-c search_path=public -c statement_timeout=15000",
+                    config.getDataSourceProperties().getProperty("options"));
+            assertTrue(config.isReadOnly());
+        }
+    }
+
+    @Test
+    void tracker_ShouldKeepWindowPerUserInRedis() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.hasKey("rw:primary:alice")).thenReturn(true);
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(redisTemplate, redisGuard(), properties);
+
+        tracker.markWrite("alice");
+
+        verify(valueOperations).set("rw:primary:alice", "1", Duration.ofSeconds(5));
+        assertTrue(tracker.isSticky("alice"));
+        assertFalse(tracker.isSticky("bob"));
+    }
+
+    @Test
+    void tracker_ShouldRoutePrimary_WhenRedisUnavailable() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+        when(redisTemplate.hasKey(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(redisTemplate, redisGuard(), properties);
+
+        assertDoesNotThrow(() -> tracker.markWrite("alice"));
+        assertTrue(tracker.isSticky("alice"));
+    }
+
+    @Test
+    void tracker_ShouldNotTouchRedis_WithoutReplicas() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(redisTemplate, redisGuard(), new ReplicationProperties(
+                List.of(), Duration.ofSeconds(5), Duration.ofSeconds(2), Duration.ofSeconds(5),
+                Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofSeconds(15)));
+
+        tracker.markWrite("alice");
+
+        assertFalse(tracker.isSticky("alice"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void filter_ShouldMarkMutationsAndRoutePrimary_ForStickyUser() throws Exception {
+        ReadYourWritesTracker tracker = mock(ReadYourWritesTracker.class);
+        when(tracker.isSticky("alice")).thenReturn(true);
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(tracker);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        try {
+            filter.doFilter(new MockHttpServletRequest("POST", "/tasks"), new MockHttpServletResponse(),
+                    new MockFilterChain());
+            verify(tracker).markWrite("alice");
+
+            // запрос без cookie и других следов предыдущего ответа: окно определяется только пользователем
+            boolean[] primaryRequired = {false};
+            filter.doFilter(new MockHttpServletRequest("GET", "/tasks"), new MockHttpServletResponse(),
+                    (req, res) -> primaryRequired[0] = ReadRoutingContext.isPrimaryRequired());
+
+            assertTrue(primaryRequired[0]);
+            assertFalse(ReadRoutingContext.isPrimaryRequired());
+            verify(tracker, times(1)).markWrite("alice");
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static RedisGuard redisGuard() {
+        var dependency = new ResilienceProperties.Dependency(32, Duration.ZERO, Duration.ofMillis(50),
+                Duration.ofSeconds(1), 50, 20, Duration.ofSeconds(10));
+        return new RedisGuard(new ResilienceProperties(BlacklistFailurePolicy.FAIL_CLOSED, dependency, dependency),
+                new SimpleMeterRegistry());
+    }
+
+    private static void stubLag(DataSource replica, Integer lagMillis) throws SQLException {
+        stubLag(replica, lagMillis, true);
+    }
+
+    private static void stubLag(DataSource replica, Integer lagMillis, boolean streaming) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaRoutingDataSource.LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean(1)).thenReturn(lagMillis != null);
+        when(resultSet.getBoolean(2)).thenReturn(lagMillis != null && streaming);
+        when(resultSet.getDouble(3)).thenReturn(lagMillis == null ? 0 : lagMillis.doubleValue());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.taskmanager.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void handleOptimisticLockingFailureException_ShouldReturn409() {
+        //act
+        var response = handler.handleOptimisticLockingFailureException(
+                new OptimisticLockingFailureException("Row was updated or deleted by another transaction"));
+
+        //assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Task was modified concurrently", response.getBody());
+    }
+
+    @Test
+    void handleTaskVersionConflictException_ShouldReturn412() {
+        //act
+        var response = handler.handleTaskVersionConflictException(
+                new TaskVersionConflictException("Task with id 1 was modified, current version is 3"));
+
+        //assert
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+    }
+}
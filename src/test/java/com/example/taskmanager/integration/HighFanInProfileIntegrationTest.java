@@ -0,0 +1,139 @@
+package com.example.taskmanager.integration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.Filter;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// поднимает настоящий Tomcat с профилем high-fan-in и проверяет, что запросы обслуживаются виртуальными потоками
+// и одновременно их больше, чем потоков в стандартном пуле Tomcat (200)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+@ActiveProfiles({"test", "high-fan-in"})
+public class HighFanInProfileIntegrationTest {
+
+    private static final int CONCURRENT_REQUESTS = 300;
+    private static final CountDownLatch allInFlight = new CountDownLatch(CONCURRENT_REQUESTS);
+
+    @Container
+    private static final GenericContainer<?> redisContainer = new GenericContainer<>("redis:8-alpine")
+            .withExposedPorts(6379);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redisContainer::getHost);
+        registry.add("spring.data.redis.port", () -> redisContainer.getMappedPort(6379));
+
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgresContainer::getDriverClassName);
+    }
+
+    @TestConfiguration
+    static class BlockingEndpointConfig {
+
+        // стоит перед security и ограничителями: каждый запрос ждет, пока на сервере не окажутся все остальные
+        @Bean
+        FilterRegistrationBean<Filter> blockingEndpoint() {
+            Filter filter = (request, response, chain) -> {
+                allInFlight.countDown();
+                try {
+                    boolean reached = allInFlight.await(20, TimeUnit.SECONDS);
+                    response.setContentType("text/plain");
+                    response.getWriter().write(reached + ":" + Thread.currentThread().isVirtual());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(filter);
+            registration.addUrlPatterns("/high-fan-in/blocking");
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    @Qualifier("writeDataSource")
+    private HikariDataSource writeDataSource;
+
+    @Autowired
+    @Qualifier("readDataSource")
+    private HikariDataSource readDataSource;
+
+    @Test
+    void profile_ShouldConfigureTomcatAndPools() {
+        var protocol = (AbstractProtocol<?>) ((TomcatWebServer) context.getWebServer())
+                .getTomcat().getConnector().getProtocolHandler();
+
+        assertInstanceOf(VirtualThreadExecutor.class, protocol.getExecutor());
+        assertEquals(20000, protocol.getMaxConnections());
+        assertEquals(1000, protocol.getAcceptCount());
+        assertEquals(30, writeDataSource.getMaximumPoolSize());
+        assertEquals(5000, writeDataSource.getConnectionTimeout());
+        assertEquals(30, readDataSource.getMaximumPoolSize());
+        assertEquals(5000, readDataSource.getConnectionTimeout());
+    }
+
+    @Test
+    void server_ShouldHoldMoreBlockedRequestsThanPlatformThreadPool() throws Exception {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor();
+             var client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(10)).build()) {
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/high-fan-in/blocking"))
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+
+            List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, CONCURRENT_REQUESTS)
+                    .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                    .toList();
+
+            for (var response : responses) {
+                assertEquals("true:true", response.get(60, TimeUnit.SECONDS).body());
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.taskmanager.integration;
+
+import com.example.taskmanager.config.SchedulerProperties;
+import com.example.taskmanager.scheduling.LeaderElection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// два узла соревнуются за одну advisory-блокировку
+@Testcontainers
+public class LeaderElectionIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Test
+    void onlyOneNodeShouldLead_AndLeadershipShouldMoveWhenLeaderStops() {
+        LeaderElection first = election();
+        LeaderElection second = election();
+        try {
+            first.refresh();
+            second.refresh();
+
+            assertTrue(first.isLeader());
+            assertFalse(second.isLeader());
+
+            // повторная проверка не теряет и не дублирует лидерство
+            first.refresh();
+            second.refresh();
+            assertTrue(first.isLeader());
+            assertFalse(second.isLeader());
+
+            first.release();
+            second.refresh();
+
+            assertFalse(first.isLeader());
+            assertTrue(second.isLeader());
+        } finally {
+            first.release();
+            second.release();
+        }
+    }
+
+    private static LeaderElection election() {
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl(postgresContainer.getJdbcUrl());
+        dataSourceProperties.setUsername(postgresContainer.getUsername());
+        dataSourceProperties.setPassword(postgresContainer.getPassword());
+        return new LeaderElection(dataSourceProperties,
+                new SchedulerProperties(true, 1, Duration.ofSeconds(5), 4242L), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.taskmanager.integration;
+
+import com.example.taskmanager.datasource.ReadRoutingContext;
+import com.example.taskmanager.datasource.ReadYourWritesTracker;
+import com.example.taskmanager.datasource.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// два PostgreSQL с потоковой репликацией: реплика создается pg_basebackup с primary
+@SpringBootTest(properties = {
+        "datasource.replication.check-interval=200ms",
+        "datasource.replication.read-your-writes-window=1s"
+})
+@ActiveProfiles("test")
+@Testcontainers
+public class ReplicaRoutingIntegrationTest {
+
+    private static final Network network = Network.newNetwork();
+
+    @Container
+    private static final GenericContainer<?> redisContainer = new GenericContainer<>("redis:8-alpine")
+            .withExposedPorts(6379);
+
+    @Container
+    private static final PostgreSQLContainer<?> primaryContainer = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testDb")
+            .withUsername("test")
+            .withPassword("test")
+            .withNetwork(network)
+            .withNetworkAliases("primary")
+            .withCopyToContainer(Transferable.of("""
+                    psql -v ON_ERROR_STOP=1 -U "$POSTGRES_USER" -d "$POSTGRES_DB" \
+                      -c "CREATE ROLE repl WITH REPLICATION LOGIN PASSWORD 'repl'"
+                    echo "host replication repl all scram-sha-256" >> "$PGDATA/pg_hba.conf"
+                    """), "/docker-entrypoint-initdb.d/replication.sh")
+            .withCommand("postgres", "-c", "wal_level=replica", "-c", "max_wal_senders=4", "-c", "hot_standby=on");
+
+    @Container
+    private static final GenericContainer<?> replicaContainer = new GenericContainer<>("postgres:17-alpine")
+            .dependsOn(primaryContainer)
+            .withNetwork(network)
+            .withExposedPorts(5432)
+            .withEnv("PGPASSWORD", "repl")
+            .withCreateContainerCmdModifier(cmd -> cmd.withEntrypoint("sh"))
+            .withCommand("-c", """
+                    until su-exec postgres pg_basebackup -h primary -U repl -D "$PGDATA" -R -X stream; do
+                      rm -rf "$PGDATA"/*; sleep 1;
+                    done
+                    chmod 700 "$PGDATA"
+                    exec su-exec postgres postgres
+                    """)
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1)
+                    .withStartupTimeout(Duration.ofMinutes(2)));
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redisContainer::getHost);
+        registry.add("spring.data.redis.port", () -> redisContainer.getMappedPort(6379));
+
+        registry.add("spring.datasource.url", primaryContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", primaryContainer::getUsername);
+        registry.add("spring.datasource.password", primaryContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", primaryContainer::getDriverClassName);
+
+        registry.add("datasource.replication.replicas[0].name", () -> "replica-1");
+        registry.add("datasource.replication.replicas[0].url", () -> "jdbc:postgresql://%s:%d/testDb"
+                .formatted(replicaContainer.getHost(), replicaContainer.getMappedPort(5432)));
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @AfterEach
+    void tearDown() {
+        ReadRoutingContext.clear();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldRunOnReplica_AndSeeReplicatedRows() throws Exception {
+        awaitHealthyReplica();
+        jdbcTemplate.update("INSERT INTO users (username, password, role) VALUES ('replicated', 'x', 'USER')");
+
+        assertFalse(inTransaction(false, "SELECT pg_is_in_recovery()", Boolean.class));
+        assertTrue(inTransaction(true, "SELECT pg_is_in_recovery()", Boolean.class));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        Integer count = 0;
+        while (count == 0 && System.nanoTime() < deadline) {
+            count = inTransaction(true, "SELECT count(*) FROM users WHERE username = 'replicated'", Integer.class);
+            Thread.sleep(100);
+        }
+        assertEquals(1, count);
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldRunOnPrimary_WhenReadYourWritesRequired() throws Exception {
+        awaitHealthyReplica();
+        ReadRoutingContext.requirePrimary();
+
+        assertFalse(inTransaction(true, "SELECT pg_is_in_recovery()", Boolean.class));
+    }
+
+    @Test
+    void readYourWritesWindow_ShouldBeSharedByUser_AndExpire() throws Exception {
+        readYourWritesTracker.markWrite("writer");
+
+        assertTrue(readYourWritesTracker.isSticky("writer"));
+        assertFalse(readYourWritesTracker.isSticky("reader"));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (readYourWritesTracker.isSticky("writer")) {
+            assertTrue(System.nanoTime() < deadline, "Окно чтения с primary не истекло");
+            Thread.sleep(100);
+        }
+    }
+
+    private <T> T inTransaction(boolean readOnly, String sql, Class<T> type) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject(sql, type));
+    }
+
+    private void awaitHealthyReplica() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (replicaRoutingDataSource.replicaStates().stream().noneMatch(ReplicaRoutingDataSource.ReplicaState::healthy)) {
+            assertTrue(System.nanoTime() < deadline, "Реплика не стала доступной для чтения");
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.taskmanager.integration;
+
+import com.example.taskmanager.dto.ClaimedTaskDto;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.service.TaskService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TaskClaimConcurrencyIntegrationTest {
+
+    private static final int TASKS = 2000;
+    private static final int WORKERS = 16;
+    private static final int CLAIM_LIMIT = 7;
+
+    @Container
+    private static final GenericContainer<?> redisContainer = new GenericContainer<>("redis:8-alpine")
+            .withExposedPorts(6379);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redisContainer::getHost);
+        registry.add("spring.data.redis.port", () -> redisContainer.getMappedPort(6379));
+
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgresContainer::getDriverClassName);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @Order(1)
+    void claim_ShouldReturnHighestPriorityAndOldestTasksFirst() {
+        jdbcTemplate.update("INSERT INTO tasks (title, description, status, created_at, updated_at, user_id, priority, version) " +
+                "VALUES ('urgent newer', 'd', 'PENDING', now(), now(), 1, ?, 0), " +
+                "('urgent older', 'd', 'PENDING', now() - interval '1 hour', now(), 1, ?, 0)",
+                TaskPriority.URGENT.code(), TaskPriority.URGENT.code());
+        grantOwners();
+
+        List<ClaimedTaskDto> claimed = taskService.claim(TaskStatus.PENDING, 2, "test user");
+
+        assertEquals(List.of("urgent older", "urgent newer"), claimed.stream().map(c -> c.task().getTitle()).toList());
+        assertTrue(claimed.stream().allMatch(c -> c.task().getStatus() == TaskStatus.IN_PROGRESS));
+    }
+
+    @Test
+    @Order(2)
+    void claim_ShouldHandEachTaskToExactlyOneWorker_WhenWorkersCompete() throws Exception {
+        jdbcTemplate.update("INSERT INTO tasks (title, description, status, created_at, updated_at, user_id, priority, version) " +
+                "SELECT 'queued ' || n, 'd', 'PENDING', now() - n * interval '1 second', now(), 1 + n % 2, n % 4, 0 " +
+                "FROM generate_series(1, ?) n", TASKS);
+        grantOwners();
+        Set<Long> pending = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM tasks WHERE status = 'PENDING'", Long.class));
+
+        Queue<Long> claimedIds = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(WORKERS);
+        List<Future<Integer>> workers = new ArrayList<>();
+        for (int i = 0; i < WORKERS; i++) {
+            String username = i % 2 == 0 ? "test user" : "test admin";
+            workers.add(executor.submit(() -> {
+                start.await();
+                int claims = 0;
+                List<ClaimedTaskDto> batch;
+                do {
+                    batch = taskService.claim(TaskStatus.PENDING, CLAIM_LIMIT, username);
+                    batch.forEach(c -> claimedIds.add(c.id()));
+                    claims++;
+                } while (!batch.isEmpty());
+                return claims;
+            }));
+        }
+        start.countDown();
+        for (Future<Integer> worker : workers) {
+            assertTrue(worker.get(2, TimeUnit.MINUTES) > 1);
+        }
+        executor.shutdown();
+
+        List<Long> claimed = new ArrayList<>(claimedIds);
+        assertEquals(pending.size(), claimed.size(), "каждая задача должна быть захвачена ровно один раз");
+        assertEquals(pending, new HashSet<>(claimed));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tasks WHERE status = 'PENDING'", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tasks WHERE status = 'IN_PROGRESS' AND claimed_by IS NULL AND id = ANY(?)",
+                Integer.class, (Object) claimed.toArray(new Long[0])));
+    }
+
+    @Test
+    @Order(3)
+    void claim_ShouldNotHandOtherUsersTaskToPlainUser() {
+        jdbcTemplate.update("INSERT INTO tasks (title, description, status, created_at, updated_at, user_id, version) " +
+                "VALUES ('admin queued', 'd', 'PENDING', now(), now(), 2, 0)");
+        grantOwners();
+
+        List<ClaimedTaskDto> byUser = taskService.claim(TaskStatus.PENDING, 5, "test user");
+
+        assertTrue(byUser.isEmpty());
+        assertEquals("PENDING", jdbcTemplate.queryForObject(
+                "SELECT status FROM tasks WHERE title = 'admin queued'", String.class));
+
+        List<ClaimedTaskDto> byAdmin = taskService.claim(TaskStatus.PENDING, 5, "test admin");
+
+        assertEquals(List.of("admin queued"), byAdmin.stream().map(c -> c.task().getTitle()).toList());
+    }
+
+    // задачи вставляются в обход сервиса, поэтому доступ владельца в task_acl добавляется вручную
+    private void grantOwners() {
+        jdbcTemplate.update("INSERT INTO task_acl (task_id, task_user_id, user_id, kind) " +
+                "SELECT id, user_id, user_id, 'OWNER' FROM tasks t " +
+                "WHERE NOT EXISTS (SELECT 1 FROM task_acl a WHERE a.task_id = t.id AND a.kind = 'OWNER')");
+    }
+}
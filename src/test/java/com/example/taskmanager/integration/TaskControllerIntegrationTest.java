@@ -2,12 +2,21 @@ package com.example.taskmanager.integration;
 
 import com.example.taskmanager.dto.AuthenticationRequest;
 import com.example.taskmanager.dto.AuthenticationResponse;
+import com.example.taskmanager.dto.TaskAssigneesDto;
+import com.example.taskmanager.dto.TaskCommentRequest;
+import com.example.taskmanager.dto.TaskParentRequest;
 import com.example.taskmanager.dto.TaskRequestDto;
 import com.example.taskmanager.dto.TaskStatusUpdateRequest;
+import com.example.taskmanager.dto.TeamRequestDto;
+import com.example.taskmanager.dto.TeamResponseDto;
 import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskActivityKind;
+import com.example.taskmanager.entity.TaskPriority;
 import com.example.taskmanager.entity.TaskStatus;
 import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.ArchivedTaskRepository;
 import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskTagStatRepository;
 import com.example.taskmanager.repository.UserRepository;
 import com.example.taskmanager.service.TokenBlacklistService;
 import com.example.taskmanager.service.UserDetailsServiceImpl;
@@ -22,6 +31,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.context.ActiveProfiles;
@@ -34,14 +44,21 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import javax.crypto.SecretKey;
+import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// маленькие пороги поиска по тегам, чтобы после пересчета статистики тег считался частым
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"task.tags.rare-threshold=2", "task.tags.scan-limit=3"})
 @Testcontainers
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
@@ -84,6 +101,12 @@ public class TaskControllerIntegrationTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private TaskTagStatRepository taskTagStatRepository;
+
     @Autowired
     private MockMvc mvc;
 
@@ -144,7 +167,7 @@ public class TaskControllerIntegrationTest {
     @Test
     @Order(4)
     void createTask_ShouldCreateTask_WhenRoleIsAdmin() throws Exception {
-        var request = new TaskRequestDto("created task", "new created task", TaskStatus.PENDING, 1L);
+        var request = new TaskRequestDto("created task", "new created task", TaskStatus.PENDING, 1L, null, null, null, null);
 
         mvc.perform(
                 post("/tasks")
@@ -159,7 +182,7 @@ public class TaskControllerIntegrationTest {
     @Test
     @Order(5)
     void updateTaskByAdmin_ShouldUpdateTask_WhenRoleIsAdmin() throws Exception {
-        var request = new TaskRequestDto("updated task", "new updated task", TaskStatus.PENDING, 1L);
+        var request = new TaskRequestDto("updated task", "new updated task", TaskStatus.PENDING, 1L, null, null, null, null);
 
         mvc.perform(
                 put("/tasks/3")
@@ -196,7 +219,7 @@ public class TaskControllerIntegrationTest {
     @Test
     @Order(8)
     void createTask_ShouldReturn403_WhenRoleIsNotAdmin() throws Exception {
-        var request = new TaskRequestDto("some task", "created not by admin", TaskStatus.PENDING, 1L);
+        var request = new TaskRequestDto("some task", "created not by admin", TaskStatus.PENDING, 1L, null, null, null, null);
 
         mvc.perform(
                         post("/tasks")
@@ -239,7 +262,7 @@ public class TaskControllerIntegrationTest {
     @Test
     @Order(12)
     void createTask_ShouldReturn400_WhenInvalidRequest() throws Exception {
-        var request = new TaskRequestDto("", "", null, null);
+        var request = new TaskRequestDto("", "", null, null, null, null, null, null);
 
         mvc.perform(
                         post("/tasks")
@@ -305,6 +328,554 @@ public class TaskControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @Order(17)
+    void getTaskById_ShouldReturn304_WhenETagMatches() throws Exception {
+        var jwt = getUserJwt();
+
+        var result = mvc.perform(
+                get("/tasks/1")
+                        .header(HttpHeaders.AUTHORIZATION, jwt))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+
+        var eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(
+                get("/tasks/1")
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @Order(18)
+    void getAllTasks_ShouldReturn304_WhenPageETagMatches() throws Exception {
+        var jwt = getUserJwt();
+
+        var result = mvc.perform(
+                get("/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, jwt))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+
+        var eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(
+                get("/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Order(19)
+    void getTaskChanges_ShouldReturnDeletedTask_AfterWatermark() throws Exception {
+        var jwt = getAdminJwt();
+
+        var initial = mvc.perform(
+                get("/tasks/changes")
+                        .header(HttpHeaders.AUTHORIZATION, jwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.[0].id").exists())
+                .andReturn();
+
+        var watermark = objectMapper.readTree(initial.getResponse().getContentAsString()).get("watermark").asText();
+
+        var request = new TaskRequestDto("sync task", "task for delta sync", TaskStatus.PENDING, 1L, null, null, null, null);
+        mvc.perform(
+                post("/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        var created = taskRepository.findAll().stream()
+                .filter(task -> task.getTitle().equals("sync task"))
+                .findFirst()
+                .orElseThrow();
+
+        mvc.perform(
+                get("/tasks/changes")
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .param("since", watermark))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[?(@.id == %d)]", created.getId()).exists());
+
+        mvc.perform(
+                delete("/tasks/" + created.getId())
+                        .header(HttpHeaders.AUTHORIZATION, jwt))
+                .andExpect(status().isNoContent());
+
+        mvc.perform(
+                get("/tasks/changes")
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .param("since", watermark))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[?(@.id == %d)]", created.getId()).doesNotExist())
+                .andExpect(jsonPath("$.deleted[?(@ == %d)]", created.getId()).exists());
+    }
+
+    @Test
+    @Order(20)
+    void getTaskChanges_ShouldReturn400_WhenTokenIsMalformed() throws Exception {
+        mvc.perform(
+                get("/tasks/changes")
+                        .header(HttpHeaders.AUTHORIZATION, getUserJwt())
+                        .param("since", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(21)
+    void updateTaskStatus_ShouldReturn412_WhenIfMatchIsStale() throws Exception {
+        var jwt = getUserJwt();
+
+        var eTag = mvc.perform(
+                get("/tasks/1")
+                        .header(HttpHeaders.AUTHORIZATION, jwt))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        var updated = mvc.perform(
+                patch("/tasks/1/status")
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskStatusUpdateRequest(TaskStatus.IN_PROGRESS))))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+
+        Assertions.assertNotEquals(eTag, updated.getResponse().getHeader(HttpHeaders.ETAG));
+
+        mvc.perform(
+                patch("/tasks/1/status")
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskStatusUpdateRequest(TaskStatus.COMPLETED))))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @Order(22)
+    void getDueTasks_ShouldReturnNearestDueTasksOfUser() throws Exception {
+        var request = new TaskRequestDto("due task", "task with deadline", TaskStatus.PENDING, 1L,
+                LocalDateTime.now().plusHours(1), TaskPriority.URGENT, null, null);
+        mvc.perform(
+                post("/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, getAdminJwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mvc.perform(
+                get("/tasks/due")
+                        .header(HttpHeaders.AUTHORIZATION, getUserJwt())
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$.[0].title").value("due task"))
+                .andExpect(jsonPath("$.[0].priority").value(TaskPriority.URGENT.name()));
+    }
+
+    @Test
+    @Order(23)
+    void replaceAssignees_ShouldGrantAccessThroughTeam() throws Exception {
+        var userJwt = getUserJwt();
+        var adminJwt = getAdminJwt();
+
+        mvc.perform(
+                get("/tasks/2")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt))
+                .andExpect(status().isForbidden());
+
+        var team = mvc.perform(
+                post("/teams")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamRequestDto("backend"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        var teamId = objectMapper.readValue(team.getResponse().getContentAsString(), TeamResponseDto.class).id();
+
+        mvc.perform(
+                put("/teams/" + teamId + "/members/1")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.memberIds.[0]").value(1));
+
+        mvc.perform(
+                put("/tasks/2/assignees")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskAssigneesDto(Set.of(), Set.of(teamId)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.teamIds.[0]").value(teamId));
+
+        mvc.perform(
+                get("/tasks/2")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Admin Task"));
+
+        mvc.perform(
+                get("/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt)
+                        .param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[?(@.title == 'Admin Task')]").exists());
+
+        mvc.perform(
+                put("/tasks/2/assignees")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskAssigneesDto(Set.of(), Set.of()))))
+                .andExpect(status().isOk());
+
+        mvc.perform(
+                get("/tasks/2")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Order(24)
+    void addComment_ShouldAppearInTaskActivity() throws Exception {
+        var jwt = getUserJwt();
+
+        mvc.perform(
+                post("/tasks/1/comments")
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskCommentRequest("first comment"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.kind").value(TaskActivityKind.COMMENTED.name()))
+                .andExpect(jsonPath("$.actor").value("test user"));
+
+        mvc.perform(
+                get("/tasks/1/activity")
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items.[0].body").value("first comment"))
+                .andExpect(jsonPath("$.next").isNotEmpty());
+
+        mvc.perform(
+                get("/tasks/1/activity")
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .param("before", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(25)
+    void setParent_ShouldBuildSubtree_AndRejectCycle() throws Exception {
+        var adminJwt = getAdminJwt();
+        var userJwt = getUserJwt();
+
+        mvc.perform(
+                put("/tasks/2/parent")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskParentRequest(1L))))
+                .andExpect(status().isNoContent());
+
+        mvc.perform(
+                get("/tasks/1/subtree")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subtasks.length()").value(1))
+                .andExpect(jsonPath("$.subtasks.[0].id").value(2))
+                .andExpect(jsonPath("$.subtasks.[0].depth").value(1))
+                .andExpect(jsonPath("$.truncated").value(false));
+
+        mvc.perform(
+                get("/tasks/1/rollup")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1));
+
+        // подзадача админа не выдана пользователю через task_acl, поэтому в его дереве ее нет
+        mvc.perform(
+                get("/tasks/1/subtree")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subtasks.length()").value(0));
+
+        mvc.perform(
+                get("/tasks/1/rollup")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0));
+
+        mvc.perform(
+                put("/tasks/1/parent")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskParentRequest(2L))))
+                .andExpect(status().isConflict());
+
+        mvc.perform(
+                put("/tasks/2/parent")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskParentRequest(null))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Order(26)
+    void findByTags_ShouldReturnVisibleTasksWithAllTags_PageByPage() throws Exception {
+        var adminJwt = getAdminJwt();
+        var userJwt = getUserJwt();
+
+        mvc.perform(
+                put("/tasks/1")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskRequestDto("Test Task 1",
+                                "Test task description", TaskStatus.PENDING, 1L, null, null, Set.of("Backend", "urgent"), null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags[0]").value("backend"))
+                .andExpect(jsonPath("$.tags[1]").value("urgent"));
+
+        mvc.perform(
+                put("/tasks/2")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskRequestDto("Admin Task",
+                                "Created by admin", TaskStatus.IN_PROGRESS, 2L, null, null, Set.of("backend"), null))))
+                .andExpect(status().isOk());
+
+        var firstPage = mvc.perform(
+                get("/tasks/tagged")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                        .param("tags", "BACKEND")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items.[0].title").value("Test Task 1"))
+                .andExpect(jsonPath("$.next").isNotEmpty())
+                .andReturn();
+        var next = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("next").asText();
+
+        mvc.perform(
+                get("/tasks/tagged")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                        .param("tags", "backend")
+                        .param("limit", "1")
+                        .param("after", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items.[0].title").value("Admin Task"))
+                .andExpect(jsonPath("$.next").isEmpty());
+
+        mvc.perform(
+                get("/tasks/tagged")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt)
+                        .param("tags", "backend", "Urgent"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items.[0].title").value("Test Task 1"));
+
+        mvc.perform(
+                get("/tasks/tagged")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt)
+                        .param("tags", "backend")
+                        .param("after", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(27)
+    void archivedSharedTask_ShouldStayVisibleToAssignee() throws Exception {
+        var adminJwt = getAdminJwt();
+        var userJwt = getUserJwt();
+
+        mvc.perform(
+                post("/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskRequestDto("Shared Done",
+                                "Finished shared task", TaskStatus.COMPLETED, 2L, null, null, null, null))))
+                .andExpect(status().isCreated());
+        var taskId = taskIdByTitle("Shared Done");
+
+        mvc.perform(
+                put("/tasks/" + taskId + "/assignees")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskAssigneesDto(Set.of(1L), Set.of()))))
+                .andExpect(status().isOk());
+
+        archivedTaskRepository.archiveTerminalBatch(LocalDateTime.now().plusMinutes(1), LocalDateTime.now(), 100);
+
+        mvc.perform(
+                get("/tasks/" + taskId)
+                        .header(HttpHeaders.AUTHORIZATION, userJwt))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Shared Done"));
+
+        mvc.perform(
+                get("/tasks/" + taskId + "/activity")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt))
+                .andExpect(status().isOk());
+
+        mvc.perform(
+                get("/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt)
+                        .param("includeArchived", "true")
+                        .param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[?(@.title == 'Shared Done')]").exists());
+
+        mvc.perform(
+                get("/tasks/filter")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt)
+                        .param("status", TaskStatus.COMPLETED.name())
+                        .param("includeArchived", "true")
+                        .param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[?(@.title == 'Shared Done')]").exists());
+    }
+
+    @Test
+    @Order(28)
+    void delete_ShouldDetachChildren_AndChangeTheirETag() throws Exception {
+        var adminJwt = getAdminJwt();
+
+        for (String title : List.of("Parent To Delete", "Orphaned Child")) {
+            mvc.perform(
+                    post("/tasks")
+                            .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new TaskRequestDto(title,
+                                    "Hierarchy delete", TaskStatus.PENDING, 2L, null, null, null, null))))
+                    .andExpect(status().isCreated());
+        }
+        var parentId = taskIdByTitle("Parent To Delete");
+        var childId = taskIdByTitle("Orphaned Child");
+
+        mvc.perform(
+                put("/tasks/" + childId + "/parent")
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskParentRequest(parentId))))
+                .andExpect(status().isNoContent());
+        var eTag = mvc.perform(
+                        get("/tasks/" + childId)
+                                .header(HttpHeaders.AUTHORIZATION, adminJwt))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(
+                delete("/tasks/" + parentId)
+                        .header(HttpHeaders.AUTHORIZATION, adminJwt))
+                .andExpect(status().isNoContent());
+
+        var child = taskRepository.findById(childId).orElseThrow();
+        Assertions.assertNull(child.getParentId());
+        Assertions.assertNull(child.getParentUserId());
+        var refreshed = mvc.perform(
+                        get("/tasks/" + childId)
+                                .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        Assertions.assertNotEquals(eTag, refreshed.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @Order(29)
+    void actuator_ShouldExposeMetricsAndPoolsOnlyToAdmin() throws Exception {
+        var userJwt = getUserJwt();
+        var adminJwt = getAdminJwt();
+
+        for (String path : List.of("/actuator/metrics", "/actuator/datasourcepools")) {
+            mvc.perform(
+                    get(path)
+                            .header(HttpHeaders.AUTHORIZATION, userJwt))
+                    .andExpect(status().isForbidden());
+            mvc.perform(
+                    get(path)
+                            .header(HttpHeaders.AUTHORIZATION, adminJwt))
+                    .andExpect(status().isOk());
+        }
+        // сам статус health зависит от окружения, здесь важно только отсутствие запрета
+        var health = mvc.perform(
+                        get("/actuator/health")
+                                .header(HttpHeaders.AUTHORIZATION, userJwt))
+                .andReturn();
+        Assertions.assertNotEquals(HttpStatus.FORBIDDEN.value(), health.getResponse().getStatus());
+    }
+
+    @Test
+    @Order(30)
+    void findByTags_ShouldPageThroughFrequentTag_WithBoundedScanAndAclFirst() throws Exception {
+        var adminJwt = getAdminJwt();
+        var userJwt = getUserJwt();
+
+        for (int i = 1; i <= 4; i++) {
+            mvc.perform(
+                    post("/tasks")
+                            .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new TaskRequestDto("Bulk " + i,
+                                    "Frequent tag", TaskStatus.PENDING, i % 2 == 1 ? 1L : 2L, null, null,
+                                    Set.of("bulk"), null))))
+                    .andExpect(status().isCreated());
+        }
+        taskTagStatRepository.recalculate();
+
+        // окно обхода меньше числа задач, поэтому часть страниц неполная, но с курсором продолжения
+        List<String> titles = new ArrayList<>();
+        int pages = 0;
+        String next = null;
+        do {
+            var request = get("/tasks/tagged")
+                    .header(HttpHeaders.AUTHORIZATION, adminJwt)
+                    .param("tags", "bulk")
+                    .param("limit", "10");
+            if (next != null) {
+                request.param("after", next);
+            }
+            var body = objectMapper.readTree(mvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            body.get("items").forEach(item -> titles.add(item.get("title").asText()));
+            next = body.get("next").isNull() ? null : body.get("next").asText();
+            pages++;
+        } while (next != null && pages < 100);
+
+        Assertions.assertEquals(List.of("Bulk 1", "Bulk 2", "Bulk 3", "Bulk 4"), titles);
+        Assertions.assertTrue(pages > 1);
+
+        mvc.perform(
+                get("/tasks/tagged")
+                        .header(HttpHeaders.AUTHORIZATION, userJwt)
+                        .param("tags", "bulk"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items.[0].title").value("Bulk 1"))
+                .andExpect(jsonPath("$.items.[1].title").value("Bulk 3"))
+                .andExpect(jsonPath("$.next").isEmpty());
+    }
+
+    private Long taskIdByTitle(String title) {
+        return taskRepository.findAll().stream()
+                .filter(task -> task.getTitle().equals(title))
+                .findFirst().orElseThrow().getId();
+    }
+
     private String getAdminJwt() throws Exception {
         var login = new AuthenticationRequest("test admin", "admin123");
 
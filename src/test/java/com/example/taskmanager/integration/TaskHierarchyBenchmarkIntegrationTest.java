@@ -0,0 +1,189 @@
+package com.example.taskmanager.integration;
+
+import com.example.taskmanager.repository.TaskHierarchyRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// запросы дерева подзадач на глубокой цепочке и широком дереве среди большого числа посторонних задач:
+// время выполнения пишется в лог для сравнения между версиями, пороги взяты с большим запасом.
+// из обычного прогона исключен, запускается профилем: ./mvnw test -Pbenchmark
+@Tag("benchmark")
+@Testcontainers
+public class TaskHierarchyBenchmarkIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskHierarchyBenchmarkIntegrationTest.class);
+
+    private static final int CHAIN_DEPTH = 1000;
+    private static final int FAN_OUT = 100;
+    private static final int NOISE_TASKS = 50_000;
+    private static final int RUNS = 20;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static JdbcTemplate jdbc;
+    private static NamedParameterJdbcTemplate named;
+    private static long chainRoot;
+    private static long wideRoot;
+
+    @BeforeAll
+    static void setUp() {
+        Flyway.configure()
+                .dataSource(postgresContainer.getJdbcUrl(), postgresContainer.getUsername(), postgresContainer.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbc = new JdbcTemplate(new SingleConnectionDataSource(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword(), true));
+        named = new NamedParameterJdbcTemplate(jdbc);
+
+        jdbc.update("INSERT INTO users (username, password, role) " +
+                "SELECT 'owner' || n, 'x', 'ROLE_USER' FROM generate_series(1, 64) n");
+        jdbc.update("INSERT INTO tasks (title, description, status, created_at, updated_at, user_id) " +
+                "SELECT 'noise ' || n, 'd', 'PENDING', now(), now(), u.id FROM generate_series(1, ?) n " +
+                "JOIN users u ON u.username = 'owner' || (1 + n % 64)", NOISE_TASKS);
+
+        // глубокая цепочка: у каждой задачи одна подзадача, владельцы чередуются, поэтому шаги идут по разным секциям
+        chainRoot = insertTasks("chain", CHAIN_DEPTH);
+        jdbc.update("UPDATE tasks c SET parent_id = p.id, parent_user_id = p.user_id FROM tasks p " +
+                "WHERE c.title LIKE 'chain %' AND p.id = c.id - 1 AND c.id > ?", chainRoot);
+
+        // широкое дерево: корень, FAN_OUT подзадач и по FAN_OUT подзадач у каждой из них
+        wideRoot = insertTasks("wide", 1 + FAN_OUT + FAN_OUT * FAN_OUT);
+        jdbc.update("UPDATE tasks c SET parent_id = p.id, parent_user_id = p.user_id FROM tasks p " +
+                "WHERE c.title LIKE 'wide %' AND c.id > ? AND p.id = ? + (c.id - ? - 1) / ?",
+                wideRoot, wideRoot, wideRoot, FAN_OUT);
+        jdbc.execute("ANALYZE");
+    }
+
+    @Test
+    void subtree_ShouldWalkDeepChain_WithIndexLookups() {
+        List<Map<String, Object>> nodes = subtree(chainRoot, CHAIN_DEPTH, CHAIN_DEPTH + 1);
+        assertEquals(CHAIN_DEPTH - 1, nodes.size());
+        assertEquals(CHAIN_DEPTH - 1, ((Number) nodes.get(nodes.size() - 1).get("depth")).intValue());
+        assertEquals(10, subtree(chainRoot, 10, CHAIN_DEPTH).size());
+
+        double median = medianMillis(() -> subtree(chainRoot, CHAIN_DEPTH, CHAIN_DEPTH + 1));
+        logger.info("subtree, цепочка глубиной {}: медиана {} мс", CHAIN_DEPTH, millis(median));
+        assertTrue(median < 5000, "subtree on deep chain took " + median + " ms");
+
+        String plan = explain(TaskHierarchyRepository.SUBTREE_SQL, params(chainRoot, CHAIN_DEPTH, CHAIN_DEPTH + 1));
+        logger.info("План subtree на цепочке:\n{}", plan);
+        // каждый шаг рекурсии ищет детей по индексу, а не соединяет рабочую таблицу со всеми подзадачами
+        assertTrue(plan.contains("parent_id_idx"), plan);
+        assertFalse(plan.contains("Hash Join"), plan);
+    }
+
+    @Test
+    void subtree_ShouldStopAtLimit_OnWideTree() {
+        List<Map<String, Object>> nodes = subtree(wideRoot, CHAIN_DEPTH, 1001);
+        assertEquals(1001, nodes.size());
+        // обход по уровням: все прямые подзадачи идут раньше подзадач второго уровня
+        assertTrue(nodes.subList(0, FAN_OUT).stream().allMatch(node -> ((Number) node.get("depth")).intValue() == 1));
+
+        double median = medianMillis(() -> subtree(wideRoot, CHAIN_DEPTH, 1001));
+        logger.info("subtree, дерево {}x{}, первые 1001 подзадача: медиана {} мс", FAN_OUT, FAN_OUT, millis(median));
+        assertTrue(median < 5000, "subtree on wide tree took " + median + " ms");
+    }
+
+    @Test
+    void rollup_ShouldCountWholeTree() {
+        assertEquals((long) FAN_OUT + FAN_OUT * FAN_OUT, rollupTotal(wideRoot, CHAIN_DEPTH));
+        assertEquals(FAN_OUT, rollupTotal(wideRoot, 1));
+        assertEquals(CHAIN_DEPTH - 1, rollupTotal(chainRoot, CHAIN_DEPTH));
+
+        double wide = medianMillis(() -> rollupTotal(wideRoot, CHAIN_DEPTH));
+        double deep = medianMillis(() -> rollupTotal(chainRoot, CHAIN_DEPTH));
+        logger.info("rollup, дерево {}x{}: медиана {} мс; цепочка глубиной {}: медиана {} мс",
+                FAN_OUT, FAN_OUT, millis(wide), CHAIN_DEPTH, millis(deep));
+        assertTrue(wide < 5000, "rollup on wide tree took " + wide + " ms");
+        assertTrue(deep < 5000, "rollup on deep chain took " + deep + " ms");
+
+        logger.info("План rollup на широком дереве:\n{}",
+                explain(TaskHierarchyRepository.STATUS_ROLLUP_SQL, params(wideRoot, CHAIN_DEPTH, 0)));
+    }
+
+    @Test
+    void ancestorCheck_ShouldDetectCycle_FromBottomOfDeepChain() {
+        long leaf = chainRoot + CHAIN_DEPTH - 1;
+        assertTrue(isAncestorOrSelf(chainRoot, leaf));
+        assertFalse(isAncestorOrSelf(leaf, chainRoot));
+        assertFalse(isAncestorOrSelf(wideRoot, leaf));
+
+        double median = medianMillis(() -> isAncestorOrSelf(chainRoot, leaf));
+        logger.info("проверка цикла от листа цепочки глубиной {}: медиана {} мс", CHAIN_DEPTH, millis(median));
+        assertTrue(median < 5000, "ancestor check took " + median + " ms");
+    }
+
+    private static long insertTasks(String prefix, int count) {
+        // одна вставка на одном соединении получает идущие подряд id из последовательности
+        Long first = jdbc.queryForObject("WITH inserted AS (INSERT INTO tasks " +
+                "(title, description, status, created_at, updated_at, user_id) " +
+                "SELECT ? || ' ' || n, 'd', (ARRAY['PENDING', 'IN_PROGRESS', 'COMPLETED'])[1 + n % 3], now(), now(), " +
+                "(SELECT id FROM users WHERE username = 'owner' || (1 + n % 64)) " +
+                "FROM generate_series(1, ?) n ORDER BY n RETURNING id) SELECT min(id) FROM inserted",
+                Long.class, prefix, count);
+        return first;
+    }
+
+    private static List<Map<String, Object>> subtree(long id, int maxDepth, int limit) {
+        return named.queryForList(TaskHierarchyRepository.SUBTREE_SQL, params(id, maxDepth, limit));
+    }
+
+    private static long rollupTotal(long id, int maxDepth) {
+        return named.queryForList(TaskHierarchyRepository.STATUS_ROLLUP_SQL, params(id, maxDepth, 0)).stream()
+                .mapToLong(row -> ((Number) row.get("taskCount")).longValue())
+                .sum();
+    }
+
+    private static boolean isAncestorOrSelf(long ancestorId, long descendantId) {
+        return Boolean.TRUE.equals(named.queryForObject(TaskHierarchyRepository.IS_ANCESTOR_OR_SELF_SQL,
+                new MapSqlParameterSource("ancestorId", ancestorId).addValue("descendantId", descendantId),
+                Boolean.class));
+    }
+
+    private static MapSqlParameterSource params(long id, int maxDepth, int limit) {
+        return new MapSqlParameterSource("id", id).addValue("maxDepth", maxDepth).addValue("limit", limit);
+    }
+
+    private static String explain(String sql, MapSqlParameterSource params) {
+        return String.join("\n", named.queryForList("EXPLAIN (ANALYZE, BUFFERS) " + sql, params, String.class));
+    }
+
+    private static String millis(double value) {
+        return String.format("%.2f", value);
+    }
+
+    private static double medianMillis(Supplier<?> query) {
+        query.get();
+        double[] millis = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.taskmanager.integration;
+
+import com.example.taskmanager.dto.TaskRequestDto;
+import com.example.taskmanager.dto.TaskStatusUpdateRequest;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.repository.TaskOutboxRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.service.TaskOutboxRelay;
+import com.example.taskmanager.service.TaskService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "task.outbox.poll-interval=1h")
+@ActiveProfiles("test")
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TaskOutboxIntegrationTest {
+
+    @Container
+    private static final GenericContainer<?> redisContainer = new GenericContainer<>("redis:8-alpine")
+            .withExposedPorts(6379);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redisContainer::getHost);
+        registry.add("spring.data.redis.port", () -> redisContainer.getMappedPort(6379));
+
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgresContainer::getDriverClassName);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskOutboxRelay taskOutboxRelay;
+
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Test
+    @Order(1)
+    void taskMutations_ShouldWriteOutboxRowsInSameTransaction() {
+        taskService.create(new TaskRequestDto("outbox task", "task for outbox", TaskStatus.PENDING, 1L, null, null, null, null));
+
+        var task = taskRepository.findAll().stream()
+                .filter(t -> t.getTitle().equals("outbox task"))
+                .findFirst()
+                .orElseThrow();
+
+        taskService.updateOwnTaskStatus(task.getId(), new TaskStatusUpdateRequest(TaskStatus.COMPLETED), "test user");
+        taskService.delete(task.getId(), "test admin");
+
+        var events = taskOutboxRepository.findAll().stream()
+                .filter(e -> e.getTaskId().equals(task.getId()))
+                .toList();
+
+        assertEquals(3, events.size(), "Every mutation should write an outbox row");
+        assertTrue(events.stream().allMatch(e -> e.getPublishedAt() == null));
+    }
+
+    @Test
+    @Order(2)
+    void relay_ShouldPublishBatchToRedisStreamAndMarkRowsPublished() {
+        taskOutboxRelay.relay();
+
+        var records = stringRedisTemplate.opsForStream().range("tasks:outbox", Range.unbounded());
+
+        assertNotNull(records);
+        assertEquals(3, records.size());
+        assertEquals("CREATED", records.get(0).getValue().get("type"));
+        assertEquals("DELETED", records.get(2).getValue().get("type"));
+        assertTrue(taskOutboxRepository.findAll().stream().allMatch(e -> e.getPublishedAt() != null));
+    }
+}
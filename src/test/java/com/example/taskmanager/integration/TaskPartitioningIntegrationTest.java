@@ -0,0 +1,139 @@
+package com.example.taskmanager.integration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// миграции Flyway на настоящем PostgreSQL: секционирование tasks, отсечение секций и онлайн-перевод
+@Testcontainers
+public class TaskPartitioningIntegrationTest {
+
+    private static final Pattern PARTITION = Pattern.compile("tasks_p\\d{2}");
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Test
+    void migrations_ShouldPartitionTasksByUser_AndKeepSeedData() {
+        JdbcTemplate jdbc = migratedDatabase("fresh", null);
+
+        assertEquals("p", jdbc.queryForObject("SELECT relkind::text FROM pg_class WHERE oid = 'tasks'::regclass", String.class));
+        assertEquals(16, jdbc.queryForObject("SELECT count(*) FROM pg_inherits WHERE inhparent = 'tasks'::regclass", Integer.class));
+        assertEquals(2, jdbc.queryForObject("SELECT count(*) FROM tasks", Integer.class));
+
+        // идентификатор по-прежнему выдает последовательность, как ожидает GenerationType.IDENTITY
+        Long id = jdbc.queryForObject("INSERT INTO tasks (title, description, status, created_at, updated_at, user_id) " +
+                "VALUES ('t', 'd', 'PENDING', now(), now(), 1) RETURNING id", Long.class);
+        assertEquals(3L, id);
+    }
+
+    @Test
+    void userScopedQueries_ShouldPruneToSinglePartition() {
+        JdbcTemplate jdbc = migratedDatabase("pruning", null);
+        seedUsersAndTasks(jdbc, 40, 25);
+
+        // форма запросов findByUser, findByStatusAndUser и deleteByUserIdWithTombstones
+        assertEquals(1, partitionsIn(jdbc, "EXPLAIN SELECT * FROM tasks t WHERE t.user_id = 7 " +
+                "ORDER BY t.created_at DESC LIMIT 10"));
+        assertEquals(1, partitionsIn(jdbc, "EXPLAIN SELECT * FROM tasks t WHERE t.status = 'PENDING' AND t.user_id = 7"));
+        assertEquals(1, partitionsIn(jdbc, "EXPLAIN DELETE FROM tasks t WHERE t.user_id = 7"));
+        assertEquals(16, partitionsIn(jdbc, "EXPLAIN SELECT * FROM tasks t WHERE t.status = 'PENDING'"));
+
+        // подготовленный запрос с общим планом отсекает секции при запуске исполнителя
+        jdbc.execute("SET plan_cache_mode = force_generic_plan");
+        jdbc.execute("PREPARE by_user(BIGINT) AS SELECT * FROM tasks WHERE user_id = $1 ORDER BY updated_at, id");
+        String plan = explain(jdbc, "EXPLAIN EXECUTE by_user(7)");
+        assertTrue(plan.contains("Subplans Removed: 15"), plan);
+    }
+
+    @Test
+    void onlineProcedure_ShouldCopyConcurrentChanges_AndLetFlywaySkipConversion() throws Exception {
+        JdbcTemplate jdbc = migratedDatabase("online", "4");
+        seedUsersAndTasks(jdbc, 10, 30);
+
+        String script = new ClassPathResource("db/partitioning/tasks_hash_partitioning_online.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+        jdbc.execute(script);
+
+        Long lastId = jdbc.queryForObject("SELECT tasks_partitioning_backfill(0, 100)", Long.class);
+        // изменения во время копирования: в уже скопированной части, в еще не скопированной и новые строки
+        jdbc.update("UPDATE tasks SET status = 'COMPLETED', version = version + 1 WHERE id = 5");
+        jdbc.update("UPDATE tasks SET user_id = 2 WHERE id = 250");
+        jdbc.update("DELETE FROM tasks WHERE id IN (10, 260)");
+        jdbc.update("INSERT INTO tasks (title, description, status, created_at, updated_at, user_id) " +
+                "VALUES ('during backfill', 'd', 'PENDING', now(), now(), 3)");
+        while (lastId != null) {
+            lastId = jdbc.queryForObject("SELECT tasks_partitioning_backfill(?, 100)", Long.class, lastId);
+        }
+        List<String> expected = jdbc.queryForList(
+                "SELECT concat_ws('|', id, status, user_id, version) FROM tasks ORDER BY id", String.class);
+
+        jdbc.execute("CALL tasks_partitioning_swap()");
+        JdbcTemplate migrated = migratedDatabase("online", null);
+
+        assertEquals("p", migrated.queryForObject("SELECT relkind::text FROM pg_class WHERE oid = 'tasks'::regclass", String.class));
+        assertEquals(expected, migrated.queryForList(
+                "SELECT concat_ws('|', id, status, user_id, version) FROM tasks ORDER BY id", String.class));
+        migrated.execute("DROP TABLE tasks_unpartitioned");
+        assertNotNull(migrated.queryForObject("INSERT INTO tasks (title, description, status, created_at, updated_at, user_id) " +
+                "VALUES ('after swap', 'd', 'PENDING', now(), now(), 1) RETURNING id", Long.class));
+    }
+
+    private static JdbcTemplate migratedDatabase(String database, String target) {
+        JdbcTemplate admin = new JdbcTemplate(dataSource(postgresContainer.getDatabaseName()));
+        if (admin.queryForList("SELECT 1 FROM pg_database WHERE datname = ?", Integer.class, database).isEmpty()) {
+            admin.execute("CREATE DATABASE " + database);
+        }
+        String url = postgresContainer.getJdbcUrl().replace("/" + postgresContainer.getDatabaseName(), "/" + database);
+        var configuration = Flyway.configure()
+                .dataSource(url, postgresContainer.getUsername(), postgresContainer.getPassword())
+                .locations("classpath:db/migration");
+        if (target != null) {
+            configuration.target(target);
+        }
+        configuration.load().migrate();
+        // одно соединение: PREPARE и SET действуют в пределах сессии
+        return new JdbcTemplate(dataSource(database));
+    }
+
+    private static SingleConnectionDataSource dataSource(String database) {
+        String url = postgresContainer.getJdbcUrl().replace("/" + postgresContainer.getDatabaseName(), "/" + database);
+        return new SingleConnectionDataSource(url, postgresContainer.getUsername(), postgresContainer.getPassword(), true);
+    }
+
+    private static void seedUsersAndTasks(JdbcTemplate jdbc, int users, int tasksPerUser) {
+        jdbc.update("INSERT INTO users (username, password, role) " +
+                "SELECT 'user' || n, 'x', 'ROLE_USER' FROM generate_series(1, ?) n", users);
+        jdbc.update("INSERT INTO tasks (title, description, status, created_at, updated_at, user_id) " +
+                "SELECT 'task ' || n, 'd', (ARRAY['PENDING', 'IN_PROGRESS', 'COMPLETED'])[1 + n % 3], now(), now(), u.id " +
+                "FROM users u CROSS JOIN generate_series(1, ?) n", tasksPerUser);
+        jdbc.execute("ANALYZE");
+    }
+
+    private static long partitionsIn(JdbcTemplate jdbc, String explain) {
+        Matcher matcher = PARTITION.matcher(explain(jdbc, explain));
+        Set<String> partitions = matcher.results().map(match -> match.group()).collect(Collectors.toSet());
+        return partitions.size();
+    }
+
+    private static String explain(JdbcTemplate jdbc, String explain) {
+        return String.join("\n", jdbc.queryForList(explain, String.class));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.taskmanager.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionLeakRecorderTest {
+
+    private ConnectionLeakRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new ConnectionLeakRecorder();
+        recorder.attach();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recorder.detach();
+    }
+
+    @Test
+    void shouldRecordLeakWarningsFromHikari() {
+        LoggerFactory.getLogger(ConnectionLeakRecorder.LEAK_LOGGER).warn(
+                "Connection leak detection triggered for {} on thread {}, stack trace follows", "conn1", "worker-1",
+                new Exception("Apparent connection leak detected"));
+
+        var leaks = recorder.recentLeaks();
+
+        assertEquals(1, leaks.size());
+        assertTrue(leaks.get(0).message().contains("conn1"));
+        assertFalse(leaks.get(0).stackTrace().isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreUnleakedNoticesAndWarningsWithoutException() {
+        var leakLogger = LoggerFactory.getLogger(ConnectionLeakRecorder.LEAK_LOGGER);
+        leakLogger.info("Previously reported leaked connection {} on thread {} was returned to the pool (unleaked)",
+                "conn1", "worker-1");
+        leakLogger.warn("Connection leak detection triggered without stack trace");
+
+        assertTrue(recorder.recentLeaks().isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreOtherLoggers() {
+        LoggerFactory.getLogger("com.zaxxer.hikari.pool.HikariPool").warn("pool warning");
+
+        assertTrue(recorder.recentLeaks().isEmpty());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.taskmanager.resilience;
+
+import com.netflix.concurrency.limits.Limiter;
+import com.netflix.concurrency.limits.limit.FixedLimit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestConcurrencyLimiter limiter;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = RequestConcurrencyLimiter.builder()
+                .limit(FixedLimit.of(2))
+                .partitionResolver(ConcurrencyLimitFilter::partitionOf)
+                .partition(ConcurrencyLimitFilter.CRITICAL, 0.6)
+                .partition(ConcurrencyLimitFilter.STANDARD, 0.3)
+                .partition(ConcurrencyLimitFilter.BULK, 0.1)
+                .build();
+        filter = new ConcurrencyLimitFilter(limiter, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void partitionOf_ShouldPrioritizeReadsAndRefresh() {
+        assertEquals(ConcurrencyLimitFilter.CRITICAL, ConcurrencyLimitFilter.partitionOf(new MockHttpServletRequest("GET", "/tasks")));
+        assertEquals(ConcurrencyLimitFilter.CRITICAL, ConcurrencyLimitFilter.partitionOf(new MockHttpServletRequest("POST", "/api/auth/refresh")));
+        assertEquals(ConcurrencyLimitFilter.STANDARD, ConcurrencyLimitFilter.partitionOf(new MockHttpServletRequest("PATCH", "/tasks/1/status")));
+
+        authenticateAsAdmin();
+        assertEquals(ConcurrencyLimitFilter.BULK, ConcurrencyLimitFilter.partitionOf(new MockHttpServletRequest("PUT", "/tasks/1")));
+    }
+
+    @Test
+    void doFilter_ShouldShedAdminWrites_ButAdmitReads_WhenLimitIsReached() throws Exception {
+        authenticateAsAdmin();
+        Optional<Limiter.Listener> first = limiter.acquire(new MockHttpServletRequest("PUT", "/tasks/1"));
+        Optional<Limiter.Listener> second = limiter.acquire(new MockHttpServletRequest("PUT", "/tasks/2"));
+        assertTrue(first.isPresent() && second.isPresent());
+
+        MockHttpServletResponse readResponse = new MockHttpServletResponse();
+        MockFilterChain readChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/tasks"), readResponse, readChain);
+
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        MockFilterChain writeChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/tasks/3"), writeResponse, writeChain);
+
+        assertNotNull(readChain.getRequest());
+        assertEquals(200, readResponse.getStatus());
+        assertNull(writeChain.getRequest());
+        assertEquals(503, writeResponse.getStatus());
+        assertEquals("1", writeResponse.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("http.load_shedding.rejected").tag("partition", "bulk").counter().count());
+
+        first.get().onSuccess();
+        second.get().onSuccess();
+    }
+
+    @Test
+    void doFilter_ShouldReleasePermit_WhenChainCompletes() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/tasks"), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    void doFilter_ShouldBypassLimiter_ForTaskStreamAndActuator() throws Exception {
+        Optional<Limiter.Listener> first = limiter.acquire(new MockHttpServletRequest("GET", "/tasks"));
+        Optional<Limiter.Listener> second = limiter.acquire(new MockHttpServletRequest("GET", "/tasks"));
+        assertTrue(first.isPresent() && second.isPresent());
+
+        for (String path : List.of("/tasks/stream", "/actuator/health", "/actuator/prometheus")) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(new MockHttpServletRequest("GET", path), response, chain);
+
+            assertNotNull(chain.getRequest(), path);
+            assertEquals(200, response.getStatus(), path);
+        }
+
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/tasks"), limited, new MockFilterChain());
+        assertEquals(503, limited.getStatus());
+        assertEquals(2, limiter.getInflight());
+
+        first.get().onSuccess();
+        second.get().onSuccess();
+    }
+
+    private static void authenticateAsAdmin() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+}
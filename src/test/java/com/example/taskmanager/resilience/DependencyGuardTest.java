@@ -0,0 +1,175 @@
+package com.example.taskmanager.resilience;
+
+import com.example.taskmanager.config.ResilienceProperties;
+import com.example.taskmanager.datasource.ReadRoutingContext;
+import com.example.taskmanager.exception.DependencyUnavailableException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DependencyGuardTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DependencyGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        var dependency = new ResilienceProperties.Dependency(1, Duration.ZERO, Duration.ofMillis(20),
+                Duration.ofMillis(200), 50, 4, Duration.ofMinutes(1));
+        var properties = new ResilienceProperties(ResilienceProperties.BlacklistFailurePolicy.FAIL_CLOSED,
+                dependency, dependency);
+        guard = new RedisGuard(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        guard.shutdown();
+    }
+
+    @Test
+    void call_ShouldReturnResult() {
+        assertEquals("value", guard.call(() -> "value"));
+    }
+
+    @Test
+    void call_ShouldPropagateCallerThreadContext() {
+        //arrange
+        MDC.put("requestId", "req-1");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user", null, List.of()));
+        ReadRoutingContext.requirePrimary();
+
+        try {
+            //act
+            String seen = guard.call(() -> MDC.get("requestId") + ":"
+                    + SecurityContextHolder.getContext().getAuthentication().getName() + ":"
+                    + ReadRoutingContext.isPrimaryRequired() + ":"
+                    + Thread.currentThread().isVirtual());
+
+            //assert
+            assertEquals("req-1:user:true:true", seen);
+        } finally {
+            MDC.clear();
+            SecurityContextHolder.clearContext();
+            ReadRoutingContext.clear();
+        }
+    }
+
+    @Test
+    void call_ShouldTimeOut_WhenDependencyIsSlow() {
+        assertThrows(DependencyUnavailableException.class, () -> guard.call(() -> sleep(1_000)));
+
+        assertEquals(1.0, meterRegistry.get("dependency.rejected").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void call_ShouldRejectImmediately_WhenBulkheadIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> guard.call(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(DependencyUnavailableException.class, () -> guard.call(() -> "second"));
+        assertEquals(1.0, meterRegistry.get("dependency.rejected").tag("reason", "bulkhead_full").counter().count());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void call_ShouldOpenCircuit_AfterInfrastructureFailures() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(QueryTimeoutException.class, () -> guard.call(() -> {
+                throw new QueryTimeoutException("slow");
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.state());
+        assertThrows(DependencyUnavailableException.class, () -> guard.call(() -> "value"));
+    }
+
+    @Test
+    void call_ShouldNotOpenCircuit_OnBusinessExceptions() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalArgumentException.class, () -> guard.call(() -> {
+                throw new IllegalArgumentException("user not found");
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, guard.state());
+    }
+
+    @Test
+    void callInline_ShouldRunOnCallerThread_AndReleaseBulkhead() throws Throwable {
+        Thread caller = Thread.currentThread();
+
+        assertSame(caller, guard.callInline(Thread::currentThread));
+        assertEquals("second", guard.callInline(() -> "second"));
+    }
+
+    @Test
+    void callInline_ShouldOpenCircuit_AfterInfrastructureFailures() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(QueryTimeoutException.class, () -> guard.callInline(() -> {
+                throw new QueryTimeoutException("slow");
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.state());
+        assertThrows(DependencyUnavailableException.class, () -> guard.callInline(() -> "value"));
+        assertEquals(1.0, meterRegistry.get("dependency.rejected").tag("reason", "circuit_open").counter().count());
+    }
+
+    @Test
+    void adaptiveTimeout_ShouldFollowObservedLatencyWithinBounds() {
+        AdaptiveTimeout timeout = new AdaptiveTimeout(Duration.ofMillis(10), Duration.ofMillis(500));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), timeout.currentNanos());
+
+        for (int i = 0; i < 50; i++) {
+            timeout.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), timeout.currentNanos());
+
+        for (int i = 0; i < 50; i++) {
+            timeout.record(TimeUnit.MILLISECONDS.toNanos(60));
+        }
+        long current = timeout.currentNanos();
+        assertTrue(current >= TimeUnit.MILLISECONDS.toNanos(60) && current < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "late";
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.taskmanager.resilience;
+
+import com.example.taskmanager.config.ResilienceProperties;
+import com.example.taskmanager.dto.TeamResponseDto;
+import com.example.taskmanager.entity.Team;
+import com.example.taskmanager.exception.DependencyUnavailableException;
+import com.example.taskmanager.repository.TeamMemberRepository;
+import com.example.taskmanager.repository.TeamRepository;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.service.TeamService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostgresGuardAspectTest {
+
+    private TeamRepository teamRepository;
+    private PostgresGuard postgresGuard;
+    private TeamService teamService;
+
+    @BeforeEach
+    void setUp() {
+        teamRepository = Mockito.mock(TeamRepository.class);
+        TeamMemberRepository teamMemberRepository = Mockito.mock(TeamMemberRepository.class);
+        Mockito.when(teamMemberRepository.findByTeamId(1L)).thenReturn(List.of());
+
+        var dependency = new ResilienceProperties.Dependency(4, Duration.ZERO, Duration.ofMillis(50),
+                Duration.ofSeconds(1), 50, 4, Duration.ofMinutes(1));
+        postgresGuard = new PostgresGuard(new ResilienceProperties(
+                ResilienceProperties.BlacklistFailurePolicy.FAIL_CLOSED, dependency, dependency), new SimpleMeterRegistry());
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(
+                new TeamService(teamRepository, teamMemberRepository, Mockito.mock(UserRepository.class)));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new PostgresGuardAspect(postgresGuard));
+        teamService = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        postgresGuard.shutdown();
+    }
+
+    @Test
+    void requestTransaction_ShouldBeRejected_WhenCircuitIsOpen() {
+        //arrange
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Mockito.when(teamRepository.findById(1L)).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(DataAccessResourceFailureException.class, () -> teamService.findById(1L));
+        }
+
+        //act
+        //assert
+        assertThrows(DependencyUnavailableException.class, () -> teamService.findById(1L));
+        Mockito.verify(teamRepository, Mockito.times(4)).findById(1L);
+    }
+
+    @Test
+    void backgroundCall_ShouldBypassGuard() {
+        //arrange
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Mockito.when(teamRepository.findById(1L)).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(DataAccessResourceFailureException.class, () -> teamService.findById(1L));
+        }
+        assertThrows(DependencyUnavailableException.class, () -> teamService.findById(1L));
+        RequestContextHolder.resetRequestAttributes();
+        Mockito.reset(teamRepository);
+        Mockito.when(teamRepository.findById(1L)).thenReturn(Optional.of(Team.builder().id(1L).name("core").build()));
+
+        //act
+        TeamResponseDto team = teamService.findById(1L);
+
+        //assert
+        assertEquals("core", team.name());
+    }
+}
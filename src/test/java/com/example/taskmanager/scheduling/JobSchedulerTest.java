@@ -0,0 +1,75 @@
+package com.example.taskmanager.scheduling;
+
+import com.example.taskmanager.config.SchedulerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+public class JobSchedulerTest {
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void execute_ShouldSkipLeaderOnlyJob_WhenNodeIsNotLeader() {
+        //arrange
+        ClusterJob job = job("stats", true);
+        Mockito.when(leaderElection.isLeader()).thenReturn(false);
+
+        //act
+        scheduler(job).execute(job);
+
+        //assert
+        Mockito.verify(job, Mockito.never()).run();
+    }
+
+    @Test
+    void execute_ShouldRunSharedJob_WithoutLeadership() {
+        //arrange
+        ClusterJob job = job("archive", false);
+
+        //act
+        scheduler(job).execute(job);
+
+        //assert
+        Mockito.verify(job).run();
+        Mockito.verifyNoInteractions(leaderElection);
+    }
+
+    @Test
+    void execute_ShouldRecordFailure_AndNotPropagate() {
+        //arrange
+        ClusterJob job = job("stats", true);
+        Mockito.when(leaderElection.isLeader()).thenReturn(true);
+        Mockito.doThrow(new IllegalStateException("boom")).when(job).run();
+
+        //act
+        scheduler(job).execute(job);
+
+        //assert
+        assertEquals(1, meterRegistry.timer("scheduler.job.duration", "job", "stats", "result", "failure").count());
+    }
+
+    private JobScheduler scheduler(ClusterJob job) {
+        return new JobScheduler(List.of(job), leaderElection,
+                new SchedulerProperties(true, 1, Duration.ofSeconds(5), 1L), meterRegistry);
+    }
+
+    private static ClusterJob job(String name, boolean leaderOnly) {
+        ClusterJob job = Mockito.mock(ClusterJob.class);
+        Mockito.lenient().when(job.name()).thenReturn(name);
+        Mockito.lenient().when(job.leaderOnly()).thenReturn(leaderOnly);
+        return job;
+    }
+}
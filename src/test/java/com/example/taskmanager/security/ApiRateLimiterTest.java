@@ -0,0 +1,125 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.config.ApiRateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ApiRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    private StringRedisTemplate redisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ApiRateLimiter apiRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // 60 запросов в минуту = 1 в секунду, всплеск до 3 подряд
+        var properties = new ApiRateLimitProperties(true, Duration.ofMinutes(1), 60, 3, 600, 30, Duration.ofSeconds(1));
+        apiRateLimiter = new ApiRateLimiter(redisTemplate, properties, meterRegistry, clock::get);
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowBurstAndThenReject() {
+        assertEquals(0, apiRateLimiter.tryAcquire("user", false));
+        assertEquals(0, apiRateLimiter.tryAcquire("user", false));
+        assertEquals(0, apiRateLimiter.tryAcquire("user", false));
+
+        long wait = apiRateLimiter.tryAcquire("user", false);
+
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+        assertEquals(1.0, meterRegistry.get("api.rate_limit").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowAgain_AfterEmissionInterval() {
+        for (int i = 0; i < 3; i++) {
+            apiRateLimiter.tryAcquire("user", false);
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(0, apiRateLimiter.tryAcquire("user", false));
+        assertTrue(apiRateLimiter.tryAcquire("user", false) > 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldUseLargerBudgetForAdmin_AndSeparateBucketsPerUser() {
+        for (int i = 0; i < 30; i++) {
+            assertEquals(0, apiRateLimiter.tryAcquire("admin", true));
+        }
+        assertTrue(apiRateLimiter.tryAcquire("admin", true) > 0);
+
+        assertEquals(0, apiRateLimiter.tryAcquire("user", false));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void synchronize_ShouldApplyRequestsFromOtherInstances() {
+        apiRateLimiter.tryAcquire("user", false);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(1L, true));
+        apiRateLimiter.synchronize();
+
+        apiRateLimiter.tryAcquire("user", false);
+        // другой экземпляр за это время пропустил еще 2 запроса этого пользователя
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(4L, true));
+        apiRateLimiter.synchronize();
+
+        assertTrue(apiRateLimiter.tryAcquire("user", false) > 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void synchronize_ShouldApplyForeignRequests_WhenLocalBucketHasRecovered() {
+        apiRateLimiter.tryAcquire("user", false);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(1L, true));
+        apiRateLimiter.synchronize();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        apiRateLimiter.tryAcquire("user", false);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        // TAT этого экземпляра уже в прошлом, а другой экземпляр пропустил 3 запроса подряд
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(5L, true));
+        apiRateLimiter.synchronize();
+
+        assertEquals(TimeUnit.SECONDS.toNanos(1), apiRateLimiter.tryAcquire("user", false));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void synchronize_ShouldKeepLocalLimits_WhenRedisIsUnavailable() {
+        apiRateLimiter.tryAcquire("user", false);
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertDoesNotThrow(() -> apiRateLimiter.synchronize());
+        assertEquals(0, apiRateLimiter.tryAcquire("user", false));
+    }
+
+    @Test
+    void synchronize_ShouldEvictIdleBuckets() {
+        apiRateLimiter.tryAcquire("user", false);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(1L, true));
+        apiRateLimiter.synchronize();
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        apiRateLimiter.synchronize();
+
+        assertEquals(0, apiRateLimiter.trackedUsers());
+    }
+}
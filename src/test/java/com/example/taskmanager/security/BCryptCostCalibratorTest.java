@@ -0,0 +1,32 @@
+package com.example.taskmanager.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BCryptCostCalibratorTest {
+
+    @Test
+    void calibrate_ShouldReturnMinStrength_WhenBudgetIsTooSmall() {
+        int strength = BCryptCostCalibrator.calibrate(Duration.ofNanos(1), 4, 8);
+
+        assertEquals(4, strength);
+    }
+
+    @Test
+    void calibrate_ShouldNotExceedMaxStrength_WhenBudgetIsHuge() {
+        int strength = BCryptCostCalibrator.calibrate(Duration.ofMinutes(1), 4, 6);
+
+        assertEquals(6, strength);
+    }
+
+    @Test
+    void calibrate_ShouldStayWithinBounds() {
+        int strength = BCryptCostCalibrator.calibrate(Duration.ofMillis(50), 4, 12);
+
+        assertTrue(strength >= 4 && strength <= 12);
+    }
+}
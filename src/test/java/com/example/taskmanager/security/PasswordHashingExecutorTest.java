@@ -0,0 +1,128 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.config.PasswordHashingProperties;
+import com.example.taskmanager.exception.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        var properties = new PasswordHashingProperties(1, 1, Duration.ofSeconds(5), 10,
+                Duration.ofMillis(250), 10, 14);
+        executor = new PasswordHashingExecutor(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_ShouldReturnResultAndRecordMetrics() {
+        String result = executor.execute("encode", () -> "hash");
+
+        assertEquals("hash", result);
+        assertEquals(1, meterRegistry.get("password.hash.duration").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("password.hash.queue.wait").timer().count());
+    }
+
+    @Test
+    void execute_ShouldRejectWithOverloadedException_WhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.execute("matches", () -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.execute("matches", () -> "second"));
+        waitUntilQueued();
+
+        assertThrows(PasswordHashingOverloadedException.class, () -> executor.execute("matches", () -> "third"));
+        assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_ShouldPropagateHashingException() {
+        assertThrows(IllegalArgumentException.class, () -> executor.execute("matches", () -> {
+            throw new IllegalArgumentException("bad hash");
+        }));
+    }
+
+    @Test
+    void hasSpareCapacity_ShouldReturnTrue_WhenPoolIsIdle() {
+        assertTrue(executor.hasSpareCapacity());
+    }
+
+    @Test
+    void trySubmitBackground_ShouldRunTask_WhenPoolIsIdle() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+
+        assertTrue(executor.trySubmitBackground("rehash", done::countDown));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void hasSpareCapacity_ShouldReturnFalse_WhenQueueIsBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.execute("matches", () -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.execute("matches", () -> "second"));
+        waitUntilQueued();
+
+        assertFalse(executor.hasSpareCapacity());
+        assertFalse(executor.trySubmitBackground("rehash", () -> fail("should not run")));
+        assertEquals(0.0, meterRegistry.get("password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private void waitUntilQueued() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (meterRegistry.get("password.hash.queue.depth").gauge().value() >= 1) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("Task was not queued");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.taskmanager.security;
+
+import com.example.taskmanager.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PasswordUpgradeServiceTest {
+
+    private PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordUpgradeService passwordUpgradeService;
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder bcrypt = new TargetCostBCryptPasswordEncoder(5);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        passwordHashingExecutor = mock(PasswordHashingExecutor.class);
+        when(passwordHashingExecutor.execute(anyString(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(1).get());
+        when(passwordHashingExecutor.hasSpareCapacity()).thenReturn(true);
+        passwordEncoder = new BoundedPasswordEncoder(delegating, passwordHashingExecutor);
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordUpgradeService = new PasswordUpgradeService(passwordEncoder, passwordHashingExecutor, userRepository,
+                meterRegistry);
+    }
+
+    @Test
+    void upgradeEncoding_ShouldReturnTrue_ForLegacyHashWithoutPrefix() {
+        String legacy = new BCryptPasswordEncoder(5).encode("secret");
+
+        assertTrue(passwordEncoder.upgradeEncoding(legacy));
+        assertTrue(passwordEncoder.matches("secret", legacy));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldReturnTrue_WhenCostDiffersFromTarget() {
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret");
+        String stronger = "{bcrypt}" + new BCryptPasswordEncoder(6).encode("secret");
+
+        assertTrue(passwordEncoder.upgradeEncoding(weaker));
+        assertTrue(passwordEncoder.upgradeEncoding(stronger));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldReturnFalse_WhenHashMatchesTarget() {
+        assertFalse(passwordEncoder.upgradeEncoding(passwordEncoder.encode("secret")));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldDefer_WhenHashingPoolIsBusy() {
+        when(passwordHashingExecutor.hasSpareCapacity()).thenReturn(false);
+
+        assertFalse(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+    }
+
+    @Test
+    void login_ShouldReturnBeforeRehash_AndUpdateOnlyUnchangedPassword() {
+        //arrange
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        DaoAuthenticationProvider provider = provider(legacy);
+        ArgumentCaptor<Runnable> rehash = ArgumentCaptor.forClass(Runnable.class);
+        when(passwordHashingExecutor.trySubmitBackground(eq("rehash"), rehash.capture())).thenReturn(true);
+        when(userRepository.updatePasswordIfUnchanged(eq("user"), eq(legacy), anyString())).thenReturn(1);
+
+        //act
+        Authentication result = provider.authenticate(new UsernamePasswordAuthenticationToken("user", "secret"));
+
+        //assert
+        assertTrue(result.isAuthenticated());
+        verifyNoInteractions(userRepository);
+
+        rehash.getValue().run();
+        ArgumentCaptor<String> upgraded = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePasswordIfUnchanged(eq("user"), eq(legacy), upgraded.capture());
+        assertTrue(upgraded.getValue().startsWith("{bcrypt}$2a$05$"));
+        assertTrue(passwordEncoder.matches("secret", upgraded.getValue()));
+        assertEquals(1.0, meterRegistry.get("password.rehash").tag("result", "upgraded").counter().count());
+    }
+
+    @Test
+    void login_ShouldSkipRehash_WhenHashIsCurrent() {
+        //arrange
+        DaoAuthenticationProvider provider = provider(passwordEncoder.encode("secret"));
+
+        //act
+        Authentication result = provider.authenticate(new UsernamePasswordAuthenticationToken("user", "secret"));
+
+        //assert
+        assertTrue(result.isAuthenticated());
+        verify(passwordHashingExecutor, never()).trySubmitBackground(anyString(), any());
+    }
+
+    @Test
+    void login_ShouldDropRehash_WhenHashingPoolRejectsIt() {
+        //arrange
+        DaoAuthenticationProvider provider = provider(new BCryptPasswordEncoder(4).encode("secret"));
+        when(passwordHashingExecutor.trySubmitBackground(anyString(), any())).thenReturn(false);
+
+        //act
+        Authentication result = provider.authenticate(new UsernamePasswordAuthenticationToken("user", "secret"));
+
+        //assert
+        assertTrue(result.isAuthenticated());
+        verifyNoInteractions(userRepository);
+        assertEquals(1.0, meterRegistry.get("password.rehash").tag("result", "deferred").counter().count());
+    }
+
+    @Test
+    void upgradeAsync_ShouldSwallowDatabaseFailure() {
+        //arrange
+        UserDetails user = User.withUsername("user").password(new BCryptPasswordEncoder(4).encode("secret"))
+                .authorities("ROLE_USER").build();
+        when(passwordHashingExecutor.trySubmitBackground(anyString(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(userRepository.updatePasswordIfUnchanged(anyString(), anyString(), anyString()))
+                .thenThrow(new IllegalStateException("db down"));
+
+        //act
+        assertDoesNotThrow(() -> passwordUpgradeService.upgradeAsync(user, "secret"));
+
+        //assert
+        assertEquals(1.0, meterRegistry.get("password.rehash").tag("result", "failed").counter().count());
+    }
+
+    private DaoAuthenticationProvider provider(String storedPassword) {
+        UserDetails user = User.withUsername("user").password(storedPassword).authorities("ROLE_USER").build();
+        DaoAuthenticationProvider provider = new UpgradingAuthenticationProvider(passwordUpgradeService);
+        provider.setUserDetailsService(username -> User.withUserDetails(user).build());
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.LoginRateLimitProperties;
+import com.example.taskmanager.config.ResilienceProperties;
+import com.example.taskmanager.config.ResilienceProperties.BlacklistFailurePolicy;
+import com.example.taskmanager.exception.LoginRateLimitExceededException;
+import com.example.taskmanager.resilience.RedisGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LoginRateLimiterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimiter loginRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        var properties = new LoginRateLimitProperties(true, 5, Duration.ofMinutes(1),
+                20, Duration.ofSeconds(6), 100);
+        var dependency = new ResilienceProperties.Dependency(32, Duration.ZERO, Duration.ofMillis(50),
+                Duration.ofSeconds(1), 50, 20, Duration.ofSeconds(10));
+        var redisGuard = new RedisGuard(new ResilienceProperties(BlacklistFailurePolicy.FAIL_CLOSED, dependency, dependency),
+                meterRegistry);
+        loginRateLimiter = new LoginRateLimiter(redisTemplate, redisGuard, properties, meterRegistry);
+    }
+
+    @Test
+    void checkAllowed_ShouldPass_WhenBothBucketsHaveTokens() {
+        stubScript(List.of(1L, 0L, 0L));
+
+        assertDoesNotThrow(() -> loginRateLimiter.checkAllowed(" User ", "10.0.0.1"));
+
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("login:rl:user:user", "login:rl:ip:10.0.0.1")),
+                eq("5"), eq("60000"), eq("20"), eq("6000"));
+    }
+
+    @Test
+    void checkAllowed_ShouldThrowWithRetryAfter_WhenRedisDenies() {
+        stubScript(List.of(0L, 42_500L, 1L));
+
+        var ex = assertThrows(LoginRateLimitExceededException.class,
+                () -> loginRateLimiter.checkAllowed("user", "10.0.0.1"));
+
+        assertEquals(43, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("login.rate_limit").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void checkAllowed_ShouldRejectLocally_WhileKeyIsBlocked() {
+        stubScript(List.of(0L, 30_000L, 2L));
+        assertThrows(LoginRateLimitExceededException.class, () -> loginRateLimiter.checkAllowed("user", "10.0.0.1"));
+
+        assertThrows(LoginRateLimitExceededException.class, () -> loginRateLimiter.checkAllowed("other", "10.0.0.1"));
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any(), any(), any());
+        assertEquals(1.0, meterRegistry.get("login.rate_limit").tag("result", "rejected_local").counter().count());
+    }
+
+    @Test
+    void checkAllowed_ShouldFailOpen_WhenRedisIsUnavailable() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertDoesNotThrow(() -> loginRateLimiter.checkAllowed("user", "10.0.0.1"));
+        assertEquals(1.0, meterRegistry.get("login.rate_limit").tag("result", "redis_error").counter().count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubScript(List<Long> result) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any()))
+                .thenReturn(result);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.OverdueTaskProperties;
+import com.example.taskmanager.entity.JobWatermark;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.JobWatermarkRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+public class OverdueTaskDetectorTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private JobWatermarkRepository watermarkRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OverdueTaskDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new OverdueTaskProperties(true, Duration.ofMinutes(1), Duration.ofMinutes(5), 3, 2,
+                Duration.ofMinutes(1));
+        detector = new OverdueTaskDetector(taskRepository, watermarkRepository, eventPublisher, properties,
+                new SimpleMeterRegistry(), transactionManager);
+    }
+
+    @Test
+    void run_ShouldOnlyStoreWatermark_WhenFirstRun() {
+        //arrange
+        Mockito.when(watermarkRepository.findById(OverdueTaskDetector.NAME)).thenReturn(Optional.empty());
+
+        //act
+        detector.run();
+
+        //assert
+        Mockito.verify(watermarkRepository).save(Mockito.any(JobWatermark.class));
+        Mockito.verifyNoInteractions(taskRepository, eventPublisher);
+    }
+
+    @Test
+    void run_ShouldPublishOverdueEventsByBucketsAndAdvanceWatermark() {
+        //arrange
+        LocalDateTime watermark = LocalDateTime.now().minusMinutes(12);
+        User user = new User(1L, "john", "password", null);
+        Task first = task(1L, user, watermark.plusMinutes(1));
+        Task second = task(2L, user, watermark.plusMinutes(2));
+        Task third = task(3L, user, watermark.plusMinutes(3));
+
+        Mockito.when(watermarkRepository.findById(OverdueTaskDetector.NAME))
+                .thenReturn(Optional.of(new JobWatermark(OverdueTaskDetector.NAME, watermark)));
+        Mockito.when(taskRepository.findRescheduledIntoPastBatch(
+                        Mockito.eq(watermark), Mockito.any(), Mockito.anyLong(), Mockito.eq(2)))
+                .thenReturn(List.of());
+        Mockito.when(taskRepository.findDueBatch(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.eq(2)))
+                .thenReturn(List.of(first, second), List.of(third), List.of());
+
+        //act
+        detector.run();
+
+        //assert
+        Mockito.verify(taskRepository).findDueBatch(watermark, Long.MAX_VALUE, watermark.plusMinutes(5), 2);
+        Mockito.verify(taskRepository).findDueBatch(second.getDueAt(), 2L, watermark.plusMinutes(5), 2);
+
+        ArgumentCaptor<TaskChangedEvent> events = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        Mockito.verify(eventPublisher, Mockito.times(3)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream().allMatch(event -> event.type() == TaskChangeType.OVERDUE));
+        Mockito.verify(taskRepository).markOverdueNotified(new Long[]{1L, 1L}, new Long[]{1L, 2L}, new Long[]{0L, 0L});
+        Mockito.verify(taskRepository).markOverdueNotified(new Long[]{1L}, new Long[]{3L}, new Long[]{0L});
+
+        ArgumentCaptor<JobWatermark> saved = ArgumentCaptor.forClass(JobWatermark.class);
+        Mockito.verify(watermarkRepository, Mockito.times(3)).save(saved.capture());
+        assertEquals(watermark.plusMinutes(5), saved.getAllValues().get(0).getPosition());
+        assertEquals(watermark.plusMinutes(10), saved.getAllValues().get(1).getPosition());
+        assertTrue(saved.getValue().getPosition().isAfter(watermark.plusMinutes(10)));
+    }
+
+    @Test
+    void run_ShouldLimitScannedBuckets_WhenFarBehind() {
+        //arrange
+        LocalDateTime watermark = LocalDateTime.now().minusDays(1);
+        Mockito.when(watermarkRepository.findById(OverdueTaskDetector.NAME))
+                .thenReturn(Optional.of(new JobWatermark(OverdueTaskDetector.NAME, watermark)));
+        Mockito.when(taskRepository.findRescheduledIntoPastBatch(
+                        Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.anyInt()))
+                .thenReturn(List.of());
+        Mockito.when(taskRepository.findDueBatch(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.anyInt()))
+                .thenReturn(List.of());
+
+        //act
+        detector.run();
+
+        //assert
+        Mockito.verify(taskRepository, Mockito.times(3))
+                .findDueBatch(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.anyInt());
+        ArgumentCaptor<JobWatermark> saved = ArgumentCaptor.forClass(JobWatermark.class);
+        Mockito.verify(watermarkRepository, Mockito.times(3)).save(saved.capture());
+        assertEquals(watermark.plusMinutes(15), saved.getValue().getPosition());
+        Mockito.verifyNoInteractions(eventPublisher);
+        Mockito.verify(taskRepository, Mockito.never()).markOverdueNotified(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void run_ShouldPublishTasksRescheduledIntoScannedPast() {
+        //arrange
+        LocalDateTime watermark = LocalDateTime.now().minusSeconds(30);
+        User user = new User(1L, "john", "password", null);
+        Task rescheduled = task(7L, user, watermark.minusHours(1));
+
+        Mockito.when(watermarkRepository.findById(OverdueTaskDetector.NAME))
+                .thenReturn(Optional.of(new JobWatermark(OverdueTaskDetector.NAME, watermark)));
+        Mockito.when(taskRepository.findRescheduledIntoPastBatch(
+                        watermark, watermark.minusMinutes(1), Long.MAX_VALUE, 2))
+                .thenReturn(List.of(rescheduled));
+        Mockito.when(taskRepository.findDueBatch(Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.anyInt()))
+                .thenReturn(List.of());
+
+        //act
+        detector.run();
+
+        //assert
+        ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(7L, event.getValue().taskId());
+        assertEquals(TaskChangeType.OVERDUE, event.getValue().type());
+        // объявленный срок отмечается, чтобы следующий проход окна commit-grace не повторил событие
+        Mockito.verify(taskRepository).markOverdueNotified(new Long[]{1L}, new Long[]{7L}, new Long[]{0L});
+    }
+
+    private static Task task(Long id, User user, LocalDateTime dueAt) {
+        LocalDateTime createdAt = dueAt.minusDays(1);
+        return new Task(id, "task " + id, "description", TaskStatus.PENDING, createdAt, createdAt, user, 0L,
+                dueAt, TaskPriority.NORMAL, null, null, null, null, List.of());
+    }
+}
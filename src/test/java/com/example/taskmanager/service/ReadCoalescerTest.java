@@ -0,0 +1,88 @@
+package com.example.taskmanager.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReadCoalescer readCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        readCoalescer = new ReadCoalescer(meterRegistry);
+    }
+
+    @Test
+    void execute_ShouldShareInFlightLoad_ForIdenticalKeys() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> readCoalescer.execute("q", "admin", () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "result";
+        }, 1));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> readCoalescer.execute("q", "admin", () -> {
+            loads.incrementAndGet();
+            return "other";
+        }, 1));
+        waitUntilCoalesced();
+        release.countDown();
+
+        assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("task.read.coalescing").tag("result", "executed").counter().count());
+    }
+
+    @Test
+    void execute_ShouldNotShare_BetweenDifferentScopes() {
+        String first = readCoalescer.execute("q", "user:a", () -> "a", 1);
+        String second = readCoalescer.execute("q", "user:b", () -> "b", 1);
+
+        assertEquals("a", first);
+        assertEquals("b", second);
+        assertEquals(0.0, meterRegistry.get("task.read.coalescing.in_flight").gauge().value());
+    }
+
+    @Test
+    void execute_ShouldPropagateLeaderException_AndAllowRetry() {
+        assertThrows(IllegalStateException.class, () -> readCoalescer.execute("q", "admin", () -> {
+            throw new IllegalStateException("db down");
+        }, 1));
+
+        assertEquals("ok", readCoalescer.execute("q", "admin", () -> "ok", 1));
+    }
+
+    private void waitUntilCoalesced() throws InterruptedException {
+        for (int i = 0; i < 250; i++) {
+            if (meterRegistry.find("task.read.coalescing").tag("result", "coalesced").counter() != null) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("Follower did not join in-flight load");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
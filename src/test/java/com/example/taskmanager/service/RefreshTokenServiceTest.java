@@ -1,5 +1,9 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.config.ResilienceProperties;
+import com.example.taskmanager.config.ResilienceProperties.BlacklistFailurePolicy;
+import com.example.taskmanager.resilience.RedisGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,7 +36,11 @@ public class RefreshTokenServiceTest {
 
     @BeforeEach
     void setUp() {
-        refreshTokenService = new RefreshTokenService(redisTemplate);
+        var dependency = new ResilienceProperties.Dependency(32, Duration.ZERO, Duration.ofMillis(50),
+                Duration.ofSeconds(1), 50, 20, Duration.ofSeconds(10));
+        var redisGuard = new RedisGuard(new ResilienceProperties(BlacklistFailurePolicy.FAIL_CLOSED, dependency, dependency),
+                new SimpleMeterRegistry());
+        refreshTokenService = new RefreshTokenService(redisTemplate, redisGuard);
         username = "username";
     }
 
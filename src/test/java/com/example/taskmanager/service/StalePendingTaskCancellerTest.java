@@ -0,0 +1,76 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.StalePendingTaskProperties;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+public class StalePendingTaskCancellerTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StalePendingTaskCanceller canceller;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new StalePendingTaskProperties(true, Duration.ofDays(90), Duration.ofHours(1), 2, 5);
+        canceller = new StalePendingTaskCanceller(taskRepository, eventPublisher, properties,
+                new SimpleMeterRegistry(), transactionManager);
+    }
+
+    @Test
+    void run_ShouldCancelBatchesAndPublishEvents() {
+        //arrange
+        User user = new User(1L, "john", "password", null);
+        Task first = task(1L, user);
+        Task second = task(2L, user);
+        Task third = task(3L, user);
+        Mockito.when(taskRepository.lockStalePendingBatch(Mockito.any(LocalDateTime.class), Mockito.eq(2)))
+                .thenReturn(List.of(first, second), List.of(third));
+
+        //act
+        canceller.run();
+
+        //assert
+        assertEquals(TaskStatus.CANCELLED, first.getStatus());
+        assertEquals(TaskStatus.CANCELLED, third.getStatus());
+        Mockito.verify(transactionManager, Mockito.times(2)).commit(Mockito.any());
+
+        ArgumentCaptor<TaskChangedEvent> events = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        Mockito.verify(eventPublisher, Mockito.times(3)).publishEvent(events.capture());
+        assertEquals(TaskChangeType.UPDATED, events.getValue().type());
+    }
+
+    private static Task task(Long id, User user) {
+        LocalDateTime updatedAt = LocalDateTime.now().minusDays(100);
+        return new Task(id, "task " + id, "description", TaskStatus.PENDING, updatedAt, updatedAt, user, 0L, null, TaskPriority.NORMAL, null, null, null, null, List.of());
+    }
+}
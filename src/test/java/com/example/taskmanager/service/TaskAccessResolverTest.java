@@ -0,0 +1,110 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.RoleType;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.ArchivedTaskRepository;
+import com.example.taskmanager.repository.TaskAclRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TeamMemberRepository;
+import com.example.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskAccessResolverTest {
+
+    private final User user = new User(1L, "user", "password", RoleType.ROLE_USER);
+    private final User admin = new User(2L, "admin", "password", RoleType.ROLE_ADMIN);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TeamMemberRepository teamMemberRepository;
+
+    @Mock
+    private TaskAclRepository taskAclRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    private TaskAccessResolver taskAccessResolver;
+
+    @BeforeEach
+    void setUp() {
+        taskAccessResolver = new TaskAccessResolver(userRepository, teamMemberRepository, taskAclRepository, taskRepository,
+                archivedTaskRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void canAccess_ShouldLoadPermissionsOnce_WithinRequest() {
+        //arrange
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Mockito.when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        Mockito.when(teamMemberRepository.findTeamIdsByUserId(1L)).thenReturn(List.of(7L));
+        Mockito.when(taskAclRepository.hasAccess(10L, 1L, List.of(7L))).thenReturn(true);
+
+        //act
+        boolean first = taskAccessResolver.canAccess("user", 10L, 2L, null);
+        boolean second = taskAccessResolver.canAccess("user", 10L, 2L, null);
+
+        //assert
+        assertTrue(first);
+        assertTrue(second);
+        Mockito.verify(userRepository, Mockito.times(1)).findByUsername("user");
+        Mockito.verify(teamMemberRepository, Mockito.times(1)).findTeamIdsByUserId(1L);
+        Mockito.verify(taskAclRepository, Mockito.times(1)).hasAccess(10L, 1L, List.of(7L));
+    }
+
+    @Test
+    void canAccess_ShouldNotCache_OutsideRequest() {
+        //arrange
+        Mockito.when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        Mockito.when(teamMemberRepository.findTeamIdsByUserId(1L)).thenReturn(List.of());
+        Mockito.when(taskAclRepository.hasAccess(10L, 1L, List.of())).thenReturn(true, false);
+
+        //act
+        boolean first = taskAccessResolver.canAccess("user", 10L, 2L, null);
+        boolean second = taskAccessResolver.canAccess("user", 10L, 2L, null);
+
+        //assert
+        assertTrue(first);
+        assertFalse(second);
+        Mockito.verify(userRepository, Mockito.times(2)).findByUsername("user");
+    }
+
+    @Test
+    void canAccess_ShouldSkipAclLookup_WhenOwnerClaimerOrAdmin() {
+        //arrange
+        Mockito.when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        Mockito.when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
+
+        //act & assert
+        assertTrue(taskAccessResolver.canAccess("user", 10L, 1L, null));
+        assertTrue(taskAccessResolver.canAccess("user", 10L, 2L, 1L));
+        assertTrue(taskAccessResolver.canAccess("admin", 10L, 1L, null));
+        Mockito.verify(taskAclRepository, Mockito.never()).hasAccess(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(teamMemberRepository, Mockito.never()).findTeamIdsByUserId(2L);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.TaskActivity;
+import com.example.taskmanager.entity.TaskActivityKind;
+import com.example.taskmanager.entity.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskActivityLogTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TaskActivityLog taskActivityLog;
+
+    @BeforeEach
+    void setUp() {
+        taskActivityLog = new TaskActivityLog(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(taskActivityLog);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void append_ShouldWriteOneBatchBeforeCommit_WhenTransactionActive() {
+        //arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        //act
+        taskActivityLog.append(activity(1L));
+        taskActivityLog.append(activity(2L));
+        taskActivityLog.append(activity(3L));
+        Mockito.verifyNoInteractions(jdbcTemplate);
+        commit();
+
+        //assert
+        ArgumentCaptor<Collection<TaskActivity>> batch = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(jdbcTemplate, Mockito.times(1)).batchUpdate(Mockito.anyString(), batch.capture(),
+                Mockito.eq(3), Mockito.any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of(1L, 2L, 3L), batch.getValue().stream().map(TaskActivity::getTaskId).toList());
+        assertNull(TransactionSynchronizationManager.getResource(taskActivityLog));
+    }
+
+    @Test
+    void append_ShouldDropBuffer_WhenTransactionRolledBack() {
+        //arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        //act
+        taskActivityLog.append(activity(1L));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        //assert
+        Mockito.verifyNoInteractions(jdbcTemplate);
+        assertNull(TransactionSynchronizationManager.getResource(taskActivityLog));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void append_ShouldWriteImmediately_WhenNoTransaction() {
+        //act
+        taskActivityLog.append(activity(1L));
+
+        //assert
+        Mockito.verify(jdbcTemplate, Mockito.times(1)).batchUpdate(Mockito.anyString(), Mockito.anyCollection(),
+                Mockito.eq(1), Mockito.any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(s -> s.beforeCommit(false));
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static TaskActivity activity(Long taskId) {
+        return TaskActivity.builder()
+                .taskId(taskId)
+                .kind(TaskActivityKind.UPDATED)
+                .status(TaskStatus.IN_PROGRESS)
+                .actor("user")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
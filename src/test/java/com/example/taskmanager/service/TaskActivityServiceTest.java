@@ -0,0 +1,157 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskActivityDto;
+import com.example.taskmanager.dto.TaskActivityResponse;
+import com.example.taskmanager.entity.RoleType;
+import com.example.taskmanager.entity.TaskActivity;
+import com.example.taskmanager.entity.TaskActivityKind;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.exception.InvalidCursorException;
+import com.example.taskmanager.repository.ArchivedTaskRepository;
+import com.example.taskmanager.repository.TaskAclRepository;
+import com.example.taskmanager.repository.TaskActivityRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskVersionView;
+import com.example.taskmanager.repository.TeamMemberRepository;
+import com.example.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskActivityServiceTest {
+
+    private final Long taskId = 1L;
+    private final User owner = new User(1L, "user", "password", RoleType.ROLE_USER);
+    private final LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Mock
+    private TaskActivityRepository taskActivityRepository;
+
+    @Mock
+    private TaskActivityLog taskActivityLog;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TeamMemberRepository teamMemberRepository;
+
+    @Mock
+    private TaskAclRepository taskAclRepository;
+
+    private TaskActivityService taskActivityService;
+
+    @BeforeEach
+    void setUp() {
+        taskActivityService = new TaskActivityService(taskActivityRepository, taskActivityLog,
+                new TaskAccessResolver(userRepository, teamMemberRepository, taskAclRepository, taskRepository,
+                        archivedTaskRepository));
+    }
+
+    @Test
+    void findActivity_ShouldReturnCursorToNextPage_WhenMoreEntriesExist() {
+        //arrange
+        mockOwnerAccess();
+        Mockito.when(taskActivityRepository.findLatest(taskId, 3))
+                .thenReturn(List.of(entry(30L, now), entry(20L, now.minusMinutes(1)), entry(10L, now.minusMinutes(2))));
+        Mockito.when(taskActivityRepository.findBefore(taskId, now.minusMinutes(1), 20L, 3))
+                .thenReturn(List.of(entry(10L, now.minusMinutes(2))));
+
+        //act
+        TaskActivityResponse first = taskActivityService.findActivity(taskId, null, 2, "user");
+        TaskActivityResponse second = taskActivityService.findActivity(taskId, first.next(), 2, "user");
+
+        //assert
+        assertEquals(2, first.items().size());
+        assertNotNull(first.next());
+        assertEquals(1, second.items().size());
+        assertNull(second.next());
+    }
+
+    @Test
+    void findActivity_ShouldThrowException_WhenCursorIsMalformed() {
+        //arrange
+        mockOwnerAccess();
+
+        //act & assert
+        assertThrows(InvalidCursorException.class, () -> taskActivityService.findActivity(taskId, "broken", 10, "user"));
+    }
+
+    @Test
+    void findActivity_ShouldThrowException_WhenUserHasNoAccess() {
+        //arrange
+        Mockito.when(taskRepository.findVersionById(taskId)).thenReturn(Optional.of(versionView(2L)));
+        Mockito.when(userRepository.findByUsername("user")).thenReturn(Optional.of(owner));
+
+        //act & assert
+        assertThrows(AccessDeniedException.class, () -> taskActivityService.findActivity(taskId, null, 10, "user"));
+        Mockito.verifyNoInteractions(taskActivityRepository);
+    }
+
+    @Test
+    void addComment_ShouldAppendCommentToActivityLog() {
+        //arrange
+        mockOwnerAccess();
+
+        //act
+        TaskActivityDto result = taskActivityService.addComment(taskId, "looks good", "user");
+
+        //assert
+        ArgumentCaptor<TaskActivity> captor = ArgumentCaptor.forClass(TaskActivity.class);
+        Mockito.verify(taskActivityLog).append(captor.capture());
+        assertEquals(TaskActivityKind.COMMENTED, captor.getValue().getKind());
+        assertEquals("looks good", captor.getValue().getBody());
+        assertEquals("user", result.actor());
+    }
+
+    private void mockOwnerAccess() {
+        Mockito.when(taskRepository.findVersionById(taskId)).thenReturn(Optional.of(versionView(owner.getId())));
+        Mockito.when(userRepository.findByUsername("user")).thenReturn(Optional.of(owner));
+    }
+
+    private TaskActivity entry(Long id, LocalDateTime createdAt) {
+        return new TaskActivity(id, taskId, TaskActivityKind.UPDATED, null, "user", null, createdAt);
+    }
+
+    private TaskVersionView versionView(Long ownerId) {
+        return new TaskVersionView() {
+            @Override
+            public Long getId() {
+                return taskId;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 0L;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public Long getClaimerId() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.TaskArchiveProperties;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.ArchivedTaskRepository;
+import com.example.taskmanager.repository.TaskChangeView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskArchiverTest {
+
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void archive_ShouldMoveBatchesUntilPartialBatch() {
+        //arrange
+        TaskArchiver archiver = archiver(true, 3);
+        Mockito.when(archivedTaskRepository.archiveTerminalBatch(Mockito.any(LocalDateTime.class),
+                        Mockito.any(LocalDateTime.class), Mockito.eq(100)))
+                .thenReturn(archived(100), archived(100), archived(40));
+
+        //act
+        archiver.run();
+
+        //assert
+        Mockito.verify(archivedTaskRepository, Mockito.times(3))
+                .archiveTerminalBatch(Mockito.any(), Mockito.any(), Mockito.eq(100));
+        Mockito.verify(transactionManager, Mockito.times(3)).commit(Mockito.any());
+        assertEquals(240, meterRegistry.counter("task.archive.moved").count());
+    }
+
+    @Test
+    void archive_ShouldStopAfterMaxBatchesPerRun() {
+        //arrange
+        TaskArchiver archiver = archiver(true, 2);
+        Mockito.when(archivedTaskRepository.archiveTerminalBatch(Mockito.any(LocalDateTime.class),
+                        Mockito.any(LocalDateTime.class), Mockito.eq(100)))
+                .thenReturn(archived(100));
+
+        //act
+        archiver.run();
+
+        //assert
+        Mockito.verify(archivedTaskRepository, Mockito.times(2))
+                .archiveTerminalBatch(Mockito.any(), Mockito.any(), Mockito.eq(100));
+    }
+
+    @Test
+    void archive_ShouldPublishArchivedAndDetachedChildEvents() {
+        //arrange
+        TaskArchiver archiver = archiver(true, 3);
+        List<TaskChangeView> changes = new ArrayList<>(archived(1));
+        changes.add(change(7L, TaskStatus.PENDING, TaskChangeType.UPDATED));
+        Mockito.when(archivedTaskRepository.archiveTerminalBatch(Mockito.any(LocalDateTime.class),
+                        Mockito.any(LocalDateTime.class), Mockito.eq(100)))
+                .thenReturn(changes);
+
+        //act
+        archiver.run();
+
+        //assert
+        ArgumentCaptor<TaskChangedEvent> events = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        Mockito.verify(eventPublisher, Mockito.times(2)).publishEvent(events.capture());
+        assertEquals(TaskChangeType.ARCHIVED, events.getAllValues().get(0).type());
+        assertEquals(1L, events.getAllValues().get(0).taskId());
+        assertEquals(TaskChangeType.UPDATED, events.getAllValues().get(1).type());
+        assertEquals(7L, events.getAllValues().get(1).taskId());
+        assertEquals(1, meterRegistry.counter("task.archive.moved").count());
+    }
+
+    @Test
+    void archive_ShouldRunOnAllNodes_AndFollowEnabledFlag() {
+        //assert
+        assertFalse(archiver(true, 2).leaderOnly());
+        assertFalse(archiver(false, 2).enabled());
+    }
+
+    private TaskArchiver archiver(boolean enabled, int maxBatchesPerRun) {
+        var properties = new TaskArchiveProperties(enabled, Duration.ofDays(30), Duration.ofMinutes(10), 100, maxBatchesPerRun);
+        return new TaskArchiver(archivedTaskRepository, eventPublisher, properties, meterRegistry, transactionManager);
+    }
+
+    private static List<TaskChangeView> archived(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> change(id, TaskStatus.COMPLETED, TaskChangeType.ARCHIVED))
+                .toList();
+    }
+
+    private static TaskChangeView change(Long taskId, TaskStatus status, TaskChangeType changeType) {
+        return new TaskChangeView() {
+            @Override
+            public Long getTaskId() {
+                return taskId;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return 1L;
+            }
+
+            @Override
+            public String getOwnerUsername() {
+                return "john";
+            }
+
+            @Override
+            public TaskStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public TaskChangeType getChangeType() {
+                return changeType;
+            }
+        };
+    }
+}
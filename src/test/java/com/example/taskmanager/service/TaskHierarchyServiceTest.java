@@ -0,0 +1,199 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.TaskHierarchyProperties;
+import com.example.taskmanager.dto.TaskRollupResponse;
+import com.example.taskmanager.dto.TaskSubtreeResponse;
+import com.example.taskmanager.entity.RoleType;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.exception.TaskHierarchyException;
+import com.example.taskmanager.repository.TaskHierarchyRepository;
+import com.example.taskmanager.repository.TaskNodeView;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskStatusCountView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.AdditionalMatchers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskHierarchyServiceTest {
+
+    private final User owner = new User(1L, "user", "password", RoleType.ROLE_USER);
+    private final User anotherOwner = new User(2L, "another", "password", RoleType.ROLE_USER);
+    private final User admin = new User(3L, "admin", "password", RoleType.ROLE_ADMIN);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskHierarchyRepository taskHierarchyRepository;
+
+    @Mock
+    private TaskAccessResolver taskAccessResolver;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TaskHierarchyService taskHierarchyService;
+
+    @BeforeEach
+    void setUp() {
+        taskHierarchyService = new TaskHierarchyService(taskRepository, taskHierarchyRepository, taskAccessResolver,
+                new TaskHierarchyProperties(100, 2, 42L), eventPublisher);
+    }
+
+    @Test
+    void findSubtree_ShouldMarkResponseTruncated_WhenTreeExceedsMaxNodes() {
+        //arrange
+        List<TaskNodeView> nodes = List.of(node(2L, 1L, 1), node(3L, 2L, 2), node(4L, 3L, 3));
+        Mockito.when(taskAccessResolver.subject("user")).thenReturn(new TaskAccessResolver.Subject(owner, List.of(7L)));
+        Mockito.when(taskHierarchyRepository.findVisibleSubtree(Mockito.eq(1L), Mockito.eq(100), Mockito.eq(3),
+                Mockito.eq(1L), AdditionalMatchers.aryEq(new Long[]{7L}))).thenReturn(nodes);
+
+        //act
+        TaskSubtreeResponse result = taskHierarchyService.findSubtree(1L, null, "user");
+
+        //assert
+        assertTrue(result.truncated());
+        assertEquals(List.of(2L, 3L), result.subtasks().stream().map(subtask -> subtask.id()).toList());
+        Mockito.verify(taskAccessResolver).requireAccess(1L, "user");
+    }
+
+    @Test
+    void findSubtree_ShouldCapRequestedDepth() {
+        //arrange
+        List<TaskNodeView> nodes = List.of(node(2L, 1L, 1));
+        Mockito.when(taskAccessResolver.subject("admin")).thenReturn(new TaskAccessResolver.Subject(admin, List.of()));
+        Mockito.when(taskHierarchyRepository.findSubtree(1L, 100, 3)).thenReturn(nodes);
+
+        //act
+        TaskSubtreeResponse result = taskHierarchyService.findSubtree(1L, 5000, "admin");
+
+        //assert
+        assertFalse(result.truncated());
+        assertEquals(1, result.subtasks().size());
+        Mockito.verify(taskHierarchyRepository, Mockito.never())
+                .findVisibleSubtree(Mockito.any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void findSubtree_ShouldNotTraverseTree_WhenUserHasNoAccess() {
+        //arrange
+        Mockito.when(taskAccessResolver.requireAccess(1L, "user")).thenThrow(new AccessDeniedException("denied"));
+
+        //act & assert
+        assertThrows(AccessDeniedException.class, () -> taskHierarchyService.findSubtree(1L, null, "user"));
+        Mockito.verifyNoInteractions(taskHierarchyRepository);
+    }
+
+    @Test
+    void findRollup_ShouldReturnZeroForMissingStatuses() {
+        //arrange
+        List<TaskStatusCountView> counts = List.of(count(TaskStatus.PENDING, 5L), count(TaskStatus.COMPLETED, 2L));
+        Mockito.when(taskAccessResolver.subject("user")).thenReturn(new TaskAccessResolver.Subject(owner, List.of()));
+        Mockito.when(taskHierarchyRepository.countVisibleSubtreeByStatus(Mockito.eq(1L), Mockito.eq(3), Mockito.eq(1L),
+                AdditionalMatchers.aryEq(new Long[0]))).thenReturn(counts);
+
+        //act
+        TaskRollupResponse result = taskHierarchyService.findRollup(1L, 3, "user");
+
+        //assert
+        assertEquals(7, result.total());
+        assertEquals(5L, result.counts().get(TaskStatus.PENDING));
+        assertEquals(0L, result.counts().get(TaskStatus.IN_PROGRESS));
+        assertEquals(TaskStatus.values().length, result.counts().size());
+    }
+
+    @Test
+    void setParent_ShouldReferenceParentPrimaryKey_AndPublishEvent() {
+        //arrange
+        Task task = task(1L, owner);
+        Mockito.when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        Mockito.when(taskRepository.findById(2L)).thenReturn(Optional.of(task(2L, anotherOwner)));
+        Mockito.when(taskHierarchyRepository.isAncestorOrSelf(1L, 2L)).thenReturn(false);
+
+        //act
+        taskHierarchyService.setParent(1L, 2L, "admin");
+
+        //assert
+        assertEquals(2L, task.getParentId());
+        assertEquals(anotherOwner.getId(), task.getParentUserId());
+        Mockito.verify(taskHierarchyRepository).lockHierarchy(42L);
+        ArgumentCaptor<TaskChangedEvent> captor = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(TaskChangeType.UPDATED, captor.getValue().type());
+    }
+
+    @Test
+    void setParent_ShouldThrowException_WhenMoveCreatesCycle() {
+        //arrange
+        Mockito.when(taskRepository.findById(1L)).thenReturn(Optional.of(task(1L, owner)));
+        Mockito.when(taskRepository.findById(3L)).thenReturn(Optional.of(task(3L, owner)));
+        Mockito.when(taskHierarchyRepository.isAncestorOrSelf(1L, 3L)).thenReturn(true);
+
+        //act & assert
+        assertThrows(TaskHierarchyException.class, () -> taskHierarchyService.setParent(1L, 3L, "admin"));
+        Mockito.verify(taskRepository, Mockito.never()).flush();
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void setParent_ShouldDetachTask_WhenParentIsNull() {
+        //arrange
+        Task task = task(1L, owner);
+        task.setParentId(2L);
+        task.setParentUserId(anotherOwner.getId());
+        Mockito.when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        //act
+        taskHierarchyService.setParent(1L, null, "admin");
+
+        //assert
+        assertNull(task.getParentId());
+        assertNull(task.getParentUserId());
+        Mockito.verify(taskHierarchyRepository, Mockito.never()).isAncestorOrSelf(Mockito.any(), Mockito.any());
+    }
+
+    private static Task task(Long id, User user) {
+        return Task.builder()
+                .id(id)
+                .title("Task " + id)
+                .description("Description")
+                .status(TaskStatus.PENDING)
+                .user(user)
+                .version(0L)
+                .build();
+    }
+
+    private static TaskNodeView node(Long id, Long parentId, int depth) {
+        TaskNodeView node = Mockito.mock(TaskNodeView.class);
+        Mockito.lenient().when(node.getId()).thenReturn(id);
+        Mockito.lenient().when(node.getParentId()).thenReturn(parentId);
+        Mockito.lenient().when(node.getDepth()).thenReturn(depth);
+        Mockito.lenient().when(node.getPriorityCode()).thenReturn(TaskPriority.NORMAL.code());
+        return node;
+    }
+
+    private static TaskStatusCountView count(TaskStatus status, Long taskCount) {
+        TaskStatusCountView view = Mockito.mock(TaskStatusCountView.class);
+        Mockito.when(view.getStatus()).thenReturn(status);
+        Mockito.when(view.getTaskCount()).thenReturn(taskCount);
+        return view;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.TaskOutboxProperties;
+import com.example.taskmanager.entity.TaskOutboxEvent;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.repository.TaskOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskOutboxRelayTest {
+
+    @Mock
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private TaskOutboxRelay taskOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new TaskOutboxProperties("tasks:outbox", 50, 1000, Duration.ofDays(1));
+        taskOutboxRelay = new TaskOutboxRelay(taskOutboxRepository, stringRedisTemplate, properties);
+    }
+
+    @Test
+    void relay_ShouldPublishBatchAndMarkItPublished() {
+        //arrange
+        var first = new TaskOutboxEvent(1L, 10L, TaskChangeType.CREATED, "{}", LocalDateTime.now(), null);
+        var second = new TaskOutboxEvent(2L, 10L, TaskChangeType.DELETED, "{}", LocalDateTime.now(), null);
+
+        Mockito.when(taskOutboxRepository.lockUnpublishedBatch(50)).thenReturn(List.of(first, second));
+
+        //act
+        taskOutboxRelay.relay();
+
+        //assert
+        Mockito.verify(stringRedisTemplate, Mockito.times(1)).executePipelined(Mockito.any(RedisCallback.class));
+        Mockito.verify(taskOutboxRepository, Mockito.times(1))
+                .markPublished(Mockito.eq(List.of(1L, 2L)), Mockito.any(LocalDateTime.class));
+    }
+
+    @Test
+    void relay_ShouldNotTouchRedis_WhenOutboxIsEmpty() {
+        //arrange
+        Mockito.when(taskOutboxRepository.lockUnpublishedBatch(50)).thenReturn(List.of());
+
+        //act
+        taskOutboxRelay.relay();
+
+        //assert
+        Mockito.verifyNoInteractions(stringRedisTemplate);
+        Mockito.verify(taskOutboxRepository, Mockito.never()).markPublished(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void relay_ShouldLeaveRowsUnpublished_WhenRedisFails() {
+        //arrange
+        var event = new TaskOutboxEvent(1L, 10L, TaskChangeType.CREATED, "{}", LocalDateTime.now(), null);
+
+        Mockito.when(taskOutboxRepository.lockUnpublishedBatch(50)).thenReturn(List.of(event));
+        Mockito.when(stringRedisTemplate.executePipelined(Mockito.any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        //act & assert
+        assertThrows(RuntimeException.class, () -> taskOutboxRelay.relay());
+        Mockito.verify(taskOutboxRepository, Mockito.never()).markPublished(Mockito.any(), Mockito.any());
+    }
+}
@@ -1,27 +1,59 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.config.TaskTagProperties;
+import com.example.taskmanager.dto.ClaimedTaskDto;
+import com.example.taskmanager.dto.ETagged;
+import com.example.taskmanager.dto.TaskAssigneesDto;
 import com.example.taskmanager.dto.TaskRequestDto;
 import com.example.taskmanager.dto.TaskResponseDto;
 import com.example.taskmanager.dto.TaskStatusUpdateRequest;
+import com.example.taskmanager.dto.TaskTaggedResponse;
 import com.example.taskmanager.dto.UserResponseDto;
+import com.example.taskmanager.entity.ArchivedTask;
 import com.example.taskmanager.entity.RoleType;
 import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskAccessKind;
+import com.example.taskmanager.entity.TaskAclEntry;
+import com.example.taskmanager.entity.TaskPriority;
 import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.TaskTombstone;
+import com.example.taskmanager.entity.TaskWithArchived;
+import com.example.taskmanager.entity.Team;
 import com.example.taskmanager.entity.User;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.exception.TaskClaimException;
 import com.example.taskmanager.exception.TaskNotFoundException;
+import com.example.taskmanager.exception.TaskVersionConflictException;
+import com.example.taskmanager.exception.TeamNotFoundException;
 import com.example.taskmanager.exception.UserNotFoundException;
 import com.example.taskmanager.mapper.TaskMapper;
+import com.example.taskmanager.repository.ArchivedTaskRepository;
+import com.example.taskmanager.repository.TaskAclRepository;
+import com.example.taskmanager.repository.TaskChangeView;
+import com.example.taskmanager.repository.TaskHierarchyRepository;
+import com.example.taskmanager.repository.TaskKeyView;
 import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskTagStatRepository;
+import com.example.taskmanager.repository.TaskTombstoneRepository;
+import com.example.taskmanager.repository.TaskVersionView;
+import com.example.taskmanager.repository.TaskWithArchivedRepository;
+import com.example.taskmanager.repository.TeamMemberRepository;
+import com.example.taskmanager.repository.TeamRepository;
 import com.example.taskmanager.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.AdditionalMatchers;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -34,6 +66,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,30 +91,66 @@ public class TaskServiceTest {
     @BeforeEach
     void setUp() {
         taskId = 1L;
-        taskRequestDto = new TaskRequestDto("New Title", "New Description", TaskStatus.PENDING, 1L);
+        taskRequestDto = new TaskRequestDto("New Title", "New Description", TaskStatus.PENDING, 1L, null, null, null, null);
         user = new User(1L, "user", "password", RoleType.ROLE_USER);
         admin = new User(2L, "admin", "password2", RoleType.ROLE_ADMIN);
         userResponseDto = new UserResponseDto("John", RoleType.ROLE_USER.name());
-        taskResponseDto = new TaskResponseDto("Test Task", "Description", TaskStatus.IN_PROGRESS, userResponseDto);
-        updatedTaskResponseDto = new TaskResponseDto("New Test Task", "New Description", TaskStatus.COMPLETED, userResponseDto);
+        taskResponseDto = new TaskResponseDto("Test Task", "Description", TaskStatus.IN_PROGRESS, userResponseDto, null, TaskPriority.NORMAL, List.of());
+        updatedTaskResponseDto = new TaskResponseDto("New Test Task", "New Description", TaskStatus.COMPLETED, userResponseDto, null, TaskPriority.NORMAL, List.of());
         task = new Task(taskId, "Test Task",
-                "Description", TaskStatus.IN_PROGRESS, now, now, user);
+                "Description", TaskStatus.IN_PROGRESS, now, now, user, 3L, null, TaskPriority.NORMAL, null, null, null, null, List.of());
         newTask = new Task(taskId, "New Title",
-                "New Description", TaskStatus.PENDING, now, now, user);
+                "New Description", TaskStatus.PENDING, now, now, user, 3L, null, TaskPriority.NORMAL, null, null, null, null, List.of());
         tasks = new PageImpl<>(List.of(task));
+
+        TaskAccessResolver taskAccessResolver =
+                new TaskAccessResolver(userRepository, teamMemberRepository, taskAclRepository, taskRepository,
+                        archivedTaskRepository);
+        taskService = new TaskService(taskRepository, userRepository, taskMapper, taskTombstoneRepository,
+                eventPublisher, readCoalescer, taskWithArchivedRepository, archivedTaskRepository, taskAccessResolver,
+                taskAclRepository, teamRepository, taskHierarchyRepository, taskTagStatRepository,
+                new TaskTagProperties(100, 1000));
     }
 
+    @Spy
+    private ReadCoalescer readCoalescer = new ReadCoalescer(new SimpleMeterRegistry());
+
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskWithArchivedRepository taskWithArchivedRepository;
+
+    @Mock
+    private TeamMemberRepository teamMemberRepository;
+
+    @Mock
+    private TaskAclRepository taskAclRepository;
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private TaskHierarchyRepository taskHierarchyRepository;
+
+    @Mock
+    private TaskTagStatRepository taskTagStatRepository;
 
-    @InjectMocks
     private TaskService taskService;
 
     @Test
@@ -102,7 +171,7 @@ public class TaskServiceTest {
     void findByStatus_ShouldReturnPageTasks_WhenRoleUser() {
         //arrange
         Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
-        Mockito.when(taskRepository.findByStatusAndUser(TaskStatus.PENDING, user, pageable)).thenReturn(tasks);
+        Mockito.when(taskRepository.findVisibleByStatus(TaskStatus.PENDING, 1L, List.of(), pageable)).thenReturn(tasks);
         Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
 
         //act
@@ -112,6 +181,31 @@ public class TaskServiceTest {
         assertEquals(1, result.getContent().size());
     }
 
+    @Test
+    void findByStatus_ShouldReadArchive_WhenIncludeArchived() {
+        //arrange
+        TaskWithArchived archived = new TaskWithArchived();
+        archived.setId(7L);
+        archived.setStatus(TaskStatus.COMPLETED);
+        archived.setVersion(2L);
+        archived.setArchived(true);
+
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+        Mockito.when(teamMemberRepository.findTeamIdsByUserId(1L)).thenReturn(List.of(7L));
+        Mockito.when(taskWithArchivedRepository.findVisibleByStatus(Mockito.eq(TaskStatus.COMPLETED), Mockito.eq(1L),
+                        Mockito.eq(List.of(7L)), AdditionalMatchers.aryEq(new Long[]{7L}), Mockito.eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(archived)));
+        Mockito.when(taskMapper.mapToDto(archived)).thenReturn(taskResponseDto);
+
+        //act
+        ETagged<Page<TaskResponseDto>> result =
+                taskService.findByStatusWithETag(TaskStatus.COMPLETED, USERNAME, pageable, true);
+
+        //assert
+        assertEquals(1, result.body().getContent().size());
+        Mockito.verifyNoInteractions(taskRepository);
+    }
+
     @Test
     void findTasksForCurrentUser_ShouldReturnPageTasks_WhenRoleAdmin() {
         //arrange
@@ -134,7 +228,7 @@ public class TaskServiceTest {
         mockSecurity(USERNAME);
 
         Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
-        Mockito.when(taskRepository.findAllByUserUsername(USERNAME, pageable)).thenReturn(tasks);
+        Mockito.when(taskRepository.findVisible(1L, List.of(), pageable)).thenReturn(tasks);
         Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
 
         //act
@@ -148,6 +242,7 @@ public class TaskServiceTest {
     void findByIdAndUsername_ShouldReturnTask_WhenOwner() {
         //arrange
         Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
         Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
 
         //act
@@ -158,6 +253,24 @@ public class TaskServiceTest {
         assertEquals(taskResponseDto, result);
         Mockito.verify(taskRepository, Mockito.times(1)).findById(taskId);
         Mockito.verify(taskMapper, Mockito.times(1)).mapToDto(task);
+        Mockito.verify(taskAclRepository, Mockito.never()).hasAccess(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void findByIdAndUsername_ShouldReturnTask_WhenAssignedToUserTeam() {
+        //arrange
+        User assignee = new User(5L, "assignee", "password", RoleType.ROLE_USER);
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(userRepository.findByUsername("assignee")).thenReturn(Optional.of(assignee));
+        Mockito.when(teamMemberRepository.findTeamIdsByUserId(5L)).thenReturn(List.of(7L));
+        Mockito.when(taskAclRepository.hasAccess(taskId, 5L, List.of(7L))).thenReturn(true);
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        TaskResponseDto result = taskService.findByIdAndUsername(taskId, "assignee");
+
+        //assert
+        assertEquals(taskResponseDto, result);
     }
 
     @Test
@@ -194,6 +307,40 @@ public class TaskServiceTest {
         assertThrows(AccessDeniedException.class, () -> taskService.findByIdAndUsername(taskId, "Hacker"));
     }
 
+    @Test
+    void findByIdAndUsername_ShouldReturnArchivedTask_WhenViewerAtArchiveTime() {
+        //arrange
+        User viewer = new User(5L, "viewer", "password", RoleType.ROLE_USER);
+        ArchivedTask archived = ArchivedTask.builder().id(taskId).user(admin).version(4L).build();
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        Mockito.when(archivedTaskRepository.findById(taskId)).thenReturn(Optional.of(archived));
+        Mockito.when(userRepository.findByUsername("viewer")).thenReturn(Optional.of(viewer));
+        Mockito.when(teamMemberRepository.findTeamIdsByUserId(5L)).thenReturn(List.of(7L));
+        Mockito.when(archivedTaskRepository.hasViewer(Mockito.eq(taskId), Mockito.eq(5L),
+                AdditionalMatchers.aryEq(new Long[]{7L}))).thenReturn(true);
+        Mockito.when(taskMapper.mapToDto(archived)).thenReturn(taskResponseDto);
+
+        //act
+        TaskResponseDto result = taskService.findByIdAndUsername(taskId, "viewer");
+
+        //assert
+        assertEquals(taskResponseDto, result);
+        Mockito.verify(taskAclRepository, Mockito.never()).hasAccess(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void findByIdAndUsername_ShouldThrowException_WhenArchivedAndNotViewer() {
+        //arrange
+        User anotherUser = new User(99L, "Hacker", "password", RoleType.ROLE_USER);
+        ArchivedTask archived = ArchivedTask.builder().id(taskId).user(admin).version(4L).build();
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        Mockito.when(archivedTaskRepository.findById(taskId)).thenReturn(Optional.of(archived));
+        Mockito.when(userRepository.findByUsername("Hacker")).thenReturn(Optional.of(anotherUser));
+
+        //act & assert
+        assertThrows(AccessDeniedException.class, () -> taskService.findByIdAndUsername(taskId, "Hacker"));
+    }
+
     @Test
     void findById_ShouldThrowException_WhenTaskDoesNotExist() {
         //arrange
@@ -292,6 +439,13 @@ public class TaskServiceTest {
         assertEquals("Test Task", capturedTask.getTitle());
         assertEquals("Description", capturedTask.getDescription());
         assertEquals(TaskStatus.IN_PROGRESS, capturedTask.getStatus());
+
+        ArgumentCaptor<TaskChangedEvent> eventCaptor = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(eventCaptor.capture());
+
+        assertEquals(TaskChangeType.UPDATED, eventCaptor.getValue().type());
+        assertEquals(USERNAME, eventCaptor.getValue().ownerUsername());
+        assertEquals(TaskStatus.IN_PROGRESS, eventCaptor.getValue().status());
     }
 
     @Test
@@ -312,10 +466,246 @@ public class TaskServiceTest {
         });
     }
 
+    @Test
+    void findDueTasks_ShouldReturnVisibleDueTasks_WhenRoleUser() {
+        //arrange
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+        Mockito.when(teamMemberRepository.findTeamIdsByUserId(1L)).thenReturn(List.of(7L));
+        Mockito.when(taskRepository.findVisibleDue(1L, List.of(7L), PageRequest.of(0, 5))).thenReturn(List.of(task));
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        List<TaskResponseDto> result = taskService.findDueTasks(USERNAME, 5);
+
+        //assert
+        assertEquals(List.of(taskResponseDto), result);
+        Mockito.verify(taskRepository, Mockito.never()).findDue(Mockito.any());
+    }
+
+    @Test
+    void findDueTasks_ShouldReturnAllDueTasks_WhenRoleAdmin() {
+        //arrange
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(taskRepository.findDue(PageRequest.of(0, 5))).thenReturn(List.of(task));
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        List<TaskResponseDto> result = taskService.findDueTasks(ADMIN, 5);
+
+        //assert
+        assertEquals(List.of(taskResponseDto), result);
+    }
+
+    @Test
+    void findByTags_ShouldSearchVisibleTasksByNormalizedTags_AndReturnCursor_WhenMoreTasksExist() {
+        //arrange
+        Task second = Task.builder().id(2L).createdAt(now.plusSeconds(1)).user(user).build();
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+        Mockito.when(taskRepository.findVisibleTaggedAfter(AdditionalMatchers.aryEq(new String[]{"alpha", "beta"}), Mockito.eq(1L),
+                AdditionalMatchers.aryEq(new Long[0]), Mockito.eq(PageCursor.START.time()), Mockito.eq(0L), Mockito.eq(2)))
+                .thenReturn(List.of(task, second));
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        TaskTaggedResponse result = taskService.findByTags(List.of("Beta", "alpha", "beta"), null, 1, USERNAME);
+
+        //assert
+        assertEquals(List.of(taskResponseDto), result.items());
+        assertEquals(task.getId(), PageCursor.decode(result.next()).id());
+        Mockito.verify(taskRepository, Mockito.never()).findTaggedAfter(Mockito.any(), Mockito.any(),
+                Mockito.anyLong(), Mockito.anyInt());
+    }
+
+    @Test
+    void findByTags_ShouldSearchAllTasks_WhenRoleAdmin() {
+        //arrange
+        PageCursor after = new PageCursor(LocalDateTime.of(2026, 1, 1, 12, 0), 5L);
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(taskRepository.findTaggedAfter(new String[]{"backend"}, after.time(), 5L, 11))
+                .thenReturn(List.of(task));
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        TaskTaggedResponse result = taskService.findByTags(List.of("backend"), after.encode(), 10, ADMIN);
+
+        //assert
+        assertEquals(1, result.items().size());
+        assertNull(result.next());
+    }
+
+    @Test
+    void findByTags_ShouldScanInCreationOrder_AndContinueFromWindowEnd_WhenTagIsFrequentForAdmin() {
+        //arrange
+        LocalDateTime windowEnd = LocalDateTime.of(2026, 1, 1, 12, 0);
+        TaskKeyView key = Mockito.mock(TaskKeyView.class);
+        Mockito.when(key.getCreatedAt()).thenReturn(windowEnd);
+        Mockito.when(key.getId()).thenReturn(42L);
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(taskTagStatRepository.findRarestTagCount(new String[]{"backend"})).thenReturn(500L);
+        Mockito.when(taskRepository.findTaggedByScanAfter(new String[]{"backend"}, PageCursor.START.time(), 0L, 1000, 11))
+                .thenReturn(List.of(task));
+        Mockito.when(taskRepository.findKeyAfter(PageCursor.START.time(), 0L, 999)).thenReturn(Optional.of(key));
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        TaskTaggedResponse result = taskService.findByTags(List.of("backend"), null, 10, ADMIN);
+
+        //assert
+        assertEquals(List.of(taskResponseDto), result.items());
+        assertEquals(new PageCursor(windowEnd, 42L), PageCursor.decode(result.next()));
+        Mockito.verify(taskRepository, Mockito.never()).findTaggedAfter(Mockito.any(), Mockito.any(),
+                Mockito.anyLong(), Mockito.anyInt());
+    }
+
+    @Test
+    void findByTags_ShouldStartFromTaskAcl_WhenTagIsFrequentForUser() {
+        //arrange
+        Task second = Task.builder().id(2L).createdAt(now.plusSeconds(1)).user(user).build();
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+        Mockito.when(taskTagStatRepository.findRarestTagCount(new String[]{"backend"})).thenReturn(500L);
+        Mockito.when(taskRepository.findVisibleTaggedByAclAfter(AdditionalMatchers.aryEq(new String[]{"backend"}),
+                        Mockito.eq(1L), AdditionalMatchers.aryEq(new Long[0]), Mockito.eq(PageCursor.START.time()),
+                        Mockito.eq(0L), Mockito.eq(2)))
+                .thenReturn(List.of(task, second));
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        TaskTaggedResponse result = taskService.findByTags(List.of("backend"), null, 1, USERNAME);
+
+        //assert
+        assertEquals(List.of(taskResponseDto), result.items());
+        assertEquals(task.getId(), PageCursor.decode(result.next()).id());
+        Mockito.verify(taskRepository, Mockito.never()).findVisibleTaggedAfter(Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.anyInt());
+        Mockito.verify(taskRepository, Mockito.never()).findKeyAfter(Mockito.any(), Mockito.anyLong(), Mockito.anyInt());
+    }
+
+    @Test
+    void updateTaskByAdmin_ShouldReplaceTagsWithNormalizedSet_WhenProvided() {
+        //arrange
+        TaskRequestDto dto = new TaskRequestDto("New Title", "New Description", TaskStatus.PENDING, 1L,
+                null, null, Set.of("Urgent", "backend"), null);
+
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(taskRepository.save(task)).thenReturn(task);
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        taskService.updateTaskByAdmin(taskId, dto, ADMIN);
+
+        //assert
+        assertEquals(List.of("backend", "urgent"), task.getTags());
+    }
+
+    @Test
+    void updateTaskByAdmin_ShouldApplyDueDateAndPriority_WhenProvided() {
+        //arrange
+        LocalDateTime dueAt = now.plusDays(1);
+        TaskRequestDto dto = new TaskRequestDto("New Title", "New Description", TaskStatus.PENDING, 1L,
+                dueAt, TaskPriority.URGENT, null, null);
+
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(taskRepository.save(task)).thenReturn(task);
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        taskService.updateTaskByAdmin(taskId, dto, ADMIN);
+
+        //assert
+        assertEquals(dueAt, task.getDueAt());
+        assertEquals(TaskPriority.URGENT, task.getPriority());
+    }
+
+    @Test
+    void updateTaskByAdmin_ShouldClearDueDate_WhenRequested() {
+        //arrange
+        task.setDueAt(now.plusDays(1));
+        TaskRequestDto dto = new TaskRequestDto("New Title", "New Description", TaskStatus.PENDING, 1L,
+                null, null, null, true);
+
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(taskRepository.save(task)).thenReturn(task);
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        taskService.updateTaskByAdmin(taskId, dto, ADMIN);
+
+        //assert
+        assertNull(task.getDueAt());
+    }
+
+    @Test
+    void claim_ShouldMoveTasksToInProgressAndAssignToCaller() {
+        //arrange
+        Task pending = new Task(2L, "Queued", "Description", TaskStatus.PENDING, now, now, admin, 0L,
+                null, TaskPriority.HIGH, null, null, null, null, List.of());
+
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(taskRepository.lockPendingForClaim(5)).thenReturn(List.of(pending));
+        Mockito.when(taskMapper.mapToDto(pending)).thenReturn(taskResponseDto);
+
+        //act
+        List<ClaimedTaskDto> result = taskService.claim(TaskStatus.PENDING, 5, ADMIN);
+
+        //assert
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).id());
+        assertEquals(TaskStatus.IN_PROGRESS, pending.getStatus());
+        assertEquals(admin, pending.getClaimedBy());
+        assertEquals(result.get(0).claimedAt(), pending.getClaimedAt());
+        Mockito.verify(taskRepository).flush();
+        Mockito.verify(eventPublisher).publishEvent(Mockito.any(TaskChangedEvent.class));
+    }
+
+    @Test
+    void claim_ShouldOnlyLockVisibleTasks_WhenRoleUser() {
+        //arrange
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+        Mockito.when(teamMemberRepository.findTeamIdsByUserId(1L)).thenReturn(List.of(7L));
+        Mockito.when(taskRepository.lockVisiblePendingForClaim(Mockito.eq(1L), AdditionalMatchers.aryEq(new Long[]{7L}),
+                Mockito.eq(5))).thenReturn(List.of());
+
+        //act
+        List<ClaimedTaskDto> result = taskService.claim(TaskStatus.PENDING, 5, USERNAME);
+
+        //assert
+        assertTrue(result.isEmpty());
+        Mockito.verify(taskRepository, Mockito.never()).lockPendingForClaim(Mockito.anyInt());
+    }
+
+    @Test
+    void claim_ShouldThrowException_WhenStatusIsNotPending() {
+        //act & assert
+        assertThrows(TaskClaimException.class, () -> taskService.claim(TaskStatus.COMPLETED, 5, USERNAME));
+        Mockito.verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void updateOwnTaskStatus_ShouldUpdateTask_WhenUserClaimedTask() {
+        //arrange
+        TaskStatusUpdateRequest request = new TaskStatusUpdateRequest(TaskStatus.COMPLETED);
+        task.setUser(admin);
+        task.setClaimedBy(user);
+
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+        Mockito.when(taskRepository.save(task)).thenReturn(task);
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        taskService.updateOwnTaskStatus(taskId, request, USERNAME);
+
+        //assert
+        assertEquals(TaskStatus.COMPLETED, task.getStatus());
+    }
+
     @Test
     void updateTaskByAdmin_ShouldUpdateTask_WhenUserIsAdmin() {
         //arrange
-        TaskRequestDto dto = new TaskRequestDto("New Title", "New Description", TaskStatus.COMPLETED, 1L);
+        TaskRequestDto dto = new TaskRequestDto("New Title", "New Description", TaskStatus.COMPLETED, 1L, null, null, null, null);
 
         Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
         Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
@@ -332,7 +722,7 @@ public class TaskServiceTest {
     @Test
     void updateTaskByAdmin_ShouldThrowException_WhenUserIsNotAdmin() {
         //arrange
-        TaskRequestDto dto = new TaskRequestDto("New Title", "New Description", TaskStatus.CANCELLED, 1L);
+        TaskRequestDto dto = new TaskRequestDto("New Title", "New Description", TaskStatus.CANCELLED, 1L, null, null, null, null);
 
         task.setUser(admin);
 
@@ -348,7 +738,7 @@ public class TaskServiceTest {
     @Test
     void updateTaskByAdmin_ShouldThrowException_WhenTaskNotFound() {
         //arrange
-        TaskRequestDto dto = new TaskRequestDto("New Title", "New Description", TaskStatus.CANCELLED, 1L);
+        TaskRequestDto dto = new TaskRequestDto("New Title", "New Description", TaskStatus.CANCELLED, 1L, null, null, null, null);
 
         Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
 
@@ -363,12 +753,31 @@ public class TaskServiceTest {
         //arrange
         Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
         Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(taskHierarchyRepository.detachChildren(Mockito.eq(user.getId()), Mockito.eq(taskId),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(detachedChild(7L)));
 
         //act
         taskService.delete(taskId, ADMIN);
 
         //assert
-        Mockito.verify(taskRepository, Mockito.times(1)).delete(task);
+        InOrder inOrder = Mockito.inOrder(taskHierarchyRepository, taskRepository);
+        inOrder.verify(taskHierarchyRepository).detachChildren(Mockito.eq(user.getId()), Mockito.eq(taskId),
+                Mockito.any(LocalDateTime.class));
+        inOrder.verify(taskRepository, Mockito.times(1)).delete(task);
+        Mockito.verify(eventPublisher).publishEvent(Mockito.argThat((Object event) ->
+                event instanceof TaskChangedEvent changed
+                        && changed.type() == TaskChangeType.UPDATED && changed.taskId() == 7L));
+
+        ArgumentCaptor<TaskTombstone> captor = ArgumentCaptor.forClass(TaskTombstone.class);
+        Mockito.verify(taskTombstoneRepository, Mockito.times(1)).save(captor.capture());
+
+        assertEquals(taskId, captor.getValue().getTaskId());
+        assertEquals(user.getId(), captor.getValue().getUserId());
+
+        Mockito.verify(eventPublisher, Mockito.times(1))
+                .publishEvent(Mockito.argThat((Object event) -> event instanceof TaskChangedEvent changed
+                        && changed.type() == TaskChangeType.DELETED));
     }
 
     @Test
@@ -384,6 +793,234 @@ public class TaskServiceTest {
             taskService.delete(taskId, USERNAME);
         });
         Mockito.verify(taskRepository, Mockito.never()).delete(Mockito.any());
+        Mockito.verify(taskTombstoneRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void findTaskETag_ShouldReturnETag_WhenOwner() {
+        //arrange
+        Mockito.when(taskRepository.findVersionById(taskId)).thenReturn(Optional.of(versionView(user.getId())));
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+
+        //act
+        String eTag = taskService.findTaskETag(taskId, USERNAME);
+
+        //assert
+        assertEquals("\"3\"", eTag);
+        Mockito.verify(taskRepository, Mockito.never()).findById(Mockito.any());
+        Mockito.verify(taskAclRepository, Mockito.never()).hasAccess(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void findTaskETag_ShouldThrowException_WhenNotAdminAndNotOwner() {
+        //arrange
+        Mockito.when(taskRepository.findVersionById(taskId)).thenReturn(Optional.of(versionView(admin.getId())));
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+
+        //act & assert
+        assertThrows(AccessDeniedException.class, () -> taskService.findTaskETag(taskId, USERNAME));
+    }
+
+    @Test
+    void findTaskETag_ShouldThrowException_WhenTaskDoesNotExist() {
+        //arrange
+        Mockito.when(taskRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        //act & assert
+        assertThrows(TaskNotFoundException.class, () -> taskService.findTaskETag(99L, USERNAME));
+    }
+
+    @Test
+    void findByIdAndUsernameWithETag_ShouldReturnSameETagAsVersionQuery() {
+        //arrange
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(taskRepository.findVersionById(taskId)).thenReturn(Optional.of(versionView(user.getId())));
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        ETagged<TaskResponseDto> result = taskService.findByIdAndUsernameWithETag(taskId, USERNAME);
+
+        //assert
+        assertEquals(taskResponseDto, result.body());
+        assertEquals(taskService.findTaskETag(taskId, USERNAME), result.eTag());
+    }
+
+    @Test
+    void findTasksForCurrentUserWithETag_ShouldChangeETag_WhenTaskUpdated() {
+        //arrange
+        mockSecurity(USERNAME);
+
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+        Mockito.when(taskRepository.findVisible(1L, List.of(), pageable)).thenReturn(tasks);
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        String before = taskService.findTasksForCurrentUserWithETag(pageable).eTag();
+        String unchanged = taskService.findTasksForCurrentUserWithETag(pageable).eTag();
+        task.setVersion(4L);
+        String after = taskService.findTasksForCurrentUserWithETag(pageable).eTag();
+
+        //assert
+        assertEquals(before, unchanged);
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void updateOwnTaskStatus_ShouldReturnNewETag_WhenIfMatchIsCurrent() {
+        //arrange
+        TaskStatusUpdateRequest request = new TaskStatusUpdateRequest(TaskStatus.COMPLETED);
+
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+        Mockito.when(taskRepository.save(task)).thenAnswer(invocation -> {
+            task.setVersion(task.getVersion() + 1);
+            return task;
+        });
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(updatedTaskResponseDto);
+
+        //act
+        ETagged<TaskResponseDto> result = taskService.updateOwnTaskStatus(taskId, request, USERNAME, "\"3\"");
+
+        //assert
+        assertEquals("\"4\"", result.eTag());
+        assertEquals(TaskStatus.COMPLETED, task.getStatus());
+    }
+
+    @Test
+    void updateOwnTaskStatus_ShouldThrowException_WhenIfMatchIsStale() {
+        //arrange
+        TaskStatusUpdateRequest request = new TaskStatusUpdateRequest(TaskStatus.COMPLETED);
+
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+
+        //act & assert
+        assertThrows(TaskVersionConflictException.class,
+                () -> taskService.updateOwnTaskStatus(taskId, request, USERNAME, "\"2\""));
+        assertEquals(TaskStatus.IN_PROGRESS, task.getStatus());
+        Mockito.verify(taskRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void updateTaskByAdmin_ShouldThrowException_WhenIfMatchIsStale() {
+        //arrange
+        TaskRequestDto dto = new TaskRequestDto("New Title", "New Description", TaskStatus.COMPLETED, 1L, null, null, null, null);
+
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+
+        //act & assert
+        assertThrows(TaskVersionConflictException.class,
+                () -> taskService.updateTaskByAdmin(taskId, dto, ADMIN, "\"1\""));
+        Mockito.verify(taskRepository, Mockito.never()).save(Mockito.any());
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateTaskByAdmin_ShouldUpdateTask_WhenIfMatchIsWildcard() {
+        //arrange
+        TaskRequestDto dto = new TaskRequestDto("New Title", "New Description", TaskStatus.COMPLETED, 1L, null, null, null, null);
+
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(taskRepository.save(task)).thenReturn(task);
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(updatedTaskResponseDto);
+
+        //act
+        ETagged<TaskResponseDto> result = taskService.updateTaskByAdmin(taskId, dto, ADMIN, "*");
+
+        //assert
+        assertEquals(updatedTaskResponseDto, result.body());
+        assertEquals("New Title", task.getTitle());
+    }
+
+    @Test
+    void replaceAssignees_ShouldReplaceAssigneeEntries_SkippingOwner() {
+        //arrange
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(userRepository.findAllById(Set.of(1L, 5L)))
+                .thenReturn(List.of(user, new User(5L, "assignee", "password", RoleType.ROLE_USER)));
+        Mockito.when(teamRepository.findAllById(Set.of(7L))).thenReturn(List.of(new Team(7L, "backend")));
+
+        //act
+        TaskAssigneesDto result = taskService.replaceAssignees(taskId, new TaskAssigneesDto(Set.of(1L, 5L), Set.of(7L)),
+                ADMIN);
+
+        //assert
+        assertEquals(Set.of(5L), result.userIds());
+        assertEquals(Set.of(7L), result.teamIds());
+        Mockito.verify(taskAclRepository).deleteByTaskIdAndKind(taskId, TaskAccessKind.ASSIGNEE);
+        Mockito.verify(taskAclRepository).saveAll(List.of(
+                new TaskAclEntry(null, taskId, 1L, 5L, null, TaskAccessKind.ASSIGNEE),
+                new TaskAclEntry(null, taskId, 1L, null, 7L, TaskAccessKind.ASSIGNEE)));
+    }
+
+    @Test
+    void replaceAssignees_ShouldThrowException_WhenTeamDoesNotExist() {
+        //arrange
+        Mockito.when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(teamRepository.findAllById(Set.of(7L))).thenReturn(List.of());
+
+        //act & assert
+        assertThrows(TeamNotFoundException.class, () -> taskService.replaceAssignees(taskId,
+                new TaskAssigneesDto(Set.of(), Set.of(7L)), ADMIN));
+        Mockito.verify(taskAclRepository, Mockito.never()).deleteByTaskIdAndKind(Mockito.any(), Mockito.any());
+    }
+
+    private TaskVersionView versionView(Long ownerId) {
+        return new TaskVersionView() {
+            @Override
+            public Long getId() {
+                return taskId;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 3L;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public Long getClaimerId() {
+                return null;
+            }
+        };
+    }
+
+    private static TaskChangeView detachedChild(Long childId) {
+        return new TaskChangeView() {
+            @Override
+            public Long getTaskId() {
+                return childId;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return 2L;
+            }
+
+            @Override
+            public String getOwnerUsername() {
+                return "admin";
+            }
+
+            @Override
+            public TaskStatus getStatus() {
+                return TaskStatus.PENDING;
+            }
+
+            @Override
+            public TaskChangeType getChangeType() {
+                return TaskChangeType.UPDATED;
+            }
+        };
     }
 
     private void mockSecurity(String username) {
@@ -0,0 +1,210 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.TaskStreamProperties;
+import com.example.taskmanager.entity.RoleType;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskStreamServiceTest {
+
+    private static final String USERNAME = "user";
+    private static final String ADMIN = "admin";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    private TaskStreamService taskStreamService;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new TaskStreamProperties(Duration.ofMinutes(1), Duration.ofSeconds(15), 2, 1);
+        taskStreamService = new TaskStreamService(userRepository, new ObjectMapper(), properties) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                var emitter = new RecordingEmitter(timeoutMillis);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskStreamService.shutdown();
+    }
+
+    @Test
+    void dispatch_ShouldDeliverOnlyOwnEvents_WhenRoleUser() throws Exception {
+        //arrange
+        Mockito.when(userRepository.findByUsername(USERNAME))
+                .thenReturn(Optional.of(new User(1L, USERNAME, "password", RoleType.ROLE_USER)));
+        Mockito.when(userRepository.findByUsername(ADMIN))
+                .thenReturn(Optional.of(new User(2L, ADMIN, "password", RoleType.ROLE_ADMIN)));
+
+        taskStreamService.subscribe(USERNAME);
+        taskStreamService.subscribe(ADMIN);
+
+        RecordingEmitter userEmitter = emitters.get(0);
+        RecordingEmitter adminEmitter = emitters.get(1);
+        adminEmitter.expect(2);
+        userEmitter.expect(1);
+
+        //act
+        taskStreamService.dispatch(event(1L, USERNAME));
+        taskStreamService.dispatch(event(2L, ADMIN));
+
+        //assert
+        assertTrue(adminEmitter.await());
+        assertTrue(userEmitter.await());
+        assertEquals(1, userEmitter.sent());
+        assertEquals(2, adminEmitter.sent());
+    }
+
+    @Test
+    void dispatch_ShouldCloseSubscription_WhenBufferOverflows() {
+        //arrange
+        Mockito.when(userRepository.findByUsername(USERNAME))
+                .thenReturn(Optional.of(new User(1L, USERNAME, "password", RoleType.ROLE_USER)));
+
+        taskStreamService.subscribe(USERNAME);
+        RecordingEmitter emitter = emitters.get(0);
+        emitter.block();
+
+        //act
+        for (long id = 1; id <= 10; id++) {
+            taskStreamService.dispatch(event(id, USERNAME));
+        }
+
+        //assert
+        assertEquals(0, taskStreamService.activeSubscriptions());
+        emitter.unblock();
+    }
+
+    @Test
+    void sendHeartbeats_ShouldNotBlockScheduler_WhenClientIsSlow() throws Exception {
+        //arrange
+        Mockito.when(userRepository.findByUsername(USERNAME))
+                .thenReturn(Optional.of(new User(1L, USERNAME, "password", RoleType.ROLE_USER)));
+
+        taskStreamService.subscribe(USERNAME);
+        RecordingEmitter emitter = emitters.get(0);
+        emitter.expect(1);
+        emitter.block();
+
+        //act
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> taskStreamService.sendHeartbeats());
+        emitter.unblock();
+
+        //assert
+        assertTrue(emitter.await());
+        assertEquals(1, emitter.sent());
+        assertTrue(emitter.senderThread().startsWith("task-stream-"));
+    }
+
+    @Test
+    void sendHeartbeats_ShouldSkipHeartbeat_WhenEventWasSentInSameDrain() throws Exception {
+        //arrange
+        Mockito.when(userRepository.findByUsername(USERNAME))
+                .thenReturn(Optional.of(new User(1L, USERNAME, "password", RoleType.ROLE_USER)));
+
+        taskStreamService.subscribe(USERNAME);
+        RecordingEmitter emitter = emitters.get(0);
+        emitter.block();
+
+        //act
+        taskStreamService.dispatch(event(1L, USERNAME));
+        taskStreamService.dispatch(event(2L, USERNAME));
+        taskStreamService.sendHeartbeats();
+        emitter.expect(2);
+        emitter.unblock();
+
+        //assert
+        assertTrue(emitter.await());
+        Thread.sleep(200);
+        assertEquals(2, emitter.sent());
+        assertEquals(1, taskStreamService.activeSubscriptions());
+    }
+
+    private TaskChangedEvent event(Long taskId, String owner) {
+        return new TaskChangedEvent(taskId, 1L, owner, TaskStatus.PENDING, TaskChangeType.UPDATED, Instant.now());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch blocker = new CountDownLatch(1);
+        private volatile boolean blocked;
+        private volatile CountDownLatch expected = new CountDownLatch(0);
+        private volatile int sent;
+        private volatile String senderThread;
+
+        RecordingEmitter(long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (blocked) {
+                try {
+                    blocker.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent++;
+            senderThread = Thread.currentThread().getName();
+            expected.countDown();
+        }
+
+        @Override
+        public void complete() {
+        }
+
+        void expect(int count) {
+            expected = new CountDownLatch(count);
+        }
+
+        boolean await() throws InterruptedException {
+            return expected.await(5, TimeUnit.SECONDS);
+        }
+
+        int sent() {
+            return sent;
+        }
+
+        String senderThread() {
+            return senderThread;
+        }
+
+        void block() {
+            blocked = true;
+        }
+
+        void unblock() {
+            blocker.countDown();
+        }
+    }
+}
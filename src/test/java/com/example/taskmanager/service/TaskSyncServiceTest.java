@@ -0,0 +1,165 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.TaskSyncProperties;
+import com.example.taskmanager.dto.TaskChangeDto;
+import com.example.taskmanager.dto.TaskChangesResponse;
+import com.example.taskmanager.dto.TaskResponseDto;
+import com.example.taskmanager.dto.UserResponseDto;
+import com.example.taskmanager.entity.RoleType;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskPriority;
+import com.example.taskmanager.entity.TaskStatus;
+import com.example.taskmanager.entity.TaskTombstone;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.exception.InvalidSyncTokenException;
+import com.example.taskmanager.mapper.TaskMapper;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.TaskTombstoneRepository;
+import com.example.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskSyncServiceTest {
+
+    private static final String USERNAME = "user";
+    private static final String ADMIN = "admin";
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_456_000);
+    private User user;
+    private User admin;
+    private Task task;
+    private TaskTombstone tombstone;
+    private TaskResponseDto taskResponseDto;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    private TaskSyncService taskSyncService;
+
+    @BeforeEach
+    void setUp() {
+        taskSyncService = new TaskSyncService(taskRepository, taskTombstoneRepository, userRepository, taskMapper,
+                new TaskSyncProperties(Duration.ofSeconds(30)));
+        user = new User(1L, USERNAME, "password", RoleType.ROLE_USER);
+        admin = new User(2L, ADMIN, "password2", RoleType.ROLE_ADMIN);
+        task = new Task(5L, "Task", "Description", TaskStatus.PENDING, now, now, user, 0L, null, TaskPriority.NORMAL, null, null, null, null, List.of());
+        tombstone = new TaskTombstone(7L, 3L, 1L, now.plusSeconds(1));
+        taskResponseDto = new TaskResponseDto("Task", "Description", TaskStatus.PENDING,
+                new UserResponseDto(USERNAME, RoleType.ROLE_USER.name()), null, TaskPriority.NORMAL, List.of());
+    }
+
+    @Test
+    void findChangesSince_ShouldReturnOwnChangesAndDeletions_WhenRoleUser() {
+        //arrange
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+        Mockito.when(taskRepository.findChangedSinceByUserId(ArgumentMatchers.eq(1L), ArgumentMatchers.any(),
+                ArgumentMatchers.eq(0L), ArgumentMatchers.any())).thenReturn(List.of(task));
+        Mockito.when(taskTombstoneRepository.findDeletedSinceByUserId(ArgumentMatchers.eq(1L), ArgumentMatchers.any(),
+                ArgumentMatchers.eq(0L), ArgumentMatchers.any())).thenReturn(List.of(tombstone));
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        TaskChangesResponse result = taskSyncService.findChangesSince(null, 10, USERNAME);
+
+        //assert
+        assertEquals(1, result.changed().size());
+        assertEquals(5L, result.changed().get(0).id());
+        assertEquals(List.of(3L), result.deleted());
+        assertFalse(result.hasMore());
+        Mockito.verify(taskRepository, Mockito.never()).findChangedSince(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void findChangesSince_ShouldContinueFromReturnedWatermark() {
+        //arrange
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(taskRepository.findChangedSince(ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+                .thenReturn(List.of(task), List.of());
+        Mockito.when(taskTombstoneRepository.findDeletedSince(ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+                .thenReturn(List.of(tombstone), List.of());
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        String watermark = taskSyncService.findChangesSince(null, 10, ADMIN).watermark();
+        TaskChangesResponse next = taskSyncService.findChangesSince(watermark, 10, ADMIN);
+
+        //assert
+        assertTrue(next.changed().isEmpty());
+        assertTrue(next.deleted().isEmpty());
+        assertEquals(watermark, next.watermark());
+        Mockito.verify(taskRepository).findChangedSince(ArgumentMatchers.eq(now), ArgumentMatchers.eq(5L), ArgumentMatchers.any());
+        Mockito.verify(taskTombstoneRepository).findDeletedSince(ArgumentMatchers.eq(now.plusSeconds(1)), ArgumentMatchers.eq(7L), ArgumentMatchers.any());
+    }
+
+    @Test
+    void findChangesSince_ShouldReportHasMore_WhenMoreChangesThanLimit() {
+        //arrange
+        Task second = new Task(6L, "Task 2", "Description", TaskStatus.PENDING, now, now.plusSeconds(5), user, 0L, null, TaskPriority.NORMAL, null, null, null, null, List.of());
+
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(taskRepository.findChangedSince(ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+                .thenReturn(List.of(task, second));
+        Mockito.when(taskTombstoneRepository.findDeletedSince(ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+                .thenReturn(List.of());
+        Mockito.when(taskMapper.mapToDto(task)).thenReturn(taskResponseDto);
+
+        //act
+        TaskChangesResponse result = taskSyncService.findChangesSince(null, 1, ADMIN);
+
+        //assert
+        assertEquals(1, result.changed().size());
+        assertTrue(result.hasMore());
+    }
+
+    @Test
+    void findChangesSince_ShouldNotAdvanceWatermark_PastChangesYoungerThanCommitGrace() {
+        //arrange
+        Task fresh = new Task(6L, "Task 2", "Description", TaskStatus.PENDING, now, LocalDateTime.now(), user, 0L, null, TaskPriority.NORMAL, null, null, null, null, List.of());
+
+        Mockito.when(userRepository.findByUsername(ADMIN)).thenReturn(Optional.of(admin));
+        Mockito.when(taskRepository.findChangedSince(ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+                .thenReturn(List.of(task, fresh), List.of(fresh));
+        Mockito.when(taskTombstoneRepository.findDeletedSince(ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+                .thenReturn(List.of());
+        Mockito.when(taskMapper.mapToDto(Mockito.any(Task.class))).thenReturn(taskResponseDto);
+
+        //act
+        TaskChangesResponse first = taskSyncService.findChangesSince(null, 1, ADMIN);
+        TaskChangesResponse second = taskSyncService.findChangesSince(first.watermark(), 1, ADMIN);
+
+        //assert
+        assertTrue(first.hasMore());
+        assertEquals(List.of(6L), second.changed().stream().map(TaskChangeDto::id).toList());
+        assertFalse(second.hasMore());
+        assertEquals(first.watermark(), second.watermark());
+        Mockito.verify(taskRepository).findChangedSince(ArgumentMatchers.eq(now), ArgumentMatchers.eq(5L), ArgumentMatchers.any());
+    }
+
+    @Test
+    void findChangesSince_ShouldThrowException_WhenTokenIsMalformed() {
+        //act & assert
+        assertThrows(InvalidSyncTokenException.class, () -> taskSyncService.findChangesSince("not-a-token", 10, USERNAME));
+    }
+}
@@ -1,17 +1,24 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.config.ResilienceProperties;
+import com.example.taskmanager.config.ResilienceProperties.BlacklistFailurePolicy;
+import com.example.taskmanager.exception.DependencyUnavailableException;
+import com.example.taskmanager.resilience.RedisGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
 import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,7 +37,7 @@ public class TokenBlacklistServiceTest {
 
     @BeforeEach
     void setUp() {
-        tokenBlacklistService = new TokenBlacklistService(redisTemplate);
+        tokenBlacklistService = blacklistService(BlacklistFailurePolicy.FAIL_CLOSED);
     }
 
     @Test
@@ -74,4 +81,35 @@ public class TokenBlacklistServiceTest {
         //assert
         assertFalse(result);
     }
+
+    @Test
+    void isTokenBlacklisted_shouldReturnFalse_whenRedisFailsAndPolicyIsFailOpen() {
+        //arrange
+        tokenBlacklistService = blacklistService(BlacklistFailurePolicy.FAIL_OPEN);
+        Mockito.when(redisTemplate.hasKey(BLACKLIST_PREFIX + TOKEN))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        //act
+        boolean result = tokenBlacklistService.isTokenBlacklisted(TOKEN);
+
+        //assert
+        assertFalse(result);
+    }
+
+    @Test
+    void isTokenBlacklisted_shouldThrow_whenRedisFailsAndPolicyIsFailClosed() {
+        //arrange
+        Mockito.when(redisTemplate.hasKey(BLACKLIST_PREFIX + TOKEN))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        //act & assert
+        assertThrows(DependencyUnavailableException.class, () -> tokenBlacklistService.isTokenBlacklisted(TOKEN));
+    }
+
+    private TokenBlacklistService blacklistService(BlacklistFailurePolicy policy) {
+        var dependency = new ResilienceProperties.Dependency(32, Duration.ZERO, Duration.ofMillis(50),
+                Duration.ofSeconds(1), 50, 20, Duration.ofSeconds(10));
+        var properties = new ResilienceProperties(policy, dependency, dependency);
+        return new TokenBlacklistService(redisTemplate, new RedisGuard(properties, new SimpleMeterRegistry()), properties);
+    }
 }
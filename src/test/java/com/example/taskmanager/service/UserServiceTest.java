@@ -5,19 +5,26 @@ import com.example.taskmanager.dto.UserResponseDto;
 import com.example.taskmanager.entity.RoleType;
 import com.example.taskmanager.entity.User;
 import com.example.taskmanager.exception.UserNotFoundException;
+import com.example.taskmanager.event.TaskChangeType;
+import com.example.taskmanager.event.TaskChangedEvent;
 import com.example.taskmanager.mapper.UserMapper;
+import com.example.taskmanager.repository.TaskChangeView;
+import com.example.taskmanager.repository.TaskHierarchyRepository;
 import com.example.taskmanager.repository.TaskRepository;
 import com.example.taskmanager.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.*;
@@ -49,6 +56,12 @@ public class UserServiceTest {
     @Mock
     TaskRepository taskRepository;
 
+    @Mock
+    private TaskHierarchyRepository taskHierarchyRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
@@ -154,11 +167,22 @@ public class UserServiceTest {
     @Test
     void delete_ShouldDeleteUser_whenRequestIsValid() {
         Mockito.when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        TaskChangeView child = Mockito.mock(TaskChangeView.class);
+        Mockito.when(child.getTaskId()).thenReturn(7L);
+        Mockito.when(child.getChangeType()).thenReturn(TaskChangeType.UPDATED);
+        Mockito.when(taskHierarchyRepository.detachChildrenOfUser(Mockito.eq(USER_ID), Mockito.any()))
+                .thenReturn(List.of(child));
 
         userService.delete(USER_ID);
 
         Mockito.verify(userRepository, Mockito.times(1)).findById(USER_ID);
         Mockito.verify(userRepository, Mockito.times(1)).delete(user);
+        InOrder inOrder = Mockito.inOrder(taskHierarchyRepository, taskRepository);
+        inOrder.verify(taskHierarchyRepository).detachChildrenOfUser(Mockito.eq(USER_ID), Mockito.any());
+        inOrder.verify(taskRepository).deleteByUserIdWithTombstones(Mockito.eq(USER_ID), Mockito.any());
+        Mockito.verify(eventPublisher).publishEvent(Mockito.argThat((Object event) ->
+                event instanceof TaskChangedEvent changed
+                        && changed.type() == TaskChangeType.UPDATED && changed.taskId() == 7L));
     }
 
     @Test
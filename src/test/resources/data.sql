@@ -6,4 +6,6 @@ VALUES
 INSERT INTO tasks (title, description, status, created_at, updated_at, user_id)
 VALUES
   ('Test Task 1', 'Test task description', 'PENDING', NOW(), NOW(), 1),
-  ('Admin Task', 'Created by admin', 'IN_PROGRESS', NOW(), NOW(), 2);
\ No newline at end of file
+  ('Admin Task', 'Created by admin', 'IN_PROGRESS', NOW(), NOW(), 2);
+INSERT INTO task_acl (task_id, task_user_id, user_id, kind)
+SELECT id, user_id, user_id, 'OWNER' FROM tasks;